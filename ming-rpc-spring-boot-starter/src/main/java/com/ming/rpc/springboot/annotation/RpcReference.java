@@ -79,9 +79,25 @@ public @interface RpcReference {
     boolean mock() default false;
 
     /**
-     * 调用超时时间（毫秒）
+     * 调用超时时间（毫秒），0 表示不限
+     * 接口方法上标注的 @RpcTimeout 优先
      * 
      * @return 超时时间
      */
     long timeout() default 3000L;
+
+    /**
+     * 该服务最大并发调用数，0 表示不限，-1 表示使用全局配置
+     * 达到上限的调用不再发出，按配置交给容错策略或直接失败
+     * 
+     * @return 最大并发调用数
+     */
+    int maxConcurrentCalls() default -1;
+
+    /**
+     * 该服务每个方法的最大并发调用数，0 表示不限，-1 表示使用全局配置
+     * 
+     * @return 每个方法的最大并发调用数
+     */
+    int methodMaxConcurrentCalls() default -1;
 }
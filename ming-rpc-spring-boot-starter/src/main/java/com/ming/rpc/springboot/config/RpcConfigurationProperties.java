@@ -1,7 +1,15 @@
 package com.ming.rpc.springboot.config;
 
+import com.ming.rpc.config.BulkheadConfig;
+import com.ming.rpc.config.CircuitBreakerConfig;
+import com.ming.rpc.config.ExecutorConfig;
+import com.ming.rpc.config.HedgeConfig;
+import com.ming.rpc.config.HeartbeatConfig;
+import com.ming.rpc.config.KryoConfig;
 import com.ming.rpc.config.RegistryConfig;
+import com.ming.rpc.config.RetryConfig;
 import com.ming.rpc.config.RpcConfig;
+import com.ming.rpc.config.TcpServerConfig;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
@@ -45,6 +53,36 @@ public class RpcConfigurationProperties {
      */
     private String serializer = "JDK";
 
+    /**
+     * 信封序列化器使用的值序列化器
+     */
+    private String envelopeValueSerializer = "kryo";
+
+    /**
+     * 压缩算法（none/gzip/deflate/lz4）
+     */
+    private String compressor = "none";
+
+    /**
+     * 消息体超过该大小（字节）才压缩
+     */
+    private int compressThreshold = 16 * 1024;
+
+    /**
+     * 解压后消息体的最大字节数
+     */
+    private int maxDecompressedSize = 64 * 1024 * 1024;
+
+    /**
+     * 消费者未声明压缩算法时，是否按本端配置压缩响应
+     */
+    private boolean defaultResponseCompression = false;
+
+    /**
+     * 默认调用超时（毫秒）
+     */
+    private long requestTimeout = 3000;
+
     /**
      * 负载均衡器类型
      */
@@ -60,6 +98,21 @@ public class RpcConfigurationProperties {
      */
     private String tolerantStrategy = "FAIL_FAST";
 
+    /**
+     * 服务权重
+     */
+    private int serviceWeight = 100;
+
+    /**
+     * 服务预热时长（毫秒）
+     */
+    private int serviceWarmup = 60000;
+
+    /**
+     * 客户端到每个服务节点保持的长连接数
+     */
+    private int connectionsPerNode = 2;
+
     /**
      * 是否启用模拟调用
      */
@@ -71,6 +124,54 @@ public class RpcConfigurationProperties {
     @NestedConfigurationProperty
     private RegistryConfigProperties registryConfig = new RegistryConfigProperties();
 
+    /**
+     * Kryo 序列化配置，消费者和提供者需保持一致
+     */
+    @NestedConfigurationProperty
+    private KryoConfig kryoConfig = new KryoConfig();
+
+    /**
+     * 重试配置（exponentialBackoff 重试策略使用）
+     */
+    @NestedConfigurationProperty
+    private RetryConfig retryConfig = new RetryConfig();
+
+    /**
+     * 熔断配置
+     */
+    @NestedConfigurationProperty
+    private CircuitBreakerConfig circuitBreakerConfig = new CircuitBreakerConfig();
+
+    /**
+     * 舱壁隔离配置（按服务、方法限制并发调用数）
+     */
+    @NestedConfigurationProperty
+    private BulkheadConfig bulkheadConfig = new BulkheadConfig();
+
+    /**
+     * 对冲请求配置（只对 @Idempotent 方法生效）
+     */
+    @NestedConfigurationProperty
+    private HedgeConfig hedgeConfig = new HedgeConfig();
+
+    /**
+     * 心跳配置
+     */
+    @NestedConfigurationProperty
+    private HeartbeatConfig heartbeatConfig = new HeartbeatConfig();
+
+    /**
+     * 服务端执行配置（EVENT_LOOP/WORKER/VIRTUAL_THREAD 执行模式及线程池上限）
+     */
+    @NestedConfigurationProperty
+    private ExecutorConfig executorConfig = new ExecutorConfig();
+
+    /**
+     * TCP 服务端配置（实例数、TCP 参数、原生传输）
+     */
+    @NestedConfigurationProperty
+    private TcpServerConfig tcpServerConfig = new TcpServerConfig();
+
     /**
      * 转换为RpcConfig对象
      * 
@@ -83,9 +184,26 @@ public class RpcConfigurationProperties {
         rpcConfig.setServerHost(this.serverHost);
         rpcConfig.setServerPort(this.serverPort);
         rpcConfig.setSerializer(this.serializer);
+        rpcConfig.setKryoConfig(this.kryoConfig);
+        rpcConfig.setHeartbeatConfig(this.heartbeatConfig);
+        rpcConfig.setExecutorConfig(this.executorConfig);
+        rpcConfig.setTcpServerConfig(this.tcpServerConfig);
+        rpcConfig.setEnvelopeValueSerializer(this.envelopeValueSerializer);
+        rpcConfig.setCompressor(this.compressor);
+        rpcConfig.setCompressThreshold(this.compressThreshold);
+        rpcConfig.setMaxDecompressedSize(this.maxDecompressedSize);
+        rpcConfig.setDefaultResponseCompression(this.defaultResponseCompression);
+        rpcConfig.setRequestTimeout(this.requestTimeout);
         rpcConfig.setLoadBalancer(this.loadBalancer);
         rpcConfig.setRetryStrategy(this.retryStrategy);
+        rpcConfig.setRetryConfig(this.retryConfig);
+        rpcConfig.setCircuitBreakerConfig(this.circuitBreakerConfig);
+        rpcConfig.setBulkheadConfig(this.bulkheadConfig);
+        rpcConfig.setHedgeConfig(this.hedgeConfig);
         rpcConfig.setTolerantStrategy(this.tolerantStrategy);
+        rpcConfig.setServiceWeight(this.serviceWeight);
+        rpcConfig.setServiceWarmup(this.serviceWarmup);
+        rpcConfig.setConnectionsPerNode(this.connectionsPerNode);
         rpcConfig.setMock(this.mock);
         rpcConfig.setRegistryConfig(this.registryConfig.toRegistryConfig());
         return rpcConfig;
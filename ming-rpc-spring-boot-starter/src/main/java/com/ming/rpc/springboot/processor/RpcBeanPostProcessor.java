@@ -31,6 +31,11 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class RpcBeanPostProcessor implements BeanPostProcessor {
 
+    /**
+     * 服务启动时间，消费端据此计算预热权重
+     */
+    private static final long START_TIME = System.currentTimeMillis();
+
     @Override
     public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
         Class<?> beanClass = bean.getClass();
@@ -152,6 +157,9 @@ public class RpcBeanPostProcessor implements BeanPostProcessor {
         serviceMetaInfo.setServiceHost(rpcConfig.getServerHost());
         serviceMetaInfo.setServicePort(rpcConfig.getServerPort());
         serviceMetaInfo.setServiceGroup(rpcService.group());
+        serviceMetaInfo.setWeight(rpcConfig.getServiceWeight());
+        serviceMetaInfo.setStartTime(START_TIME);
+        serviceMetaInfo.setWarmup(rpcConfig.getServiceWarmup());
 
         // 注册服务
         registry.register(serviceMetaInfo);
@@ -186,7 +194,8 @@ public class RpcBeanPostProcessor implements BeanPostProcessor {
             return ServiceProxyFactory.getMockProxy(interfaceClass);
         }
 
-        // 创建普通代理
-        return ServiceProxyFactory.getProxy(interfaceClass);
+        // 创建普通代理，接口方法上的 @RpcTimeout 优先于引用指定的超时
+        return ServiceProxyFactory.getProxy(interfaceClass, rpcReference.timeout(),
+            rpcReference.maxConcurrentCalls(), rpcReference.methodMaxConcurrentCalls());
     }
 }
@@ -2,6 +2,7 @@ package com.ming.rpc.springboot.config;
 
 import com.ming.rpc.config.RegistryConfig;
 import com.ming.rpc.config.RpcConfig;
+import com.ming.rpc.server.invoker.ExecutionModeEnum;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.boot.context.properties.source.ConfigurationPropertySource;
@@ -134,6 +135,52 @@ class RpcConfigurationPropertiesTest {
         assertThat(registryConfig.getTimeout()).isEqualTo(5000L);
     }
 
+    @Test
+    void testExecutorConfigBinding() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("rpc.executor-config.mode", "VIRTUAL_THREAD");
+        properties.put("rpc.executor-config.worker-threads", "4");
+        properties.put("rpc.executor-config.max-virtual-thread-requests", "100");
+
+        RpcConfigurationProperties rpcProperties = new Binder(new MapConfigurationPropertySource(properties))
+            .bind("rpc", RpcConfigurationProperties.class).get();
+        RpcConfig rpcConfig = rpcProperties.toRpcConfig();
+
+        assertThat(rpcConfig.getExecutorConfig().getMode()).isEqualTo(ExecutionModeEnum.VIRTUAL_THREAD);
+        assertThat(rpcConfig.getExecutorConfig().getWorkerThreads()).isEqualTo(4);
+        assertThat(rpcConfig.getExecutorConfig().getMaxVirtualThreadRequests()).isEqualTo(100);
+    }
+
+    @Test
+    void testTcpServerConfigBinding() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("rpc.tcp-server-config.instances", "3");
+        properties.put("rpc.tcp-server-config.tcp-no-delay", "false");
+        properties.put("rpc.tcp-server-config.receive-buffer-size", "65536");
+        properties.put("rpc.tcp-server-config.prefer-native-transport", "false");
+
+        RpcConfigurationProperties rpcProperties = new Binder(new MapConfigurationPropertySource(properties))
+            .bind("rpc", RpcConfigurationProperties.class).get();
+        RpcConfig rpcConfig = rpcProperties.toRpcConfig();
+
+        assertThat(rpcConfig.getTcpServerConfig().getInstances()).isEqualTo(3);
+        assertThat(rpcConfig.getTcpServerConfig().isTcpNoDelay()).isFalse();
+        assertThat(rpcConfig.getTcpServerConfig().getReceiveBufferSize()).isEqualTo(65536);
+        assertThat(rpcConfig.getTcpServerConfig().isPreferNativeTransport()).isFalse();
+    }
+
+    @Test
+    void testConnectionsPerNodeBinding() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("rpc.connections-per-node", "4");
+
+        RpcConfigurationProperties rpcProperties = new Binder(new MapConfigurationPropertySource(properties))
+            .bind("rpc", RpcConfigurationProperties.class).get();
+
+        assertThat(rpcProperties.toRpcConfig().getConnectionsPerNode()).isEqualTo(4);
+        assertThat(new RpcConfigurationProperties().toRpcConfig().getConnectionsPerNode()).isEqualTo(2);
+    }
+
     @Test
     void testToRegistryConfig() {
         RpcConfigurationProperties.RegistryConfigProperties properties = 
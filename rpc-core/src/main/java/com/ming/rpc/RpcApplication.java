@@ -5,6 +5,8 @@ import com.ming.rpc.config.RpcConfig;
 import com.ming.rpc.constant.RpcConstant;
 import com.ming.rpc.registry.Registry;
 import com.ming.rpc.registry.RegistryFactory;
+import com.ming.rpc.server.invoker.ServiceExecutor;
+import com.ming.rpc.server.tcp.VertexTcpClient;
 import com.ming.rpc.utils.ConfigUtils;
 import lombok.extern.slf4j.Slf4j;
 
@@ -79,7 +81,7 @@ public class RpcApplication {
 
     /**
      * 销毁方法，用于在测试环境中重置应用状态。
-     * 这个方法会销毁当前持有的注册中心实例（从而停止心跳等后台任务），
+     * 这个方法会销毁当前持有的注册中心实例（从而停止心跳等后台任务）、关闭 TCP 客户端的长连接，
      * 并将静态的配置和注册中心实例字段重置为null，
      * 以确保每个单元测试都在一个干净的环境中独立运行。
      */
@@ -88,6 +90,8 @@ public class RpcApplication {
             registry.destroy();
         }
         registry = null;
+        VertexTcpClient.destroy();
+        ServiceExecutor.shutdownDefault();
         rpcConfig = null;
     }
 
@@ -0,0 +1,34 @@
+package com.ming.rpc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 一致性哈希路由键注解（消费端使用）
+ * 标注在服务接口方法的参数上，表示用该参数（或其中的某个属性）计算路由哈希，相同键的调用固定落到同一节点；
+ * 也可以标注在方法上，通过 argIndex 指定参数下标。未标注时按方法名路由
+ * <pre>
+ * User getUser(&#64;HashKey Long userId);
+ * Order query(&#64;HashKey("tenant.id") QueryRequest request);
+ * </pre>
+ */
+@Target({ElementType.PARAMETER, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface HashKey {
+
+    /**
+     * 参数内的属性路径，多级用 "." 分隔，按 getter、记录组件、字段的顺序查找；为空表示直接使用参数本身
+     * @return 属性路径
+     */
+    String value() default "";
+
+    /**
+     * 参数下标，仅标注在方法上时生效
+     * @return 参数下标
+     */
+    int argIndex() default 0;
+}
@@ -0,0 +1,18 @@
+package com.ming.rpc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 幂等方法注解（消费端使用）
+ * 标注在服务接口上对所有方法生效，标注在方法上只对该方法生效。
+ * 幂等方法重复执行没有副作用，允许发送对冲请求：首个请求迟迟没有响应时向另一个节点再发一份，先返回的结果生效
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Idempotent {
+}
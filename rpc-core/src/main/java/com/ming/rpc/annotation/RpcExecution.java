@@ -0,0 +1,26 @@
+package com.ming.rpc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.ming.rpc.server.invoker.ExecutionModeEnum;
+
+/**
+ * 服务执行模式注解（服务端使用）
+ * 标注在服务实现类上对整个服务生效，标注在方法上只对该方法生效，方法上的优先级更高。
+ * 未标注时使用 RpcConfig 中配置的默认执行模式
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RpcExecution {
+
+    /**
+     * 执行模式
+     * @return 执行模式
+     */
+    ExecutionModeEnum value();
+}
@@ -0,0 +1,24 @@
+package com.ming.rpc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 调用超时注解（消费端使用）
+ * 标注在服务接口上对所有方法生效，标注在方法上只对该方法生效，方法上的优先级更高。
+ * 未标注时使用引用（如 @RpcReference）指定的超时，再其次使用 RpcConfig 中配置的默认超时
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RpcTimeout {
+
+    /**
+     * 超时时间（毫秒），0 表示不限
+     * @return 超时时间
+     */
+    long value();
+}
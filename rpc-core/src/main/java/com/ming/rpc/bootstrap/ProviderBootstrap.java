@@ -24,6 +24,8 @@ public class ProviderBootstrap {
     RpcApplication.init();
     //全局配置
     final RpcConfig rpcConfig = RpcApplication.getRpcConfig();
+    //启动时间，消费端据此计算预热权重
+    final long startTime = System.currentTimeMillis();
 
         //注册服务
         for (ServiceRegisterInfo<?> serviceRegisterInfo : serviceRegisterInfoList) {
@@ -39,6 +41,9 @@ public class ProviderBootstrap {
             serviceMetaInfo.setServiceName(serviceName);
             serviceMetaInfo.setServiceHost(rpcConfig.getServerHost());
             serviceMetaInfo.setServicePort(rpcConfig.getServerPort());
+            serviceMetaInfo.setWeight(rpcConfig.getServiceWeight());
+            serviceMetaInfo.setStartTime(startTime);
+            serviceMetaInfo.setWarmup(rpcConfig.getServiceWarmup());
             try{
                 registry.register(serviceMetaInfo);
             }catch(Exception e){
@@ -0,0 +1,26 @@
+package com.ming.rpc.config;
+
+import lombok.Data;
+
+/**
+ * 舱壁隔离配置（消费端使用），限制单个服务和单个方法同时在途的调用数，
+ * 避免一个变慢的下游服务占满调用方的并发能力
+ */
+@Data
+public class BulkheadConfig {
+
+    /**
+     * 每个服务最大并发调用数，0 表示不限；可被引用覆盖
+     */
+    private int maxConcurrentCalls = 0;
+
+    /**
+     * 每个方法最大并发调用数，0 表示不限；可被引用覆盖
+     */
+    private int methodMaxConcurrentCalls = 0;
+
+    /**
+     * 被拒绝的调用是否交给容错策略处理，为 false 时直接以 RpcBulkheadException 失败
+     */
+    private boolean fallbackOnRejection = true;
+}
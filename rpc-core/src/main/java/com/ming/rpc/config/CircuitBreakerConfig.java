@@ -0,0 +1,55 @@
+package com.ming.rpc.config;
+
+import lombok.Data;
+
+/**
+ * 熔断配置（消费端使用，每个服务节点一个熔断器）
+ */
+@Data
+public class CircuitBreakerConfig {
+
+    /**
+     * 是否开启熔断
+     */
+    private boolean enabled = true;
+
+    /**
+     * 滑动窗口长度（毫秒）
+     */
+    private long windowMillis = 10000;
+
+    /**
+     * 滑动窗口分桶数
+     */
+    private int bucketCount = 10;
+
+    /**
+     * 窗口内至少有这么多次调用才计算失败率和慢调用率
+     */
+    private int minimumCalls = 20;
+
+    /**
+     * 失败率阈值（百分比），达到后熔断
+     */
+    private int failureRateThreshold = 50;
+
+    /**
+     * 慢调用耗时阈值（毫秒）
+     */
+    private long slowCallDurationMillis = 2000;
+
+    /**
+     * 慢调用率阈值（百分比），达到后熔断
+     */
+    private int slowCallRateThreshold = 80;
+
+    /**
+     * 熔断持续时间（毫秒），到期后进入半开状态放行少量探测请求
+     */
+    private long openDurationMillis = 5000;
+
+    /**
+     * 半开状态放行的探测请求数，全部成功后关闭熔断
+     */
+    private int halfOpenPermittedCalls = 5;
+}
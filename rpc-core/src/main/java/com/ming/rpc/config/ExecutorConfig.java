@@ -0,0 +1,32 @@
+package com.ming.rpc.config;
+
+import com.ming.rpc.server.invoker.ExecutionModeEnum;
+
+import lombok.Data;
+
+/**
+ * 服务端执行配置
+ */
+@Data
+public class ExecutorConfig {
+
+    /**
+     * 默认执行模式
+     */
+    private ExecutionModeEnum mode = ExecutionModeEnum.EVENT_LOOP;
+
+    /**
+     * 工作线程数
+     */
+    private int workerThreads = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * 工作线程池排队上限，超出后直接拒绝
+     */
+    private int workerQueueCapacity = 1024;
+
+    /**
+     * 虚拟线程模式下同时执行的最大请求数，超出后直接拒绝
+     */
+    private int maxVirtualThreadRequests = 10000;
+}
@@ -0,0 +1,32 @@
+package com.ming.rpc.config;
+
+import lombok.Data;
+
+/**
+ * 心跳配置
+ * 客户端连接空闲（一段时间没有收到任何数据）时发送 ping，超时仍未收到数据则判定对端失联并关闭连接；
+ * 服务端超时没有收到任何数据（包括 ping）时关闭连接
+ */
+@Data
+public class HeartbeatConfig {
+
+    /**
+     * 是否开启心跳
+     */
+    private boolean enabled = true;
+
+    /**
+     * 空闲多久（毫秒）发送一次 ping
+     */
+    private long intervalMillis = 5000;
+
+    /**
+     * 多久（毫秒）没有收到任何数据判定对端失联
+     */
+    private long timeoutMillis = 15000;
+
+    /**
+     * 心跳超时的节点从负载均衡候选中剔除的时长（毫秒），到期后重新参与选择并重连
+     */
+    private long evictMillis = 30000;
+}
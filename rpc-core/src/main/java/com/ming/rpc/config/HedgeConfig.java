@@ -0,0 +1,40 @@
+package com.ming.rpc.config;
+
+import lombok.Data;
+
+/**
+ * 对冲请求配置（只对 @Idempotent 方法生效）
+ */
+@Data
+public class HedgeConfig {
+
+    /**
+     * 是否开启对冲请求
+     */
+    private boolean enabled = true;
+
+    /**
+     * 对冲延迟取该方法调用延迟的百分位，如 95 表示首个请求超过 p95 仍未响应时发出对冲请求
+     */
+    private int delayPercentile = 95;
+
+    /**
+     * 对冲延迟下限（毫秒），避免延迟很低的方法频繁对冲
+     */
+    private long minDelayMillis = 5;
+
+    /**
+     * 延迟样本数达到该值后才开始对冲
+     */
+    private int minSamples = 100;
+
+    /**
+     * 对冲请求数占请求总数的比例上限
+     */
+    private double maxHedgeRatio = 0.05;
+
+    /**
+     * 对冲令牌上限，即短时间内允许的突发对冲次数
+     */
+    private int maxHedgeBurst = 10;
+}
@@ -0,0 +1,37 @@
+package com.ming.rpc.config;
+
+import lombok.Data;
+
+/**
+ * Kryo 序列化配置
+ * 开启注册模式后，框架类和用户声明的类按固定规则分配类 id，载荷中只写 id 不写完整类名。
+ * 消费者和提供者必须使用相同的注册配置（以及相同版本的 DTO 类），否则 id 对应不上
+ */
+@Data
+public class KryoConfig {
+
+    /**
+     * 是否开启类注册模式
+     */
+    private boolean registration = false;
+
+    /**
+     * 是否只允许序列化已注册的类（开启注册模式后生效），未注册的类直接报错，可防止反序列化任意类
+     */
+    private boolean registrationRequired = false;
+
+    /**
+     * 需要注册的 DTO 包名，多个用逗号分隔，包下的类按类名排序后分配 id
+     */
+    private String registerPackages;
+
+    /**
+     * 需要额外注册的类全名，多个用逗号分隔
+     */
+    private String registerClasses;
+
+    /**
+     * 线程复用的读写缓冲区初始大小（字节）
+     */
+    private int bufferSize = 4096;
+}
@@ -0,0 +1,35 @@
+package com.ming.rpc.config;
+
+import lombok.Data;
+
+/**
+ * 重试配置
+ */
+@Data
+public class RetryConfig {
+
+    /**
+     * 最大尝试次数（包括首次调用）
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * 退避基数（毫秒），第 n 次重试的退避上限为 baseDelayMillis × 2^(n-1)
+     */
+    private long baseDelayMillis = 100;
+
+    /**
+     * 单次退避上限（毫秒）
+     */
+    private long maxDelayMillis = 2000;
+
+    /**
+     * 重试预算：重试量占成功量的比例，小于等于 0 表示不限制
+     */
+    private double budgetRatio = 0.1;
+
+    /**
+     * 重试预算：令牌上限，即冷启动或长时间无流量后允许的突发重试次数
+     */
+    private int budgetMaxTokens = 10;
+}
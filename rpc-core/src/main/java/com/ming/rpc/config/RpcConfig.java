@@ -1,8 +1,10 @@
 package com.ming.rpc.config;
 
+import com.ming.rpc.constant.RpcConstant;
 import com.ming.rpc.fault.retry.RetryStrategyKeys;
 import com.ming.rpc.fault.tolerant.TolerantStrategyKeys;
 import com.ming.rpc.loadbalancer.LoadBalancerKeys;
+import com.ming.rpc.protocol.compress.CompressorKeys;
 import com.ming.rpc.serializer.SerializerKeys;
 import lombok.Data;
 
@@ -35,11 +37,66 @@ public class RpcConfig {
      */
     private Integer serverPort = 8080;
 
+    /**
+     * 服务权重，注册到注册中心供加权负载均衡使用
+     */
+    private int serviceWeight = RpcConstant.DEFAULT_SERVICE_WEIGHT;
+
+    /**
+     * 服务预热时长（毫秒），新启动的节点在该时间内逐步获得完整流量，0 表示不预热
+     */
+    private int serviceWarmup = RpcConstant.DEFAULT_SERVICE_WARMUP;
+
+    /**
+     * 客户端到每个服务节点保持的长连接数
+     */
+    private int connectionsPerNode = 2;
+
+    /**
+     * 心跳配置
+     */
+    private HeartbeatConfig heartbeatConfig = new HeartbeatConfig();
+
     /**
      * 序列化器
      */
     private String serializer = SerializerKeys.JDK;
 
+    /**
+     * Kryo 序列化配置
+     */
+    private KryoConfig kryoConfig = new KryoConfig();
+
+    /**
+     * 信封序列化器（envelope）中参数和返回值使用的值序列化器
+     */
+    private String envelopeValueSerializer = SerializerKeys.KRYO;
+
+    /**
+     * 压缩算法，消费者在请求头中声明，提供者按它压缩响应
+     */
+    private String compressor = CompressorKeys.NONE;
+
+    /**
+     * 消息体超过该大小（字节）才压缩
+     */
+    private int compressThreshold = 16 * 1024;
+
+    /**
+     * 解压后消息体的最大字节数，超过时拒绝该消息，防止解压炸弹耗尽内存
+     */
+    private int maxDecompressedSize = 64 * 1024 * 1024;
+
+    /**
+     * 消费者未声明压缩算法时，提供者是否按本端 compressor 配置压缩响应；默认关闭，尊重消费者不压缩的选择
+     */
+    private boolean defaultResponseCompression = false;
+
+    /**
+     * 默认调用超时（毫秒），0 表示不限；可被引用和 @RpcTimeout 覆盖
+     */
+    private long requestTimeout = 3000;
+
     /**
      * 负载均衡器
      */
@@ -50,6 +107,26 @@ public class RpcConfig {
      */
     private String retryStrategy = RetryStrategyKeys.NO;
 
+    /**
+     * 重试配置
+     */
+    private RetryConfig retryConfig = new RetryConfig();
+
+    /**
+     * 熔断配置
+     */
+    private CircuitBreakerConfig circuitBreakerConfig = new CircuitBreakerConfig();
+
+    /**
+     * 舱壁隔离配置
+     */
+    private BulkheadConfig bulkheadConfig = new BulkheadConfig();
+
+    /**
+     * 对冲请求配置
+     */
+    private HedgeConfig hedgeConfig = new HedgeConfig();
+
     /**
      * 容错策略
      */
@@ -69,4 +146,14 @@ public class RpcConfig {
      * 注册中心配置
      */
     private RegistryConfig registryConfig = new RegistryConfig();
+
+    /**
+     * TCP 服务端配置
+     */
+    private TcpServerConfig tcpServerConfig = new TcpServerConfig();
+
+    /**
+     * 服务端执行配置
+     */
+    private ExecutorConfig executorConfig = new ExecutorConfig();
 } 
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.ming.rpc.config;
+
+import lombok.Data;
+
+/**
+ * TCP 服务端配置
+ */
+@Data
+public class TcpServerConfig {
+
+    /**
+     * 服务端 Verticle 实例数，每个实例绑定一个事件循环并共享同一端口，默认等于 CPU 核数
+     */
+    private int instances = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 是否开启 TCP_NODELAY（关闭 Nagle 算法）
+     */
+    private boolean tcpNoDelay = true;
+
+    /**
+     * 是否开启 SO_REUSEPORT，仅原生传输下生效
+     */
+    private boolean reusePort = true;
+
+    /**
+     * 接收缓冲区大小（字节），-1 表示使用系统默认值
+     */
+    private int receiveBufferSize = -1;
+
+    /**
+     * 发送缓冲区大小（字节），-1 表示使用系统默认值
+     */
+    private int sendBufferSize = -1;
+
+    /**
+     * 可用时优先使用原生传输（Linux 下为 epoll）
+     */
+    private boolean preferNativeTransport = true;
+}
@@ -19,5 +19,25 @@ public interface RpcConstant {
      */
     String DEFAULT_SERVICE_GROUP = "default";
 
+    /**
+     * 默认服务权重
+     */
+    int DEFAULT_SERVICE_WEIGHT = 100;
+
+    /**
+     * 默认服务预热时长（毫秒）
+     */
+    int DEFAULT_SERVICE_WARMUP = 60_000;
+
+    /**
+     * 负载均衡参数：调用方法名
+     */
+    String LOAD_BALANCE_METHOD_NAME = "methodName";
+
+    /**
+     * 负载均衡参数：消费端预先计算好的路由哈希值（int）
+     */
+    String LOAD_BALANCE_HASH = "hash";
+
 
 }
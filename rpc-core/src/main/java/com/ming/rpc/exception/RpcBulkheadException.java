@@ -0,0 +1,12 @@
+package com.ming.rpc.exception;
+
+/**
+ * 服务或方法的并发调用数已达上限，请求没有发出
+ */
+public class RpcBulkheadException extends RpcException {
+
+    public RpcBulkheadException(String message) {
+        super(message);
+    }
+
+}
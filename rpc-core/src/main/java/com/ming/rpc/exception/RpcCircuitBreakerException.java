@@ -0,0 +1,12 @@
+package com.ming.rpc.exception;
+
+/**
+ * 服务节点已熔断，请求没有发出
+ */
+public class RpcCircuitBreakerException extends RpcException {
+
+    public RpcCircuitBreakerException(String message) {
+        super(message);
+    }
+
+}
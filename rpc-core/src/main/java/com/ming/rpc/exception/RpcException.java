@@ -11,4 +11,8 @@ public class RpcException extends RuntimeException {
         super(message);
     }
 
+    public RpcException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
 }
@@ -0,0 +1,12 @@
+package com.ming.rpc.exception;
+
+/**
+ * 请求被服务端拒绝（执行队列已满等过载场景）
+ */
+public class RpcRejectedException extends RpcException {
+
+    public RpcRejectedException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.ming.rpc.exception;
+
+/**
+ * 调用超时（包括建立连接、等待响应，以及提供者发现调用方已放弃等待）
+ */
+public class RpcTimeoutException extends RpcException {
+
+    public RpcTimeoutException(String message) {
+        super(message);
+    }
+
+}
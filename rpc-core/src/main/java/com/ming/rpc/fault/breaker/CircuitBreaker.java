@@ -0,0 +1,245 @@
+package com.ming.rpc.fault.breaker;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.ming.rpc.config.CircuitBreakerConfig;
+import com.ming.rpc.exception.RpcCircuitBreakerException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 熔断器（消费端使用，每个服务节点一个）
+ * 按时间分桶的滑动窗口统计失败率和慢调用率，任一超过阈值即打开；状态切换全部通过 CAS 完成，调用路径上没有锁。
+ * 传输层的失败（连接失败、断开、超时、被拒绝）计为失败，服务方法的业务异常随响应正常返回，不计入
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    private final String name;
+
+    private final CircuitBreakerConfig config;
+
+    private final AtomicReference<CircuitBreakerStateEnum> state = new AtomicReference<>(CircuitBreakerStateEnum.CLOSED);
+
+    /**
+     * 最近一次打开的时间（毫秒）
+     */
+    private volatile long openedAtMillis;
+
+    /**
+     * 半开状态剩余的探测许可
+     */
+    private final AtomicInteger halfOpenPermits = new AtomicInteger();
+
+    /**
+     * 半开状态已成功的探测数
+     */
+    private final AtomicInteger halfOpenSuccesses = new AtomicInteger();
+
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    private final long bucketMillis;
+
+    public CircuitBreaker(String name, CircuitBreakerConfig config) {
+        this.name = name;
+        this.config = config;
+        int bucketCount = Math.max(1, config.getBucketCount());
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+        this.bucketMillis = Math.max(1, config.getWindowMillis() / bucketCount);
+    }
+
+    /**
+     * 通过熔断器执行一次异步调用，根据结果和耗时更新统计
+     * @param call 发起调用
+     * @return 调用返回的 Future 本身（取消可以直接作用到调用上）；熔断时以 {@link RpcCircuitBreakerException} 失败，不发起调用
+     */
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call) {
+        CircuitBreakerStateEnum acquiredIn = acquire();
+        if (acquiredIn == null) {
+            return CompletableFuture.failedFuture(new RpcCircuitBreakerException("服务节点已熔断：" + name));
+        }
+        long startNanos = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((result, e) -> {
+            //主动取消（如对冲请求中落后的一方）不代表节点有问题，不计入统计；占用的半开探测许可归还，否则探测永远凑不满
+            if (e instanceof CancellationException) {
+                if (acquiredIn == CircuitBreakerStateEnum.HALF_OPEN && state.get() == CircuitBreakerStateEnum.HALF_OPEN) {
+                    halfOpenPermits.incrementAndGet();
+                }
+            } else {
+                record(e == null, (System.nanoTime() - startNanos) / 1_000_000);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 申请调用许可，打开状态到期时转为半开
+     * @return 允许调用返回 true
+     */
+    public boolean tryAcquire() {
+        return acquire() != null;
+    }
+
+    /**
+     * 申请调用许可
+     * @return 获得许可时所处的状态，未获得许可时返回 null
+     */
+    private CircuitBreakerStateEnum acquire() {
+        switch (state.get()) {
+            case CLOSED:
+                return CircuitBreakerStateEnum.CLOSED;
+            case OPEN:
+                if (System.currentTimeMillis() - openedAtMillis < config.getOpenDurationMillis()) {
+                    return null;
+                }
+                if (state.compareAndSet(CircuitBreakerStateEnum.OPEN, CircuitBreakerStateEnum.HALF_OPEN)) {
+                    halfOpenSuccesses.set(0);
+                    halfOpenPermits.set(config.getHalfOpenPermittedCalls());
+                    log.info("熔断器半开，开始探测：{}", name);
+                }
+                return acquire();
+            case HALF_OPEN:
+            default:
+                return halfOpenPermits.getAndUpdate(permits -> permits > 0 ? permits - 1 : permits) > 0
+                        ? CircuitBreakerStateEnum.HALF_OPEN : null;
+        }
+    }
+
+    /**
+     * 是否可以参与负载均衡选择（不消耗许可）
+     * @return 关闭、半开且还有探测许可、或打开已到期时返回 true
+     */
+    public boolean isCallPermitted() {
+        return switch (state.get()) {
+            case CLOSED -> true;
+            case OPEN -> System.currentTimeMillis() - openedAtMillis >= config.getOpenDurationMillis();
+            case HALF_OPEN -> halfOpenPermits.get() > 0;
+        };
+    }
+
+    /**
+     * 记录一次调用结果
+     * @param success 是否成功
+     * @param durationMillis 耗时（毫秒）
+     */
+    public void record(boolean success, long durationMillis) {
+        boolean slow = durationMillis >= config.getSlowCallDurationMillis();
+        CircuitBreakerStateEnum current = state.get();
+        if (current == CircuitBreakerStateEnum.HALF_OPEN) {
+            if (!success || slow) {
+                open(CircuitBreakerStateEnum.HALF_OPEN);
+            } else if (halfOpenSuccesses.incrementAndGet() >= config.getHalfOpenPermittedCalls()
+                    && state.compareAndSet(CircuitBreakerStateEnum.HALF_OPEN, CircuitBreakerStateEnum.CLOSED)) {
+                resetWindow();
+                log.info("熔断器关闭，服务节点恢复：{}", name);
+            }
+            return;
+        }
+        if (current != CircuitBreakerStateEnum.CLOSED) {
+            return;
+        }
+        Bucket bucket = currentBucket(System.currentTimeMillis());
+        bucket.total.increment();
+        if (!success) {
+            bucket.failures.increment();
+        }
+        if (slow) {
+            bucket.slowCalls.increment();
+        }
+        checkThresholds();
+    }
+
+    /**
+     * 当前状态
+     * @return 状态
+     */
+    public CircuitBreakerStateEnum getState() {
+        return state.get();
+    }
+
+    private void checkThresholds() {
+        long windowStart = System.currentTimeMillis() - config.getWindowMillis();
+        long total = 0;
+        long failures = 0;
+        long slowCalls = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.startMillis > windowStart) {
+                total += bucket.total.sum();
+                failures += bucket.failures.sum();
+                slowCalls += bucket.slowCalls.sum();
+            }
+        }
+        if (total < config.getMinimumCalls()) {
+            return;
+        }
+        if (failures * 100 >= total * config.getFailureRateThreshold()
+                || slowCalls * 100 >= total * config.getSlowCallRateThreshold()) {
+            log.warn("熔断器打开：{}，窗口内调用 {} 次，失败 {} 次，慢调用 {} 次", name, total, failures, slowCalls);
+            open(CircuitBreakerStateEnum.CLOSED);
+        }
+    }
+
+    private void open(CircuitBreakerStateEnum from) {
+        //先写打开时间再切换状态，其他线程看到 OPEN 时一定能看到本次的打开时间，不会拿旧时间直接进入半开
+        //CAS 失败时写入的时间只比真正的打开时间晚一点，只在 OPEN 状态下读取，不影响其他状态
+        openedAtMillis = System.currentTimeMillis();
+        if (state.compareAndSet(from, CircuitBreakerStateEnum.OPEN)) {
+            halfOpenPermits.set(0);
+        }
+    }
+
+    /**
+     * 获取当前时间所在的桶，桶已过期时用 CAS 替换为新桶
+     */
+    private Bucket currentBucket(long nowMillis) {
+        long startMillis = nowMillis - nowMillis % bucketMillis;
+        int index = (int) ((nowMillis / bucketMillis) % buckets.length());
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.startMillis == startMillis) {
+                return bucket;
+            }
+            Bucket fresh = new Bucket(startMillis);
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private void resetWindow() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, null);
+        }
+    }
+
+    /**
+     * 滑动窗口中的一个时间桶
+     */
+    private static final class Bucket {
+
+        private final long startMillis;
+
+        private final LongAdder total = new LongAdder();
+
+        private final LongAdder failures = new LongAdder();
+
+        private final LongAdder slowCalls = new LongAdder();
+
+        private Bucket(long startMillis) {
+            this.startMillis = startMillis;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.ming.rpc.fault.breaker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ming.rpc.RpcApplication;
+import com.ming.rpc.model.ServiceMetaInfo;
+
+/**
+ * 熔断器注册表（消费端使用）
+ */
+public class CircuitBreakerRegistry {
+
+    /**
+     * 熔断器：服务节点键名 => 熔断器
+     */
+    private static final Map<String, CircuitBreaker> CIRCUIT_BREAKERS = new ConcurrentHashMap<>();
+
+    /**
+     * 获取节点的熔断器，不存在时按全局配置创建
+     * @param serviceMetaInfo 服务节点
+     * @return 熔断器
+     */
+    public static CircuitBreaker get(ServiceMetaInfo serviceMetaInfo) {
+        String serviceNodeKey = serviceMetaInfo.getServiceNodeKey();
+        CircuitBreaker circuitBreaker = CIRCUIT_BREAKERS.get(serviceNodeKey);
+        if (circuitBreaker != null) {
+            return circuitBreaker;
+        }
+        return CIRCUIT_BREAKERS.computeIfAbsent(serviceNodeKey,
+                key -> new CircuitBreaker(key, RpcApplication.getRpcConfig().getCircuitBreakerConfig()));
+    }
+
+    /**
+     * 过滤掉已熔断的节点，可能返回空列表
+     * @param serviceMetaInfoList 候选节点
+     * @return 可调用的节点
+     */
+    public static List<ServiceMetaInfo> filterAvailable(List<ServiceMetaInfo> serviceMetaInfoList) {
+        List<ServiceMetaInfo> available = null;
+        for (int i = 0; i < serviceMetaInfoList.size(); i++) {
+            ServiceMetaInfo serviceMetaInfo = serviceMetaInfoList.get(i);
+            CircuitBreaker circuitBreaker = CIRCUIT_BREAKERS.get(serviceMetaInfo.getServiceNodeKey());
+            boolean permitted = circuitBreaker == null || circuitBreaker.isCallPermitted();
+            if (!permitted && available == null) {
+                //第一次遇到熔断节点时才复制，全部可用时不分配新列表
+                available = new ArrayList<>(serviceMetaInfoList.subList(0, i));
+            } else if (permitted && available != null) {
+                available.add(serviceMetaInfo);
+            }
+        }
+        return available == null ? serviceMetaInfoList : available;
+    }
+
+    /**
+     * 移除节点的熔断器（服务发现结果中节点下线时调用）
+     * @param serviceNodeKey 服务节点键名
+     */
+    public static void remove(String serviceNodeKey) {
+        CIRCUIT_BREAKERS.remove(serviceNodeKey);
+    }
+}
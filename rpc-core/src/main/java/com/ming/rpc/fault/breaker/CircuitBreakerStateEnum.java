@@ -0,0 +1,22 @@
+package com.ming.rpc.fault.breaker;
+
+/**
+ * 熔断器状态枚举
+ */
+public enum CircuitBreakerStateEnum {
+
+    /**
+     * 关闭：正常放行，统计失败率和慢调用率
+     */
+    CLOSED,
+
+    /**
+     * 打开：拒绝所有请求，直到熔断持续时间到期
+     */
+    OPEN,
+
+    /**
+     * 半开：放行少量探测请求，全部成功则关闭，任一失败则重新打开
+     */
+    HALF_OPEN
+}
@@ -0,0 +1,83 @@
+package com.ming.rpc.fault.bulkhead;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 舱壁（无锁信号量）
+ * 在途调用数用 CAS 计数，获取失败时立即返回而不排队等待
+ */
+public class Bulkhead {
+
+    /**
+     * 不限并发的舱壁，获取总是成功
+     */
+    public static final Bulkhead UNLIMITED = new Bulkhead("unlimited", 0);
+
+    private final String name;
+
+    /**
+     * 最大并发调用数，0 表示不限
+     */
+    private final int maxConcurrentCalls;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrentCalls) {
+        this.name = name;
+        this.maxConcurrentCalls = Math.max(maxConcurrentCalls, 0);
+    }
+
+    /**
+     * 尝试占用一个并发名额
+     * @return 是否成功，成功后必须调用 {@link #release()}
+     */
+    public boolean tryAcquire() {
+        if (maxConcurrentCalls == 0) {
+            return true;
+        }
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxConcurrentCalls) {
+                rejectedCount.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 归还并发名额
+     */
+    public void release() {
+        if (maxConcurrentCalls != 0) {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    /**
+     * @return 当前在途调用数
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return 累计被拒绝的调用数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+}
@@ -0,0 +1,68 @@
+package com.ming.rpc.fault.bulkhead;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 舱壁注册表（消费端使用）
+ * 同一个服务（方法）在进程内共用一个舱壁，上限以首次创建时为准
+ */
+public class BulkheadRegistry {
+
+    /**
+     * 服务级舱壁：服务键名 => 舱壁
+     */
+    private static final Map<String, Bulkhead> SERVICE_BULKHEADS = new ConcurrentHashMap<>();
+
+    /**
+     * 方法级舱壁：接口方法 => 舱壁
+     */
+    private static final Map<Method, Bulkhead> METHOD_BULKHEADS = new ConcurrentHashMap<>();
+
+    /**
+     * 获取服务级舱壁
+     * @param serviceKey 服务键名
+     * @param maxConcurrentCalls 最大并发调用数，0 表示不限
+     * @return 舱壁，不限时返回 {@link Bulkhead#UNLIMITED}
+     */
+    public static Bulkhead forService(String serviceKey, int maxConcurrentCalls) {
+        if (maxConcurrentCalls <= 0) {
+            return Bulkhead.UNLIMITED;
+        }
+        Bulkhead bulkhead = SERVICE_BULKHEADS.get(serviceKey);
+        if (bulkhead != null) {
+            return bulkhead;
+        }
+        return SERVICE_BULKHEADS.computeIfAbsent(serviceKey, key -> new Bulkhead(key, maxConcurrentCalls));
+    }
+
+    /**
+     * 获取方法级舱壁
+     * @param method 接口方法
+     * @param maxConcurrentCalls 最大并发调用数，0 表示不限
+     * @return 舱壁，不限时返回 {@link Bulkhead#UNLIMITED}
+     */
+    public static Bulkhead forMethod(Method method, int maxConcurrentCalls) {
+        if (maxConcurrentCalls <= 0) {
+            return Bulkhead.UNLIMITED;
+        }
+        Bulkhead bulkhead = METHOD_BULKHEADS.get(method);
+        if (bulkhead != null) {
+            return bulkhead;
+        }
+        return METHOD_BULKHEADS.computeIfAbsent(method,
+                key -> new Bulkhead(key.getDeclaringClass().getName() + "#" + key.getName(), maxConcurrentCalls));
+    }
+
+    /**
+     * 清除所有舱壁
+     */
+    public static void clear() {
+        SERVICE_BULKHEADS.clear();
+        METHOD_BULKHEADS.clear();
+    }
+
+    private BulkheadRegistry() {
+    }
+}
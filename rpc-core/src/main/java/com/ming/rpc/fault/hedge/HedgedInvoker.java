@@ -0,0 +1,152 @@
+package com.ming.rpc.fault.hedge;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import com.ming.rpc.config.HedgeConfig;
+import com.ming.rpc.fault.retry.RetryBudget;
+import com.ming.rpc.model.RpcResponse;
+import com.ming.rpc.utils.RpcTimer;
+
+import io.netty.util.Timeout;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 对冲请求调用（消费端使用，只用于幂等方法）
+ * 首个请求超过该方法延迟的指定百分位仍未响应时，向另一个节点再发一份，先成功的响应生效，落后的一方被取消；
+ * 两份都失败时才失败。对冲数量由每个服务一个的令牌桶限制在请求总数的固定比例内，节点普遍变慢时不会让流量翻倍。
+ * 与容错策略不同，对冲在失败发生之前就介入，针对的是单个节点偶发停顿（如 GC）造成的长尾延迟
+ */
+@Slf4j
+public class HedgedInvoker {
+
+    /**
+     * 对冲预算：服务键名 => 令牌桶，每个请求存入 maxHedgeRatio 个令牌，每次对冲取出 1 个
+     */
+    private static final Map<String, RetryBudget> HEDGE_BUDGETS = new ConcurrentHashMap<>();
+
+    /**
+     * 对冲状态：尚未发出 / 已发出 / 不再发出（首个请求已经结束）
+     */
+    private static final int HEDGE_PENDING = 0;
+    private static final int HEDGE_SENT = 1;
+    private static final int HEDGE_CLOSED = 2;
+
+    /**
+     * 获取服务的对冲预算
+     * @param serviceKey 服务键名
+     * @param hedgeConfig 对冲配置，首次创建时使用
+     * @return 对冲预算
+     */
+    public static RetryBudget budget(String serviceKey, HedgeConfig hedgeConfig) {
+        RetryBudget budget = HEDGE_BUDGETS.get(serviceKey);
+        if (budget != null) {
+            return budget;
+        }
+        return HEDGE_BUDGETS.computeIfAbsent(serviceKey,
+                key -> new RetryBudget(hedgeConfig.getMaxHedgeRatio(), hedgeConfig.getMaxHedgeBurst()));
+    }
+
+    /**
+     * 发起可对冲的调用
+     * @param primary 发起首个请求
+     * @param backup 向另一个节点发起对冲请求
+     * @param histogram 该方法的延迟直方图，用于计算对冲延迟，并记录本次调用的延迟
+     * @param hedgeConfig 对冲配置
+     * @param budget 对冲预算
+     * @return 先成功的响应
+     */
+    public static CompletableFuture<RpcResponse> invoke(Supplier<CompletableFuture<RpcResponse>> primary,
+                                                        Supplier<CompletableFuture<RpcResponse>> backup,
+                                                        LatencyHistogram histogram, HedgeConfig hedgeConfig, RetryBudget budget) {
+        budget.onSuccess();
+        long startNanos = System.nanoTime();
+        long percentileMillis = histogram.percentileMillis(hedgeConfig.getDelayPercentile(), hedgeConfig.getMinSamples());
+        CompletableFuture<RpcResponse> result = new CompletableFuture<>();
+        result.whenComplete((response, e) -> {
+            if (e == null) {
+                histogram.record(System.nanoTime() - startNanos);
+            }
+        });
+        CompletableFuture<RpcResponse> first = start(primary);
+        if (percentileMillis < 0) {
+            //样本不足，先积累延迟数据
+            forward(first, result);
+            return result;
+        }
+
+        AtomicInteger hedgeState = new AtomicInteger(HEDGE_PENDING);
+        AtomicInteger failures = new AtomicInteger();
+        AtomicReference<CompletableFuture<RpcResponse>> second = new AtomicReference<>();
+        long delayMillis = Math.max(hedgeConfig.getMinDelayMillis(), percentileMillis);
+        //对冲请求要选节点、序列化和发送，不能在定时器线程上执行
+        Timeout timer = RpcTimer.scheduleAsync(() -> {
+            //先占住对冲名额再扣预算，首个请求已经结束时不白白消耗预算
+            if (result.isDone() || !hedgeState.compareAndSet(HEDGE_PENDING, HEDGE_SENT)) {
+                return;
+            }
+            if (!budget.tryAcquire()) {
+                //预算不足不再对冲，结果以首个请求为准
+                forward(first, result);
+                return;
+            }
+            log.debug("首个请求 {} ms 未响应，发出对冲请求", delayMillis);
+            CompletableFuture<RpcResponse> hedge = start(backup);
+            second.set(hedge);
+            if (result.isDone()) {
+                hedge.cancel(false);
+            }
+            hedge.whenComplete((response, e) -> {
+                if (e == null) {
+                    result.complete(response);
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(e);
+                }
+            });
+        }, delayMillis);
+
+        first.whenComplete((response, e) -> {
+            if (e == null) {
+                result.complete(response);
+            } else if (hedgeState.compareAndSet(HEDGE_PENDING, HEDGE_CLOSED) || failures.incrementAndGet() == 2) {
+                //对冲请求还没发出时直接失败，交给重试和容错处理；已发出时等两份都失败
+                result.completeExceptionally(e);
+            }
+        });
+        //先完成的一方胜出，取消另一方
+        result.whenComplete((response, e) -> {
+            timer.cancel();
+            first.cancel(false);
+            CompletableFuture<RpcResponse> hedge = second.get();
+            if (hedge != null) {
+                hedge.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private static CompletableFuture<RpcResponse> start(Supplier<CompletableFuture<RpcResponse>> call) {
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static void forward(CompletableFuture<RpcResponse> source, CompletableFuture<RpcResponse> target) {
+        source.whenComplete((response, e) -> {
+            if (e == null) {
+                target.complete(response);
+            } else {
+                target.completeExceptionally(e);
+            }
+        });
+    }
+
+    private HedgedInvoker() {
+    }
+}
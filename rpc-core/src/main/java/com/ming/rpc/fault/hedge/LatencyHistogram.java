@@ -0,0 +1,99 @@
+package com.ming.rpc.fault.hedge;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁延迟直方图
+ * 按微秒取对数分桶，每个 2 的幂区间再细分 4 个桶，相对误差不超过 25%；
+ * 样本数达到上限后所有计数减半，旧样本的权重逐渐衰减，百分位能跟上延迟的变化
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 覆盖到 2^40 微秒，足够大
+     */
+    private static final int BUCKET_COUNT = SUB_BUCKETS * 40;
+
+    /**
+     * 样本数达到该值时衰减
+     */
+    private static final long DECAY_THRESHOLD = 10000;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLong total = new AtomicLong();
+
+    private final AtomicBoolean decaying = new AtomicBoolean(false);
+
+    /**
+     * 记录一次延迟
+     * @param nanos 延迟（纳秒）
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(index(Math.max(0, nanos / 1000)));
+        if (total.incrementAndGet() >= DECAY_THRESHOLD && decaying.compareAndSet(false, true)) {
+            try {
+                long removed = 0;
+                for (int i = 0; i < BUCKET_COUNT; i++) {
+                    long count = counts.getAndUpdate(i, c -> c - c / 2);
+                    removed += count / 2;
+                }
+                total.addAndGet(-removed);
+            } finally {
+                decaying.set(false);
+            }
+        }
+    }
+
+    /**
+     * 估算百分位延迟
+     * @param percentile 百分位，如 95
+     * @param minSamples 最少样本数
+     * @return 延迟（毫秒，向上取整，取所在桶的上界）；样本不足时返回 -1
+     */
+    public long percentileMillis(int percentile, int minSamples) {
+        long sum = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            sum += snapshot[i];
+        }
+        if (sum < Math.max(1, minSamples)) {
+            return -1;
+        }
+        long target = (sum * percentile + 99) / 100;
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                return (upperBoundMicros(i) + 999) / 1000;
+            }
+        }
+        return (upperBoundMicros(BUCKET_COUNT - 1) + 999) / 1000;
+    }
+
+    static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) ((micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return Math.min(BUCKET_COUNT - 1, (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket);
+    }
+
+    static long upperBoundMicros(int index) {
+        if (index < SUB_BUCKETS) {
+            return index + 1;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (SUB_BUCKETS + subBucket) * width + width;
+    }
+}
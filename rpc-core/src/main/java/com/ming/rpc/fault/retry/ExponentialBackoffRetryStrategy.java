@@ -0,0 +1,131 @@
+package com.ming.rpc.fault.retry;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import com.ming.rpc.RpcApplication;
+import com.ming.rpc.config.RetryConfig;
+import com.ming.rpc.model.RpcResponse;
+import com.ming.rpc.utils.RpcTimer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 指数退避重试 - 重试策略实现
+ * 只重试可重试的失败（见 {@link RetryableExceptions}），退避时间使用全抖动：在 [0, min(上限, 基数 × 2^(n-1))) 内随机，
+ * 避免大量调用方在同一时刻集中重试。异步重试由时间轮定时器到期后转交公共线程池发起，等待期间不占用任何线程；
+ * 每次重试还需通过服务的重试预算（{@link RetryBudget}）
+ */
+@Slf4j
+public class ExponentialBackoffRetryStrategy implements RetryStrategy {
+
+    private final RetryConfig retryConfig;
+
+    /**
+     * 使用全局配置
+     */
+    public ExponentialBackoffRetryStrategy() {
+        this(null);
+    }
+
+    /**
+     * @param retryConfig 重试配置，为 null 时使用全局配置
+     */
+    public ExponentialBackoffRetryStrategy(RetryConfig retryConfig) {
+        this.retryConfig = retryConfig;
+    }
+
+    /**
+     * 同步重试，退避期间阻塞调用线程，优先使用 {@link #doRetryAsync(Supplier)}
+     * @param callable 可调用对象
+     * @return 返回结果
+     * @throws Exception 最后一次调用的异常，或不可重试的异常
+     */
+    @Override
+    public RpcResponse doRetry(Callable<RpcResponse> callable) throws Exception {
+        RetryConfig config = getRetryConfig();
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return callable.call();
+            } catch (Exception e) {
+                if (attemptNumber >= config.getMaxAttempts() || !RetryableExceptions.isRetryable(e)) {
+                    throw e;
+                }
+                long delayMillis = backoffMillis(config, attemptNumber);
+                log.warn("重试次数：{}，{} ms 后重试，异常：{}", attemptNumber, delayMillis, e.toString());
+                Thread.sleep(delayMillis);
+            }
+        }
+    }
+
+    /**
+     * 异步重试
+     * @param supplier 发起一次异步请求
+     * @return 最终结果
+     */
+    @Override
+    public CompletableFuture<RpcResponse> doRetryAsync(Supplier<CompletableFuture<RpcResponse>> supplier) {
+        return doRetryAsync(supplier, RetryBudget.UNLIMITED);
+    }
+
+    /**
+     * 受重试预算约束的异步重试
+     * @param supplier 发起一次异步请求
+     * @param retryBudget 重试预算
+     * @return 最终结果
+     */
+    @Override
+    public CompletableFuture<RpcResponse> doRetryAsync(Supplier<CompletableFuture<RpcResponse>> supplier, RetryBudget retryBudget) {
+        CompletableFuture<RpcResponse> result = new CompletableFuture<>();
+        attemptAsync(getRetryConfig(), supplier, retryBudget, 1, result);
+        return result;
+    }
+
+    private void attemptAsync(RetryConfig config, Supplier<CompletableFuture<RpcResponse>> supplier, RetryBudget retryBudget,
+                              int attemptNumber, CompletableFuture<RpcResponse> result) {
+        CompletableFuture<RpcResponse> attempt;
+        try {
+            attempt = supplier.get();
+        } catch (Exception e) {
+            attempt = CompletableFuture.failedFuture(e);
+        }
+        attempt.whenComplete((response, e) -> {
+            if (e == null) {
+                retryBudget.onSuccess();
+                result.complete(response);
+                return;
+            }
+            //预算放在最后判断，只有真正要重试时才消耗令牌
+            if (attemptNumber >= config.getMaxAttempts() || !RetryableExceptions.isRetryable(e) || !retryBudget.tryAcquire()) {
+                result.completeExceptionally(e);
+                return;
+            }
+            long delayMillis = backoffMillis(config, attemptNumber);
+            log.warn("重试次数：{}，{} ms 后重试，异常：{}", attemptNumber, delayMillis, e.toString());
+            //重试要选节点、序列化和发送，不能在定时器线程上执行
+            RpcTimer.scheduleAsync(() -> attemptAsync(config, supplier, retryBudget, attemptNumber + 1, result), delayMillis);
+        });
+    }
+
+    /**
+     * 计算第 attemptNumber 次失败后的退避时间（全抖动）
+     * @param config 重试配置
+     * @param attemptNumber 已尝试次数，从 1 开始
+     * @return 退避时间（毫秒）
+     */
+    static long backoffMillis(RetryConfig config, int attemptNumber) {
+        //指数部分封顶，避免移位溢出
+        int exponent = Math.min(attemptNumber - 1, 30);
+        long ceiling = Math.min(config.getMaxDelayMillis(), config.getBaseDelayMillis() << exponent);
+        if (ceiling <= 0) {
+            return 0;
+        }
+        return ThreadLocalRandom.current().nextLong(ceiling);
+    }
+
+    private RetryConfig getRetryConfig() {
+        return retryConfig != null ? retryConfig : RpcApplication.getRpcConfig().getRetryConfig();
+    }
+}
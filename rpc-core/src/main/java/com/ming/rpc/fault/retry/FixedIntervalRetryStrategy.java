@@ -1,17 +1,38 @@
 package com.ming.rpc.fault.retry;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import com.github.rholder.retry.*;
 import com.ming.rpc.model.RpcResponse;
 
+import lombok.extern.slf4j.Slf4j;
+
 /**
  * 固定时间间隔重试 - 重试策略实现
  */
+@Slf4j
 public class FixedIntervalRetryStrategy implements RetryStrategy {
 
+    /**
+     * 最大尝试次数
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * 重试间隔（秒）
+     */
+    private static final long WAIT_SECONDS = 3L;
+
+    /**
+     * 异步重试的延迟执行器，等待期间不占用任何线程
+     */
+    private static final Executor RETRY_DELAY_EXECUTOR = CompletableFuture.delayedExecutor(WAIT_SECONDS, TimeUnit.SECONDS);
+
     /**
      * 重试
      * @param callable 可调用对象
@@ -23,18 +44,64 @@ public class FixedIntervalRetryStrategy implements RetryStrategy {
     public RpcResponse doRetry(Callable<RpcResponse> callable) throws ExecutionException,RetryException {
         Retryer<RpcResponse> retryer = RetryerBuilder.<RpcResponse>newBuilder()
             .retryIfExceptionOfType(Exception.class)
-            .withWaitStrategy(WaitStrategies.fixedWait(3L, TimeUnit.SECONDS))
-            .withStopStrategy(StopStrategies.stopAfterAttempt(3))
+            .withWaitStrategy(WaitStrategies.fixedWait(WAIT_SECONDS, TimeUnit.SECONDS))
+            .withStopStrategy(StopStrategies.stopAfterAttempt(MAX_ATTEMPTS))
             .withRetryListener(new RetryListener() {
                 @Override
                 public <V> void onRetry(Attempt<V> attempt) {
                     // 增加hasException判断，避免成功时调用getExceptionCause抛出异常
                     if (attempt.hasException()) {
-                        System.out.println("重试次数：" + attempt.getAttemptNumber() + "，异常：" + attempt.getExceptionCause());
+                        log.warn("重试次数：{}，异常：{}", attempt.getAttemptNumber(), attempt.getExceptionCause().toString());
                     }
                 }
             })
             .build();
         return retryer.call(callable);
     }
+
+    /**
+     * 异步重试
+     * @param supplier 发起一次异步请求
+     * @return 最终结果
+     */
+    @Override
+    public CompletableFuture<RpcResponse> doRetryAsync(Supplier<CompletableFuture<RpcResponse>> supplier) {
+        return doRetryAsync(supplier, RetryBudget.UNLIMITED);
+    }
+
+    /**
+     * 受重试预算约束的异步重试
+     * @param supplier 发起一次异步请求
+     * @param retryBudget 重试预算
+     * @return 最终结果
+     */
+    @Override
+    public CompletableFuture<RpcResponse> doRetryAsync(Supplier<CompletableFuture<RpcResponse>> supplier, RetryBudget retryBudget) {
+        CompletableFuture<RpcResponse> result = new CompletableFuture<>();
+        attemptAsync(supplier, retryBudget, 1, result);
+        return result;
+    }
+
+    private void attemptAsync(Supplier<CompletableFuture<RpcResponse>> supplier, RetryBudget retryBudget,
+                              int attemptNumber, CompletableFuture<RpcResponse> result) {
+        CompletableFuture<RpcResponse> attempt;
+        try {
+            attempt = supplier.get();
+        } catch (Exception e) {
+            attempt = CompletableFuture.failedFuture(e);
+        }
+        attempt.whenComplete((response, e) -> {
+            if (e == null) {
+                retryBudget.onSuccess();
+                result.complete(response);
+                return;
+            }
+            if (attemptNumber >= MAX_ATTEMPTS || !retryBudget.tryAcquire()) {
+                result.completeExceptionally(e);
+                return;
+            }
+            log.warn("重试次数：{}，{} s 后重试，异常：{}", attemptNumber, WAIT_SECONDS, e.toString());
+            CompletableFuture.runAsync(() -> attemptAsync(supplier, retryBudget, attemptNumber + 1, result), RETRY_DELAY_EXECUTOR);
+        });
+    }
 }
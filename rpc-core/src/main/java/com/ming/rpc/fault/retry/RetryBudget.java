@@ -0,0 +1,141 @@
+package com.ming.rpc.fault.retry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ming.rpc.RpcApplication;
+import com.ming.rpc.config.RetryConfig;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 重试预算（消费端使用，每个服务一个）
+ * 无锁令牌桶：每次成功调用存入 ratio 个令牌，每次重试取出 1 个，令牌数不超过 maxTokens。
+ * 集群健康时重试不受影响；集群整体劣化、成功调用变少时重试随之被压制，重试量最多约为成功量的 ratio 倍，
+ * 避免所有消费者同时放大流量把集群彻底压垮
+ */
+@Slf4j
+public class RetryBudget {
+
+    /**
+     * 不限制重试
+     */
+    public static final RetryBudget UNLIMITED = new RetryBudget(0, 0);
+
+    private static final Map<String, RetryBudget> BUDGETS = new ConcurrentHashMap<>();
+
+    /**
+     * 令牌定点数精度，1 个令牌 = SCALE
+     */
+    private static final long SCALE = 1000;
+
+    /**
+     * 每次成功存入的令牌（定点数），0 表示不限制
+     */
+    private final long depositPerSuccess;
+
+    /**
+     * 令牌上限（定点数）
+     */
+    private final long capacity;
+
+    /**
+     * 当前令牌（定点数），初始为满
+     */
+    private final AtomicLong tokens;
+
+    /**
+     * 被压制的重试次数
+     */
+    private final AtomicLong suppressedCount = new AtomicLong();
+
+    /**
+     * @param ratio 重试量占成功量的比例，如 0.1 表示每 10 次成功允许 1 次重试；小于等于 0 表示不限制
+     * @param maxTokens 令牌上限，也是冷启动或长时间无流量后允许的突发重试次数
+     */
+    public RetryBudget(double ratio, int maxTokens) {
+        this.depositPerSuccess = ratio > 0 ? Math.max(1, Math.round(ratio * SCALE)) : 0;
+        this.capacity = (long) Math.max(1, maxTokens) * SCALE;
+        this.tokens = new AtomicLong(capacity);
+    }
+
+    /**
+     * 获取服务的重试预算，首次访问时按全局配置创建
+     * @param serviceKey 服务键名
+     * @return 重试预算
+     */
+    public static RetryBudget of(String serviceKey) {
+        RetryBudget budget = BUDGETS.get(serviceKey);
+        if (budget != null) {
+            return budget;
+        }
+        RetryConfig retryConfig = RpcApplication.getRpcConfig().getRetryConfig();
+        return BUDGETS.computeIfAbsent(serviceKey,
+                key -> new RetryBudget(retryConfig.getBudgetRatio(), retryConfig.getBudgetMaxTokens()));
+    }
+
+    /**
+     * 记录一次成功调用
+     */
+    public void onSuccess() {
+        if (depositPerSuccess == 0) {
+            return;
+        }
+        long current;
+        long next;
+        do {
+            current = tokens.get();
+            next = Math.min(capacity, current + depositPerSuccess);
+            if (next == current) {
+                return;
+            }
+        } while (!tokens.compareAndSet(current, next));
+    }
+
+    /**
+     * 申请一次重试
+     * @return 预算充足返回 true；否则记为被压制，返回 false
+     */
+    public boolean tryAcquire() {
+        if (depositPerSuccess == 0) {
+            return true;
+        }
+        long current;
+        do {
+            current = tokens.get();
+            if (current < SCALE) {
+                long suppressed = suppressedCount.incrementAndGet();
+                log.debug("重试预算不足，放弃重试，累计压制 {} 次", suppressed);
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /**
+     * 被压制的重试次数
+     * @return 次数
+     */
+    public long getSuppressedCount() {
+        return suppressedCount.get();
+    }
+
+    /**
+     * 当前可用的重试次数
+     * @return 次数
+     */
+    public long getAvailableRetries() {
+        return depositPerSuccess == 0 ? Long.MAX_VALUE : tokens.get() / SCALE;
+    }
+
+    /**
+     * 各服务被压制的重试次数，用于监控
+     * @return 服务键名 => 次数
+     */
+    public static Map<String, Long> suppressedCounts() {
+        Map<String, Long> counts = new ConcurrentHashMap<>();
+        BUDGETS.forEach((serviceKey, budget) -> counts.put(serviceKey, budget.getSuppressedCount()));
+        return counts;
+    }
+}
@@ -1,6 +1,8 @@
 package com.ming.rpc.fault.retry;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import com.ming.rpc.model.RpcResponse;
 
@@ -15,4 +17,25 @@ public interface RetryStrategy {
      * @throws Exception 异常
      */
     RpcResponse doRetry(Callable<RpcResponse> callable) throws Exception;
+
+    /**
+     * 异步重试，重试等待期间不占用调用线程
+     * 默认不重试，只执行一次
+     * @param supplier 每次调用都会发起一次新的异步请求
+     * @return 最终结果
+     */
+    default CompletableFuture<RpcResponse> doRetryAsync(Supplier<CompletableFuture<RpcResponse>> supplier) {
+        return supplier.get();
+    }
+
+    /**
+     * 受重试预算约束的异步重试，成功调用向预算存入令牌，每次重试前申请令牌，预算不足时不再重试
+     * 默认忽略预算
+     * @param supplier 每次调用都会发起一次新的异步请求
+     * @param retryBudget 重试预算
+     * @return 最终结果
+     */
+    default CompletableFuture<RpcResponse> doRetryAsync(Supplier<CompletableFuture<RpcResponse>> supplier, RetryBudget retryBudget) {
+        return doRetryAsync(supplier);
+    }
 }
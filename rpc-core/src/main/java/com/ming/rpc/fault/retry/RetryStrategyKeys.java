@@ -14,4 +14,9 @@ public interface RetryStrategyKeys {
      * 固定时间间隔
      */
     String FIXED_INTERVAL = "fixedInterval";
+
+    /**
+     * 指数退避（全抖动）
+     */
+    String EXPONENTIAL_BACKOFF = "exponentialBackoff";
 }
@@ -0,0 +1,39 @@
+package com.ming.rpc.fault.retry;
+
+import java.net.ConnectException;
+import java.nio.channels.ClosedChannelException;
+
+import com.ming.rpc.exception.RpcRejectedException;
+import com.ming.rpc.exception.RpcTimeoutException;
+
+/**
+ * 可重试异常判定
+ * 只有请求没有到达提供者、或提供者明确没有处理（连接失败、连接断开、超时、过载拒绝）时才值得重试；
+ * 服务方法自身抛出的业务异常随响应返回，重试也不会有不同结果
+ */
+public class RetryableExceptions {
+
+    private static final int MAX_CAUSE_DEPTH = 16;
+
+    /**
+     * 异常是否可重试，沿异常链查找
+     * @param e 异常
+     * @return 可重试返回 true
+     */
+    public static boolean isRetryable(Throwable e) {
+        //限制深度，防止异常链成环
+        Throwable cause = e;
+        for (int depth = 0; cause != null && depth < MAX_CAUSE_DEPTH; depth++, cause = cause.getCause()) {
+            if (cause instanceof ConnectException
+                    || cause instanceof ClosedChannelException
+                    || cause instanceof RpcTimeoutException
+                    || cause instanceof RpcRejectedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private RetryableExceptions() {
+    }
+}
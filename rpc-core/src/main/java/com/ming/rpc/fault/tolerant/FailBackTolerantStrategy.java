@@ -1,27 +1,46 @@
 package com.ming.rpc.fault.tolerant;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.ming.rpc.RpcApplication;
 import com.ming.rpc.config.RpcConfig;
 import com.ming.rpc.model.RpcRequest;
 import com.ming.rpc.model.RpcResponse;
+import com.ming.rpc.server.invoker.ServiceInvoker;
 
 import lombok.extern.slf4j.Slf4j;
 
 /** 
  * 降级到其他服务 - 容错策略
+ * 降级实现的实例和方法句柄在首次降级时解析并缓存，之后的降级调用不再反射查找方法或创建实例
  */
 @Slf4j  
 public class FailBackTolerantStrategy implements TolerantStrategy {
 
+    /**
+     * 降级实现实例：降级实现类 => 实例，同一个类的所有方法共用一个实例
+     */
+    private static final Map<Class<?>, Object> FALLBACK_INSTANCES = new ConcurrentHashMap<>();
+
+    /**
+     * 降级方法调用器：降级实现类 + 方法签名 => 调用器，解析失败时缓存为空，不再重复解析
+     */
+    private static final Map<FallbackKey, Optional<ServiceInvoker>> FALLBACK_INVOKERS = new ConcurrentHashMap<>();
+
     @Override
     public RpcResponse doTolerant(Map<String, Object> context, Exception e) {
         log.info("Executing FailBack tolerant strategy.", e);
         
         // 从上下文中获取 rpcRequest
-        RpcRequest rpcRequest = (RpcRequest) context.get("rpcRequest");
+        RpcRequest rpcRequest = (RpcRequest) context.get(TolerantContextKeys.RPC_REQUEST);
         if (rpcRequest == null) {
             log.warn("RpcRequest not found in context, cannot perform failback.");
             return new RpcResponse();
@@ -31,28 +50,130 @@ public class FailBackTolerantStrategy implements TolerantStrategy {
         RpcConfig rpcConfig = RpcApplication.getRpcConfig();
         Class<?> mockService = rpcConfig.getMockServiceRegistry().get(rpcRequest.getServiceName());
 
-        // 如果找到了降级服务，则通过反射调用
+        // 如果找到了降级服务，则通过缓存的方法句柄调用
         if (mockService != null) {
-            try {
-                log.info("Found mock service for {}, executing fallback.", rpcRequest.getServiceName());
-                Object mockInstance = mockService.getDeclaredConstructor().newInstance();
-                Method method = mockService.getMethod(rpcRequest.getMethodName(), rpcRequest.getParameterTypes());
-                Object result = method.invoke(mockInstance, rpcRequest.getArgs());
-                
-                // 封装成功响应
-                RpcResponse response = new RpcResponse();
-                response.setData(result);
-                response.setMessage("Fallback success");
-                response.setMessageType(RpcResponse.MessageType.SUCCESS);
-                return response;
-            } catch (Exception reflectionException) {
-                log.error("Failed to execute mock service via reflection.", reflectionException);
+            Optional<ServiceInvoker> invoker = getInvoker(new FallbackKey(mockService, rpcRequest.getMethodName(), rpcRequest.getParameterTypes()));
+            if (invoker.isPresent()) {
+                try {
+                    Object result = invoker.get().invoke(rpcRequest.getArgs());
+
+                    // 封装成功响应
+                    RpcResponse response = new RpcResponse();
+                    response.setData(result);
+                    response.setMessage("Fallback success");
+                    response.setMessageType(RpcResponse.MessageType.SUCCESS);
+                    return response;
+                } catch (Exception fallbackException) {
+                    log.error("Mock service {} failed to execute fallback.", mockService.getName(), fallbackException);
+                }
             }
         }
         
-        // 如果没有找到降级服务或反射失败，则返回一个空的响应
+        // 如果没有找到降级服务或降级调用失败，则返回一个空的响应
         log.warn("No mock service found for {}, returning empty response.", rpcRequest.getServiceName());
         return new RpcResponse();
     }
 
+    /**
+     * 异步容错：异步接口的降级实现返回的是 Future，等它完成后把结果作为响应数据，不把 Future 本身当作数据返回
+     */
+    @Override
+    public CompletableFuture<RpcResponse> doTolerantAsync(Map<String, Object> context, Exception e) {
+        RpcResponse response;
+        try {
+            response = doTolerant(context, e);
+        } catch (Exception tolerantException) {
+            return CompletableFuture.failedFuture(tolerantException);
+        }
+        if (!(response.getData() instanceof CompletionStage<?> stage)) {
+            return CompletableFuture.completedFuture(response);
+        }
+        return stage.toCompletableFuture().handle((value, fallbackException) -> {
+            if (fallbackException != null) {
+                log.error("Mock service failed to complete async fallback.", fallbackException);
+                return new RpcResponse();
+            }
+            response.setData(value);
+            return response;
+        });
+    }
+
+    private static Optional<ServiceInvoker> getInvoker(FallbackKey key) {
+        Optional<ServiceInvoker> invoker = FALLBACK_INVOKERS.get(key);
+        if (invoker != null) {
+            return invoker;
+        }
+        invoker = resolve(key);
+        Optional<ServiceInvoker> existing = FALLBACK_INVOKERS.putIfAbsent(key, invoker);
+        return existing != null ? existing : invoker;
+    }
+
+    /**
+     * 解析降级方法，绑定到该降级实现类的共享实例
+     */
+    private static Optional<ServiceInvoker> resolve(FallbackKey key) {
+        try {
+            Method method = key.mockService.getMethod(key.methodName, key.parameterTypes);
+            Object instance = FALLBACK_INSTANCES.computeIfAbsent(key.mockService, FailBackTolerantStrategy::newInstance);
+            log.info("Resolved fallback method {}#{}.", key.mockService.getName(), key.methodName);
+            return Optional.of(new ServiceInvoker(instance, method));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.error("Failed to resolve fallback method {}#{}.", key.mockService.getName(), key.methodName, e);
+            return Optional.empty();
+        }
+    }
+
+    private static Object newInstance(Class<?> mockService) {
+        try {
+            // 降级实现类可能不是 public 的，先放开访问检查
+            Constructor<?> constructor = mockService.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("无法创建降级实现：" + mockService.getName(), e);
+        }
+    }
+
+    /**
+     * 降级方法缓存键
+     */
+    private static final class FallbackKey {
+
+        private static final Class<?>[] NO_PARAMETER_TYPES = new Class<?>[0];
+
+        private final Class<?> mockService;
+
+        private final String methodName;
+
+        private final Class<?>[] parameterTypes;
+
+        private final int hash;
+
+        private FallbackKey(Class<?> mockService, String methodName, Class<?>[] parameterTypes) {
+            this.mockService = mockService;
+            this.methodName = methodName;
+            this.parameterTypes = parameterTypes == null ? NO_PARAMETER_TYPES : parameterTypes;
+            this.hash = 31 * (31 * mockService.hashCode() + Objects.hashCode(methodName)) + Arrays.hashCode(this.parameterTypes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FallbackKey other)) {
+                return false;
+            }
+            return hash == other.hash
+                    && mockService == other.mockService
+                    && Objects.equals(methodName, other.methodName)
+                    && Arrays.equals(parameterTypes, other.parameterTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
 }
@@ -1,60 +1,117 @@
 package com.ming.rpc.fault.tolerant;
 
+import com.ming.rpc.constant.RpcConstant;
+import com.ming.rpc.exception.RpcBulkheadException;
+import com.ming.rpc.exception.RpcException;
 import com.ming.rpc.loadbalancer.LoadBalancer;
 import com.ming.rpc.model.RpcRequest;
 import com.ming.rpc.model.RpcResponse;
 import com.ming.rpc.model.ServiceMetaInfo;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
-import java.util.HashMap;
 
 /**
  * 失败切换到其他服务 - 容错策略
+ * 依次尝试剩余节点，失败的节点在本次调用内不再被选中，全部失败时才向调用方报错；
+ * 因舱壁已满被拒绝的调用与节点无关，不做故障转移
  */
 @Slf4j
 public class FailOverTolerantStrategy implements TolerantStrategy {
 
     @Override
     public RpcResponse doTolerant(Map<String, Object> context, Exception e) {
-        // 从上下文中获取所需参数
-        List<ServiceMetaInfo> serviceNodeList = (List<ServiceMetaInfo>) context.get("serviceNodeList");
-        ServiceMetaInfo failedNode = (ServiceMetaInfo) context.get("selectedNode");
-        RpcRequest rpcRequest = (RpcRequest) context.get("rpcRequest");
-        LoadBalancer loadBalancer = (LoadBalancer) context.get("loadBalancer");
-        // 获取重试器，这是执行RPC调用的核心逻辑
-        Retryer retryer = (Retryer) context.get("retryer");
-        // 获取已重试次数
-        AtomicInteger retriedCount = (AtomicInteger) context.get("retriedCount");
+        if (e instanceof RpcBulkheadException bulkheadException) {
+            throw bulkheadException;
+        }
+        Retryer retryer = (Retryer) context.get(TolerantContextKeys.RETRYER);
+        RpcRequest rpcRequest = (RpcRequest) context.get(TolerantContextKeys.RPC_REQUEST);
+        List<ServiceMetaInfo> availableNodes = remainingNodes(context);
+        Exception lastError = e;
+        while (!availableNodes.isEmpty()) {
+            ServiceMetaInfo nextNode = selectNext(context, availableNodes);
+            try {
+                return retryer.doRetry(rpcRequest, nextNode);
+            } catch (RuntimeException retryException) {
+                log.warn("Failover to node {} failed.", nextNode.getServiceAddress(), retryException);
+                availableNodes.remove(nextNode);
+                lastError = retryException;
+            }
+        }
+        log.error("All service nodes failed, no node available for failover.", lastError);
+        throw new RpcException("All service nodes failed.", lastError);
+    }
 
-        // 从可用节点列表中移除已失败的节点
-        List<ServiceMetaInfo> availableNodes = serviceNodeList.stream()
-                .filter(node -> !node.equals(failedNode))
-                .collect(Collectors.toList());
-        
-        // 检查是否还有可用节点
+    /**
+     * 上下文中提供了异步调用时，整个故障转移过程不阻塞线程；否则退回同步实现
+     */
+    @Override
+    public CompletableFuture<RpcResponse> doTolerantAsync(Map<String, Object> context, Exception e) {
+        AsyncRetryer asyncRetryer = (AsyncRetryer) context.get(TolerantContextKeys.ASYNC_RETRYER);
+        if (asyncRetryer == null || e instanceof RpcBulkheadException) {
+            return TolerantStrategy.super.doTolerantAsync(context, e);
+        }
+        return failOverAsync(context, remainingNodes(context), asyncRetryer, e);
+    }
+
+    private CompletableFuture<RpcResponse> failOverAsync(Map<String, Object> context, List<ServiceMetaInfo> availableNodes,
+                                                         AsyncRetryer asyncRetryer, Throwable lastError) {
         if (availableNodes.isEmpty()) {
-            log.error("All service nodes failed, no node available for failover.", e);
-            throw new RuntimeException("All service nodes failed.", e);
+            log.error("All service nodes failed, no node available for failover.", lastError);
+            return CompletableFuture.failedFuture(new RpcException("All service nodes failed.", lastError));
         }
-        
-        // 构建负载均衡器所需的请求参数Map
-        Map<String, Object> requestParams = new HashMap<>();
-        requestParams.put("methodName", rpcRequest.getMethodName());
-        
-        // 从剩余节点中重新选择一个
-        ServiceMetaInfo nextNode = loadBalancer.select(requestParams, availableNodes);
+        ServiceMetaInfo nextNode = selectNext(context, availableNodes);
+        RpcRequest rpcRequest = (RpcRequest) context.get(TolerantContextKeys.RPC_REQUEST);
+        return asyncRetryer.doRetryAsync(rpcRequest, nextNode).exceptionallyCompose(retryException -> {
+            Throwable cause = retryException instanceof CompletionException && retryException.getCause() != null
+                    ? retryException.getCause() : retryException;
+            log.warn("Failover to node {} failed.", nextNode.getServiceAddress(), cause);
+            availableNodes.remove(nextNode);
+            return failOverAsync(context, availableNodes, asyncRetryer, cause);
+        });
+    }
 
-        log.info("Failing over to new node: {}", nextNode.getServiceAddress());
-        
-        // 增加重试次数
-        retriedCount.incrementAndGet();
+    /**
+     * 从候选节点中排除首次调用失败的节点
+     */
+    @SuppressWarnings("unchecked")
+    private static List<ServiceMetaInfo> remainingNodes(Map<String, Object> context) {
+        List<ServiceMetaInfo> serviceNodeList = (List<ServiceMetaInfo>) context.get(TolerantContextKeys.SERVICE_NODE_LIST);
+        ServiceMetaInfo failedNode = (ServiceMetaInfo) context.get(TolerantContextKeys.SELECTED_NODE);
+        List<ServiceMetaInfo> availableNodes = new ArrayList<>(serviceNodeList.size());
+        for (ServiceMetaInfo node : serviceNodeList) {
+            if (!node.equals(failedNode)) {
+                availableNodes.add(node);
+            }
+        }
+        return availableNodes;
+    }
 
-        // 使用重试器执行调用
-        return retryer.doRetry(rpcRequest, nextNode);
+    /**
+     * 从剩余节点中重新选择一个，并累加故障转移次数
+     */
+    @SuppressWarnings("unchecked")
+    private static ServiceMetaInfo selectNext(Map<String, Object> context, List<ServiceMetaInfo> availableNodes) {
+        LoadBalancer loadBalancer = (LoadBalancer) context.get(TolerantContextKeys.LOAD_BALANCER);
+        Map<String, Object> requestParams = (Map<String, Object>) context.get(TolerantContextKeys.REQUEST_PARAMS);
+        if (requestParams == null) {
+            RpcRequest rpcRequest = (RpcRequest) context.get(TolerantContextKeys.RPC_REQUEST);
+            requestParams = new HashMap<>();
+            requestParams.put(RpcConstant.LOAD_BALANCE_METHOD_NAME, rpcRequest.getMethodName());
+        }
+        ServiceMetaInfo nextNode = loadBalancer.select(requestParams, availableNodes);
+        log.info("Failing over to new node: {}", nextNode.getServiceAddress());
+        AtomicInteger retriedCount = (AtomicInteger) context.get(TolerantContextKeys.RETRIED_COUNT);
+        if (retriedCount != null) {
+            retriedCount.incrementAndGet();
+        }
+        return nextNode;
     }
 
     /**
@@ -64,4 +121,12 @@ public class FailOverTolerantStrategy implements TolerantStrategy {
     public interface Retryer {
         RpcResponse doRetry(RpcRequest rpcRequest, ServiceMetaInfo serviceMetaInfo);
     }
+
+    /**
+     * 异步调用指定节点
+     */
+    @FunctionalInterface
+    public interface AsyncRetryer {
+        CompletableFuture<RpcResponse> doRetryAsync(RpcRequest rpcRequest, ServiceMetaInfo serviceMetaInfo);
+    }
 }
@@ -0,0 +1,47 @@
+package com.ming.rpc.fault.tolerant;
+
+/**
+ * 容错上下文键名常量，由服务代理在每次调用时填充
+ */
+public interface TolerantContextKeys {
+
+    /**
+     * 请求（RpcRequest）
+     */
+    String RPC_REQUEST = "rpcRequest";
+
+    /**
+     * 本次调用的候选节点列表（List&lt;ServiceMetaInfo&gt;）
+     */
+    String SERVICE_NODE_LIST = "serviceNodeList";
+
+    /**
+     * 首次调用选中的节点（ServiceMetaInfo）
+     */
+    String SELECTED_NODE = "selectedNode";
+
+    /**
+     * 负载均衡器（LoadBalancer）
+     */
+    String LOAD_BALANCER = "loadBalancer";
+
+    /**
+     * 负载均衡参数（Map&lt;String, Object&gt;），缺省时只按方法名选择
+     */
+    String REQUEST_PARAMS = "requestParams";
+
+    /**
+     * 同步调用指定节点（FailOverTolerantStrategy.Retryer）
+     */
+    String RETRYER = "retryer";
+
+    /**
+     * 异步调用指定节点（FailOverTolerantStrategy.AsyncRetryer）
+     */
+    String ASYNC_RETRYER = "asyncRetryer";
+
+    /**
+     * 故障转移次数（AtomicInteger）
+     */
+    String RETRIED_COUNT = "retriedCount";
+}
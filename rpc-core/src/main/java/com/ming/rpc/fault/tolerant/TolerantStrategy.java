@@ -1,6 +1,7 @@
 package com.ming.rpc.fault.tolerant;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.ming.rpc.model.RpcResponse;
 
@@ -16,5 +17,19 @@ public interface TolerantStrategy {
      * @return
      */     
     RpcResponse doTolerant(Map<String, Object> context, Exception e);
+
+    /**
+     * 异步容错，默认直接复用同步实现的结果
+     * @param context 上下文
+     * @param e 异常
+     * @return 容错结果，同步实现抛出的异常会作为失败结果返回
+     */
+    default CompletableFuture<RpcResponse> doTolerantAsync(Map<String, Object> context, Exception e) {
+        try {
+            return CompletableFuture.completedFuture(doTolerant(context, e));
+        } catch (Exception tolerantException) {
+            return CompletableFuture.failedFuture(tolerantException);
+        }
+    }
     
 }
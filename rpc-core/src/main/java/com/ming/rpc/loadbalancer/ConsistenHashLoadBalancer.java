@@ -1,28 +1,34 @@
 package com.ming.rpc.loadbalancer;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.ming.rpc.constant.RpcConstant;
 import com.ming.rpc.model.ServiceMetaInfo;
 import com.ming.rpc.utils.MurmurHashUtil;
 
 /**
  * 一致性哈希负载均衡器
+ * 每个服务缓存一个不可变的哈希环，选择时二分查找。
+ * 调用方传入的常常是节点列表的子集（剔除不健康、熔断的节点，对冲和故障转移时再排除已选节点），
+ * 子集直接在已有的环上顺时针查找并跳过不在子集中的节点，结果与用子集建环相同；只有出现环上没有的新节点时才重建
  */
 public class ConsistenHashLoadBalancer implements LoadBalancer {
 
     /**
-     * 使用TreeMap定义一致性哈希环，存放虚拟节点
+     * 哈希环缓存：服务键名 => 哈希环，出现新节点时整体替换
      */
-    private final TreeMap<Integer, ServiceMetaInfo> virtualNodes = new TreeMap<>();
-   
+    private final Map<String, HashRing> rings = new ConcurrentHashMap<>();
+
     /**
      * 虚拟节点数
      */
     private static final int VIRTUAL_NODES = 100;
-   
-   
+
+
     /**
      * 选择服务实例
      * @param requestParams 请求参数
@@ -34,29 +40,37 @@ public class ConsistenHashLoadBalancer implements LoadBalancer {
        if(serviceMetaInfoList == null || serviceMetaInfoList.isEmpty()){
         return null;
        }
-       // 将服务实例列表转换为虚拟节点列表
-       for(ServiceMetaInfo serviceMetaInfo : serviceMetaInfoList){
-        for(int i = 0; i < VIRTUAL_NODES; i++){
-            // 计算虚拟节点的哈希值
-            int hash = getHash(serviceMetaInfo.getServiceKey() + "#" + i);
-            // 将虚拟节点添加到一致性哈希环中
-            virtualNodes.put(hash, serviceMetaInfo);
+       if(serviceMetaInfoList.size() == 1){
+        return serviceMetaInfoList.get(0);
+       }
+       //获取调用请求的hash 值，选择最接近且大于等于该值的虚拟节点
+       int hash = getRequestHash(requestParams);
+       String serviceKey = serviceMetaInfoList.get(0).getServiceKey();
+       HashRing ring = rings.get(serviceKey);
+       if(ring != null){
+        //节点列表未变化（成员和顺序一致）时直接复用，比较开销远小于重建
+        if(ring.source.equals(serviceMetaInfoList)){
+         return ring.select(hash);
+        }
+        //子集在原有环上跳过被排除的节点；环上大部分节点已不在列表中时重建，不长期保留已下线的节点
+        boolean[] allowed = ring.mask(serviceMetaInfoList);
+        if(allowed != null && serviceMetaInfoList.size() * 2 >= ring.source.size()){
+         return ring.select(hash, allowed);
         }
        }
+       ring = HashRing.build(serviceMetaInfoList);
+       rings.put(serviceKey, ring);
+       return ring.select(hash);
+    }
 
-
-       //获取调用请求的hash 值
-       int hash = getHash(requestParams);
-
-       //选择最接近且大于等于调用请求hash值的虚拟节点
-       Map.Entry<Integer, ServiceMetaInfo> entry = virtualNodes.ceilingEntry(hash);
-       if(entry == null){
-        //如果没有大于恒宇调用请求hash值的虚拟节点，则返回环首部的节点
-        entry = virtualNodes.firstEntry();
+    /**
+     * 获取调用请求的 hash 值，优先使用消费端按路由键预先计算好的值
+     */
+    private static int getRequestHash(Map<String, Object> requestParams){
+       if(requestParams != null && requestParams.get(RpcConstant.LOAD_BALANCE_HASH) instanceof Integer hash){
+        return hash;
        }
-       //返回虚拟节点对应的服务实例
-       return entry.getValue();
-
+       return getHash(requestParams);
     }
 
     /**
@@ -67,9 +81,107 @@ public class ConsistenHashLoadBalancer implements LoadBalancer {
      * @param key 
      * @return 
      */
-    private int getHash(Object key){
-        return MurmurHashUtil.hash32(key.toString().getBytes());
+    private static int getHash(Object key){
+        return MurmurHashUtil.hash32(key.toString());
     }
 
-    
+    /**
+     * 不可变哈希环：按哈希值升序排列的虚拟节点数组，以及与之一一对应的服务节点及其在快照中的下标
+     */
+    private static final class HashRing {
+
+        /**
+         * 构建该哈希环所用节点列表的快照
+         */
+        private final List<ServiceMetaInfo> source;
+
+        /**
+         * 服务节点 => 在快照中的下标
+         */
+        private final Map<ServiceMetaInfo, Integer> positions;
+
+        private final int[] hashes;
+
+        private final ServiceMetaInfo[] nodes;
+
+        private final int[] owners;
+
+        private HashRing(List<ServiceMetaInfo> source, int[] hashes, ServiceMetaInfo[] nodes, int[] owners) {
+            this.source = source;
+            this.hashes = hashes;
+            this.nodes = nodes;
+            this.owners = owners;
+            this.positions = new HashMap<>(source.size() * 2);
+            for(int i = 0; i < source.size(); i++){
+                positions.putIfAbsent(source.get(i), i);
+            }
+        }
+
+        private static HashRing build(List<ServiceMetaInfo> serviceMetaInfoList) {
+            int size = serviceMetaInfoList.size();
+            //高 32 位存哈希值，低 32 位存节点下标，一次排序同时得到两者的顺序
+            long[] entries = new long[size * VIRTUAL_NODES];
+            int n = 0;
+            for(int index = 0; index < size; index++){
+                //用节点键名计算虚拟节点，保证不同节点落在环上不同位置
+                String serviceNodeKey = serviceMetaInfoList.get(index).getServiceNodeKey();
+                for(int i = 0; i < VIRTUAL_NODES; i++){
+                    entries[n++] = ((long) getHash(serviceNodeKey + "#" + i) << 32) | index;
+                }
+            }
+            Arrays.sort(entries);
+            int[] hashes = new int[entries.length];
+            ServiceMetaInfo[] nodes = new ServiceMetaInfo[entries.length];
+            int[] owners = new int[entries.length];
+            for(int i = 0; i < entries.length; i++){
+                hashes[i] = (int) (entries[i] >> 32);
+                owners[i] = (int) entries[i];
+                nodes[i] = serviceMetaInfoList.get(owners[i]);
+            }
+            return new HashRing(List.copyOf(serviceMetaInfoList), hashes, nodes, owners);
+        }
+
+        /**
+         * 标记子集中的节点
+         * @return 按快照下标标记的数组，子集中有环上没有的节点时返回 null
+         */
+        private boolean[] mask(List<ServiceMetaInfo> serviceMetaInfoList) {
+            boolean[] allowed = new boolean[source.size()];
+            for(ServiceMetaInfo serviceMetaInfo : serviceMetaInfoList){
+                Integer position = positions.get(serviceMetaInfo);
+                if(position == null){
+                    return null;
+                }
+                allowed[position] = true;
+            }
+            return allowed;
+        }
+
+        private ServiceMetaInfo select(int hash) {
+            return nodes[ceiling(hash)];
+        }
+
+        /**
+         * 从哈希值处顺时针查找第一个允许的节点
+         */
+        private ServiceMetaInfo select(int hash, boolean[] allowed) {
+            int index = ceiling(hash);
+            for(int i = 0; i < hashes.length; i++){
+                if(allowed[owners[index]]){
+                    return nodes[index];
+                }
+                index = index + 1 == hashes.length ? 0 : index + 1;
+            }
+            return null;
+        }
+
+        private int ceiling(int hash) {
+            int index = Arrays.binarySearch(hashes, hash);
+            if(index < 0){
+                index = -index - 1;
+            }
+            //没有大于等于该哈希值的虚拟节点，回到环首部
+            return index == hashes.length ? 0 : index;
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package com.ming.rpc.loadbalancer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.ming.rpc.model.ServiceMetaInfo;
+
+/**
+ * 最低延迟负载均衡器
+ * 随机挑选两个节点（power of two choices），选择 平均延迟 ×（未完成请求数 + 1）较小的一个，
+ * 变慢或过载的节点会自动分到更少的流量，同时避免所有请求都涌向同一个“最快”节点。
+ * 预热中的节点还没有延迟数据、评分最低，按预热进度的概率参与比较，避免刚启动就被选满
+ */
+public class LeastLatencyLoadBalancer implements LoadBalancer {
+
+    /**
+     * 选择服务实例
+     * @param requestParams 请求参数
+     * @param serviceMetaInfoList 可用服务实例列表
+     * @return 选择的服务实例
+     */
+    @Override
+    public ServiceMetaInfo select(Map<String , Object> requestParams,List<ServiceMetaInfo> serviceMetaInfoList) {
+        if(serviceMetaInfoList == null || serviceMetaInfoList.isEmpty()) {
+            return null;
+        }
+        int size = serviceMetaInfoList.size();
+        if(size == 1) {
+            return serviceMetaInfoList.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        // 在其余 size - 1 个节点中挑第二个，保证两者不同
+        int second = random.nextInt(size - 1);
+        if(second >= first) {
+            second++;
+        }
+        ServiceMetaInfo a = serviceMetaInfoList.get(first);
+        ServiceMetaInfo b = serviceMetaInfoList.get(second);
+        long now = System.currentTimeMillis();
+        boolean aReady = passWarmup(a, now, random);
+        boolean bReady = passWarmup(b, now, random);
+        if(aReady != bReady) {
+            return aReady ? a : b;
+        }
+        return NodeStatsRegistry.get(a).score() <= NodeStatsRegistry.get(b).score() ? a : b;
+    }
+
+    /**
+     * 预热中的节点以 有效权重 / 权重 的概率参与比较
+     */
+    private static boolean passWarmup(ServiceMetaInfo serviceMetaInfo, long now, ThreadLocalRandom random) {
+        if(serviceMetaInfo.getWeight() <= 0 || !WarmupWeights.isWarmingUp(serviceMetaInfo, now)) {
+            return true;
+        }
+        return random.nextInt(serviceMetaInfo.getWeight()) < WarmupWeights.effectiveWeight(serviceMetaInfo, now);
+    }
+}
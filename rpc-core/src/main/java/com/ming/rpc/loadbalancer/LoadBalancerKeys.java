@@ -10,4 +10,6 @@ public interface LoadBalancerKeys {
     String ROUND_ROBIN = "roundRobin";//轮询策略
     String RANDOM = "random";//随机策略 
     String CONSISTENT_HASH = "consistentHash";//一致性哈希策略
+    String LEAST_LATENCY = "leastLatency";//最低延迟策略
+    String WEIGHTED_ROUND_ROBIN = "weightedRoundRobin";//平滑加权轮询策略
 }
@@ -0,0 +1,124 @@
+package com.ming.rpc.loadbalancer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 服务节点调用统计（消费端使用）
+ * 无锁维护按时间衰减的指数加权移动平均延迟（EWMA）和未完成请求数，由客户端传输层在请求开始和结束时更新
+ */
+public class NodeStats {
+
+    /**
+     * 衰减时间常数：距上次采样越久，旧的平均值权重越低
+     */
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * 平均延迟（纳秒），以 double 的二进制形式保存以便 CAS
+     */
+    private final AtomicLong ewmaBits = new AtomicLong(Double.doubleToRawLongBits(0D));
+
+    /**
+     * 上次采样时间
+     */
+    private final AtomicLong lastSampleNanos = new AtomicLong(System.nanoTime());
+
+    /**
+     * 未完成的请求数
+     */
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    /**
+     * 是否已有采样
+     */
+    private volatile boolean sampled = false;
+
+    /**
+     * 不可用截止时间（毫秒时间戳），在此之前节点不参与负载均衡
+     */
+    private volatile long unhealthyUntil = 0L;
+
+    /**
+     * 请求开始
+     * @return 开始时间，请求结束时传回 {@link #finish(long, boolean)}
+     */
+    public long start() {
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * 请求结束
+     * @param startNanos 开始时间
+     * @param success 是否成功，失败时至少按当前平均延迟的两倍计入，避免快速失败的节点吸走流量
+     */
+    public void finish(long startNanos, boolean success) {
+        inFlight.decrementAndGet();
+        long now = System.nanoTime();
+        double rtt = now - startNanos;
+        if (!success) {
+            rtt = Math.max(rtt, getEwmaNanos() * 2);
+        }
+        observe(rtt, now);
+    }
+
+    /**
+     * 平均延迟（纳秒），尚无采样时为 0
+     * @return 平均延迟
+     */
+    public double getEwmaNanos() {
+        return Double.longBitsToDouble(ewmaBits.get());
+    }
+
+    /**
+     * 未完成的请求数
+     * @return 数量
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 标记节点不可用（如心跳超时），在指定时长内不参与负载均衡
+     * @param durationMillis 时长
+     */
+    public void markUnhealthy(long durationMillis) {
+        unhealthyUntil = System.currentTimeMillis() + durationMillis;
+    }
+
+    /**
+     * 节点是否可用
+     * @return 未被标记或标记已过期返回 true
+     */
+    public boolean isHealthy() {
+        return System.currentTimeMillis() >= unhealthyUntil;
+    }
+
+    /**
+     * 负载评分，越小越好：平均延迟 × (未完成请求数 + 1)
+     * @return 评分
+     */
+    public double score() {
+        return getEwmaNanos() * (inFlight.get() + 1);
+    }
+
+    private void observe(double rtt, long now) {
+        // 每次采样独占一段时间间隔，并发采样之间不会重复衰减
+        long elapsed = Math.max(0L, now - lastSampleNanos.getAndSet(now));
+        if (!sampled) {
+            sampled = true;
+            ewmaBits.set(Double.doubleToRawLongBits(rtt));
+            return;
+        }
+        double weight = Math.exp(-elapsed / DECAY_NANOS);
+        long prevBits;
+        long nextBits;
+        do {
+            prevBits = ewmaBits.get();
+            double prev = Double.longBitsToDouble(prevBits);
+            nextBits = Double.doubleToRawLongBits(prev * weight + rtt * (1 - weight));
+        } while (!ewmaBits.compareAndSet(prevBits, nextBits));
+    }
+}
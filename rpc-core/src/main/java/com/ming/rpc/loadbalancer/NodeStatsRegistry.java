@@ -0,0 +1,68 @@
+package com.ming.rpc.loadbalancer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ming.rpc.model.ServiceMetaInfo;
+
+/**
+ * 服务节点调用统计注册表（消费端使用）
+ */
+public class NodeStatsRegistry {
+
+    /**
+     * 调用统计：服务节点键名 => 统计
+     */
+    private static final Map<String, NodeStats> NODE_STATS = new ConcurrentHashMap<>();
+
+    /**
+     * 获取节点的调用统计，不存在时创建
+     * @param serviceMetaInfo 服务节点
+     * @return 调用统计
+     */
+    public static NodeStats get(ServiceMetaInfo serviceMetaInfo) {
+        String serviceNodeKey = serviceMetaInfo.getServiceNodeKey();
+        NodeStats nodeStats = NODE_STATS.get(serviceNodeKey);
+        if (nodeStats != null) {
+            return nodeStats;
+        }
+        return NODE_STATS.computeIfAbsent(serviceNodeKey, key -> new NodeStats());
+    }
+
+    /**
+     * 过滤掉被标记为不可用的节点；全部不可用时返回原列表，交给调用本身去失败或恢复
+     * @param serviceMetaInfoList 候选节点
+     * @return 可用节点
+     */
+    public static List<ServiceMetaInfo> filterHealthy(List<ServiceMetaInfo> serviceMetaInfoList) {
+        List<ServiceMetaInfo> healthy = null;
+        for (int i = 0; i < serviceMetaInfoList.size(); i++) {
+            ServiceMetaInfo serviceMetaInfo = serviceMetaInfoList.get(i);
+            NodeStats nodeStats = NODE_STATS.get(serviceMetaInfo.getServiceNodeKey());
+            boolean isHealthy = nodeStats == null || nodeStats.isHealthy();
+            if (!isHealthy && healthy == null) {
+                //第一次遇到不可用节点时才复制，全部可用时不分配新列表
+                healthy = new ArrayList<>(serviceMetaInfoList.subList(0, i));
+            } else if (isHealthy && healthy != null) {
+                healthy.add(serviceMetaInfo);
+            }
+        }
+        if (healthy == null) {
+            return serviceMetaInfoList;
+        }
+        return healthy.isEmpty() ? serviceMetaInfoList : healthy;
+    }
+
+    /**
+     * 清除节点的调用统计（服务发现结果中节点下线时调用）
+     * @param serviceNodeKey 服务节点键名
+     */
+    public static void remove(String serviceNodeKey) {
+        NODE_STATS.remove(serviceNodeKey);
+    }
+
+    private NodeStatsRegistry() {
+    }
+}
@@ -2,15 +2,15 @@ package com.ming.rpc.loadbalancer;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 import com.ming.rpc.model.ServiceMetaInfo;
 
 /**
  * 随机负载均衡器
+ * 按节点的有效权重（含预热）随机，权重都相同时退化为等概率随机
  */
 public class RandomLoadBalancer implements LoadBalancer {
-    private final Random random = new Random();
     /**
      * 选择服务实例
      * @param requestParams 请求参数
@@ -27,7 +27,27 @@ public class RandomLoadBalancer implements LoadBalancer {
         if(size == 1) {
             return serviceMetaInfoList.get(0);
         }
-        return serviceMetaInfoList.get(random.nextInt(size));
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = System.currentTimeMillis();
+        int[] weights = new int[size];
+        long totalWeight = 0;
+        boolean sameWeight = true;
+        for(int i = 0; i < size; i++) {
+            weights[i] = WarmupWeights.effectiveWeight(serviceMetaInfoList.get(i), now);
+            totalWeight += weights[i];
+            sameWeight &= weights[i] == weights[0];
+        }
+        if(sameWeight || totalWeight == 0) {
+            return serviceMetaInfoList.get(random.nextInt(size));
+        }
+        long offset = random.nextLong(totalWeight);
+        for(int i = 0; i < size; i++) {
+            offset -= weights[i];
+            if(offset < 0) {
+                return serviceMetaInfoList.get(i);
+            }
+        }
+        return serviceMetaInfoList.get(size - 1);
     }
 
 }
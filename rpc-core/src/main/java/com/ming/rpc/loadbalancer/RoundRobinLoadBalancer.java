@@ -31,8 +31,8 @@ public class RoundRobinLoadBalancer implements LoadBalancer {
         if(size == 1) {
             return serviceMetaInfoList.get(0);
         }
-        // 取模算法轮询，防止下标越界
-        int index = currentIndex.getAndIncrement() % size;
+        // 取模算法轮询，防止下标越界；与 Integer.MAX_VALUE 相与，避免计数溢出后出现负数下标
+        int index = (currentIndex.getAndIncrement() & Integer.MAX_VALUE) % size;
         return serviceMetaInfoList.get(index);
     }
 }
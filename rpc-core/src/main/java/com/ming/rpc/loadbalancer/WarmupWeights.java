@@ -0,0 +1,52 @@
+package com.ming.rpc.loadbalancer;
+
+import com.ming.rpc.model.ServiceMetaInfo;
+
+/**
+ * 预热权重计算（消费端使用）
+ * 节点启动后的预热时长内，有效权重从 1 线性增长到注册的权重（不会降到 0，节点始终能被选中以完成预热），避免 JIT 和缓存尚未预热时就承接全部流量
+ */
+public final class WarmupWeights {
+
+    /**
+     * 计算节点当前的有效权重
+     * @param serviceMetaInfo 服务节点
+     * @param now 当前时间戳（毫秒）
+     * @return 有效权重；权重大于 0 的节点至少为 1，保证能被选中以完成预热
+     */
+    public static int effectiveWeight(ServiceMetaInfo serviceMetaInfo, long now) {
+        int weight = Math.max(0, serviceMetaInfo.getWeight());
+        long uptime = now - serviceMetaInfo.getStartTime();
+        if (weight == 0 || !isWarmingUp(serviceMetaInfo, now)) {
+            return weight;
+        }
+        return (int) Math.max(1L, weight * Math.max(0L, uptime) / serviceMetaInfo.getWarmup());
+    }
+
+    /**
+     * 节点是否处于预热期
+     * @param serviceMetaInfo 服务节点
+     * @param now 当前时间戳（毫秒）
+     * @return 是否预热中
+     */
+    public static boolean isWarmingUp(ServiceMetaInfo serviceMetaInfo, long now) {
+        return serviceMetaInfo.getStartTime() > 0
+                && serviceMetaInfo.getWarmup() > 0
+                && now - serviceMetaInfo.getStartTime() < serviceMetaInfo.getWarmup();
+    }
+
+    /**
+     * 节点预热结束的时间戳
+     * @param serviceMetaInfo 服务节点
+     * @return 时间戳（毫秒），未配置预热时为 0
+     */
+    public static long warmupEndTime(ServiceMetaInfo serviceMetaInfo) {
+        if (serviceMetaInfo.getStartTime() <= 0 || serviceMetaInfo.getWarmup() <= 0) {
+            return 0L;
+        }
+        return serviceMetaInfo.getStartTime() + serviceMetaInfo.getWarmup();
+    }
+
+    private WarmupWeights() {
+    }
+}
@@ -0,0 +1,217 @@
+package com.ming.rpc.loadbalancer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ming.rpc.model.ServiceMetaInfo;
+
+/**
+ * 平滑加权轮询负载均衡器
+ * 按节点权重预先算出一整轮平滑加权轮询（与 Nginx 相同的算法）的选择序列，缓存为不可变数组，
+ * 选择时只需对原子计数器取模，无需加锁；出现序列中没有的新节点或权重变化时整体重建。
+ * 调用方传入的常常是节点列表的子集（剔除不健康、熔断的节点，对冲和故障转移时再排除已选节点），
+ * 子集沿用同一序列和计数器，跳过不在子集中的节点，不会覆盖缓存的序列或把计数器归零而打乱权重比例。
+ * 有节点处于预热期时按预热后的有效权重构建，并每隔一小段时间重建一次，使其流量逐步上升
+ */
+public class WeightedRoundRobinLoadBalancer implements LoadBalancer {
+
+    /**
+     * 一轮序列的最大长度，权重之和超过时按比例缩小
+     */
+    private static final int MAX_SCHEDULE_LENGTH = 4096;
+
+    /**
+     * 有节点预热时选择序列的重建间隔（毫秒）
+     */
+    private static final long WARMUP_REBUILD_INTERVAL = 1000L;
+
+    /**
+     * 选择序列缓存：服务键名 => 选择序列
+     */
+    private final Map<String, Schedule> schedules = new ConcurrentHashMap<>();
+
+    /**
+     * 选择服务实例
+     * @param requestParams 请求参数
+     * @param serviceMetaInfoList 可用服务实例列表
+     * @return 选择的服务实例
+     */
+    @Override
+    public ServiceMetaInfo select(Map<String , Object> requestParams,List<ServiceMetaInfo> serviceMetaInfoList) {
+        if(serviceMetaInfoList == null || serviceMetaInfoList.isEmpty()) {
+            return null;
+        }
+        if(serviceMetaInfoList.size() == 1) {
+            return serviceMetaInfoList.get(0);
+        }
+        String serviceKey = serviceMetaInfoList.get(0).getServiceKey();
+        Schedule schedule = schedules.get(serviceKey);
+        long now = System.currentTimeMillis();
+        if(schedule != null && now < schedule.expireTime) {
+            if(schedule.source.equals(serviceMetaInfoList)) {
+                return schedule.next();
+            }
+            //子集跳过被排除的节点；序列中大部分节点已不在列表中时重建，不长期保留已下线的节点
+            boolean[] allowed = schedule.mask(serviceMetaInfoList);
+            if(allowed != null && serviceMetaInfoList.size() * 2 >= schedule.source.size()) {
+                ServiceMetaInfo selected = schedule.next(allowed);
+                //子集中只剩权重为 0 的节点时序列中没有它们，按子集临时构建，不替换缓存
+                return selected != null ? selected : new Schedule(serviceMetaInfoList, now).next();
+            }
+        }
+        schedule = new Schedule(serviceMetaInfoList, now);
+        schedules.put(serviceKey, schedule);
+        return schedule.next();
+    }
+
+    /**
+     * 一轮平滑加权轮询的选择序列
+     */
+    private static final class Schedule {
+
+        /**
+         * 构建该序列所用节点列表的快照
+         */
+        private final List<ServiceMetaInfo> source;
+
+        /**
+         * 服务节点 => 在快照中的下标
+         */
+        private final Map<ServiceMetaInfo, Integer> positions;
+
+        private final ServiceMetaInfo[] sequence;
+
+        /**
+         * 序列中每一项对应节点在快照中的下标
+         */
+        private final int[] owners;
+
+        private final AtomicInteger position = new AtomicInteger(0);
+
+        /**
+         * 过期时间：有节点预热时需要按新的有效权重重建，否则永不过期
+         */
+        private final long expireTime;
+
+        private Schedule(List<ServiceMetaInfo> serviceMetaInfoList, long now) {
+            this.source = List.copyOf(serviceMetaInfoList);
+            this.positions = new HashMap<>(source.size() * 2);
+            for(int i = 0; i < source.size(); i++) {
+                positions.putIfAbsent(source.get(i), i);
+            }
+            this.owners = build(this.source, now);
+            this.sequence = new ServiceMetaInfo[owners.length];
+            for(int i = 0; i < owners.length; i++) {
+                sequence[i] = source.get(owners[i]);
+            }
+            long expireTime = Long.MAX_VALUE;
+            for(ServiceMetaInfo serviceMetaInfo : this.source) {
+                if(WarmupWeights.isWarmingUp(serviceMetaInfo, now)) {
+                    expireTime = Math.min(expireTime, Math.min(now + WARMUP_REBUILD_INTERVAL, WarmupWeights.warmupEndTime(serviceMetaInfo)));
+                }
+            }
+            this.expireTime = expireTime;
+        }
+
+        private ServiceMetaInfo next() {
+            return sequence[(position.getAndIncrement() & Integer.MAX_VALUE) % sequence.length];
+        }
+
+        /**
+         * 标记子集中的节点
+         * @return 按快照下标标记的数组，子集中有序列中没有的节点时返回 null
+         */
+        private boolean[] mask(List<ServiceMetaInfo> serviceMetaInfoList) {
+            boolean[] allowed = new boolean[source.size()];
+            for(ServiceMetaInfo serviceMetaInfo : serviceMetaInfoList) {
+                Integer index = positions.get(serviceMetaInfo);
+                if(index == null) {
+                    return null;
+                }
+                allowed[index] = true;
+            }
+            return allowed;
+        }
+
+        /**
+         * 与完整列表共用计数器，每次只占一个位置，从该位置起取第一个允许的节点
+         */
+        private ServiceMetaInfo next(boolean[] allowed) {
+            int index = (position.getAndIncrement() & Integer.MAX_VALUE) % sequence.length;
+            for(int i = 0; i < sequence.length; i++) {
+                if(allowed[owners[index]]) {
+                    return sequence[index];
+                }
+                index = index + 1 == sequence.length ? 0 : index + 1;
+            }
+            return null;
+        }
+
+        /**
+         * 构建一轮选择序列
+         * @return 序列中每一项对应节点在列表中的下标
+         */
+        private static int[] build(List<ServiceMetaInfo> serviceMetaInfoList, long now) {
+            int size = serviceMetaInfoList.size();
+            int[] weights = new int[size];
+            long total = 0;
+            int gcd = 0;
+            for(int i = 0; i < size; i++) {
+                weights[i] = WarmupWeights.effectiveWeight(serviceMetaInfoList.get(i), now);
+                total += weights[i];
+                gcd = gcd(gcd, weights[i]);
+            }
+            //全部权重为 0 时退化为普通轮询
+            if(total == 0) {
+                int[] sequence = new int[size];
+                for(int i = 0; i < size; i++) {
+                    sequence[i] = i;
+                }
+                return sequence;
+            }
+            //按最大公约数约分，超长时再按比例缩小，权重大于 0 的节点至少保留 1
+            total = 0;
+            for(int i = 0; i < size; i++) {
+                weights[i] /= gcd;
+                total += weights[i];
+            }
+            if(total > MAX_SCHEDULE_LENGTH) {
+                double scale = (double) MAX_SCHEDULE_LENGTH / total;
+                total = 0;
+                for(int i = 0; i < size; i++) {
+                    if(weights[i] > 0) {
+                        weights[i] = Math.max(1, (int) (weights[i] * scale));
+                    }
+                    total += weights[i];
+                }
+            }
+            //平滑加权轮询：每步所有节点加上自身权重，选当前值最大的节点，再减去总权重
+            int[] sequence = new int[(int) total];
+            long[] current = new long[size];
+            for(int step = 0; step < sequence.length; step++) {
+                int best = -1;
+                for(int i = 0; i < size; i++) {
+                    current[i] += weights[i];
+                    if(weights[i] > 0 && (best < 0 || current[i] > current[best])) {
+                        best = i;
+                    }
+                }
+                current[best] -= total;
+                sequence[step] = best;
+            }
+            return sequence;
+        }
+
+        private static int gcd(int a, int b) {
+            while(b != 0) {
+                int t = a % b;
+                a = b;
+                b = t;
+            }
+            return a;
+        }
+    }
+}
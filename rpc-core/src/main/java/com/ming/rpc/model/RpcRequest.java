@@ -40,6 +40,11 @@ public class RpcRequest  implements Serializable{
      */
     private Object[] args;
 
+    /**
+     * 方法 id，0 表示未使用；只携带方法 id 时服务名、方法名和参数类型为空，由提供者按 id 还原
+     */
+    private int methodId;
+
     
     
 }
@@ -37,13 +37,29 @@ public class ServiceMetaInfo implements Serializable {
      */
     private String serviceGroup = "default";
 
+    /**
+     * 服务权重，按机器规格设置，0 表示不接收流量
+     */
+    private int weight = RpcConstant.DEFAULT_SERVICE_WEIGHT;
+
+    /**
+     * 服务启动时间戳（毫秒），0 表示未知，按已预热处理
+     */
+    private long startTime;
+
+    /**
+     * 预热时长（毫秒），启动后在该时间内有效权重从 1 线性增长到 weight
+     */
+    private int warmup;
+
     /**
      * 获取服务键名
      * @return
      */
     public String getServiceKey() {
         //后续可扩展服务分组
-        return String.format("%s:%s", serviceName, serviceVersion);
+        //调用链路上每次请求都会用到，直接拼接，避免 String.format 的解析开销
+        return serviceName + ":" + serviceVersion;
     }
 
     /**
@@ -51,7 +67,7 @@ public class ServiceMetaInfo implements Serializable {
      * @return
      */
     public String getServiceNodeKey() {
-        return String.format("%s/%s:%s", getServiceKey(), serviceHost, servicePort);
+        return getServiceKey() + "/" + serviceHost + ":" + servicePort;
     }
 
     /**
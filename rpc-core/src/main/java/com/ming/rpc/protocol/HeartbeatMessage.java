@@ -0,0 +1,63 @@
+package com.ming.rpc.protocol;
+
+import java.io.IOException;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * 心跳消息
+ * 只有消息头没有消息体；ping 的状态为 0，pong 回显 ping 的请求 id，状态为 OK
+ */
+public class HeartbeatMessage {
+
+    /**
+     * 构造 ping
+     * @param requestId 请求 id
+     * @return 编码后的消息
+     */
+    public static Buffer ping(long requestId) {
+        return encode(requestId, (byte) 0);
+    }
+
+    /**
+     * 构造对 ping 的应答
+     * @param ping 收到的 ping 消息头
+     * @return 编码后的消息
+     */
+    public static Buffer pong(ProtocolMessage.Header ping) {
+        return encode(ping.getRequestId(), (byte) ProtocolMessageStatusEnum.OK.getValue());
+    }
+
+    /**
+     * 是否为心跳消息
+     */
+    public static boolean isHeartbeat(ProtocolMessage.Header header) {
+        return header.getType() == (byte) ProtocolMessageTypeEnum.HEART_BEAT.getKey();
+    }
+
+    /**
+     * 是否为 ping（需要应答）
+     */
+    public static boolean isPing(ProtocolMessage.Header header) {
+        return isHeartbeat(header) && header.getStatus() != (byte) ProtocolMessageStatusEnum.OK.getValue();
+    }
+
+    private static Buffer encode(long requestId, byte status) {
+        ProtocolMessage.Header header = new ProtocolMessage.Header();
+        header.setMagic(ProtocolConstant.PROTOCOL_MAGIC);
+        header.setVersion(ProtocolConstant.PROTOCOL_VERSION);
+        header.setSerializer((byte) ProtocolMessageSerializerEnum.JDK.getKey());
+        header.setType((byte) ProtocolMessageTypeEnum.HEART_BEAT.getKey());
+        header.setStatus(status);
+        header.setRequestId(requestId);
+        try {
+            return ProtocolMessageEncoder.encode(new ProtocolMessage<>(header, null));
+        } catch (IOException e) {
+            // 心跳没有消息体，不会发生序列化异常
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HeartbeatMessage() {
+    }
+}
@@ -0,0 +1,120 @@
+package com.ming.rpc.protocol;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ming.rpc.constant.RpcConstant;
+import com.ming.rpc.model.RpcRequest;
+import com.ming.rpc.utils.MurmurHashUtil;
+
+/**
+ * 方法 id 注册表
+ * 方法 id 由 服务名:版本#方法名(参数类型...) 的哈希得到，消费者和提供者各自计算，无需交换映射表。
+ * 消费者在每条连接上先用握手消息确认提供者认可该 id，之后的请求只携带 id 和参数，不再携带服务名、方法名和参数类型
+ */
+public class MethodIdRegistry {
+
+    /**
+     * 方法 id => 方法签名（只有服务名、版本、方法名、参数类型的请求模板）
+     */
+    private static final Map<Integer, RpcRequest> SIGNATURES = new ConcurrentHashMap<>();
+
+    /**
+     * 计算方法 id，0 保留表示未使用方法 id
+     * @return 方法 id
+     */
+    public static int methodId(String serviceName, String serviceVersion, String methodName, Class<?>[] parameterTypes) {
+        StringBuilder signature = new StringBuilder(128)
+                .append(serviceName).append(':').append(serviceVersion == null ? RpcConstant.DEFAULT_SERVICE_VERSION : serviceVersion)
+                .append('#').append(methodName).append('(');
+        if (parameterTypes != null) {
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (i > 0) {
+                    signature.append(',');
+                }
+                signature.append(parameterTypes[i].getName());
+            }
+        }
+        int id = MurmurHashUtil.hash32(signature.append(')').toString());
+        return id == 0 ? 1 : id;
+    }
+
+    /**
+     * 注册方法签名
+     * 哈希冲突时先注册的签名生效，后注册的返回 0，该方法始终以完整形式发送
+     * @param rpcRequest 携带签名的请求
+     * @return 方法 id，冲突时返回 0
+     */
+    public static int register(RpcRequest rpcRequest) {
+        String serviceVersion = rpcRequest.getServiceVersion() == null ? RpcConstant.DEFAULT_SERVICE_VERSION : rpcRequest.getServiceVersion();
+        int id = methodId(rpcRequest.getServiceName(), serviceVersion, rpcRequest.getMethodName(), rpcRequest.getParameterTypes());
+        RpcRequest signature = new RpcRequest();
+        signature.setServiceName(rpcRequest.getServiceName());
+        signature.setServiceVersion(serviceVersion);
+        signature.setMethodName(rpcRequest.getMethodName());
+        signature.setParameterTypes(rpcRequest.getParameterTypes() == null ? new Class<?>[0] : rpcRequest.getParameterTypes().clone());
+        signature.setMethodId(id);
+        RpcRequest existing = SIGNATURES.putIfAbsent(id, signature);
+        if (existing != null && !sameSignature(existing, signature)) {
+            return 0;
+        }
+        return id;
+    }
+
+    /**
+     * 查找方法签名
+     * @param methodId 方法 id
+     * @return 签名，未注册时返回 null
+     */
+    public static RpcRequest lookup(int methodId) {
+        return SIGNATURES.get(methodId);
+    }
+
+    /**
+     * 还原只携带方法 id 的请求，补全服务名、版本、方法名和参数类型
+     * @param rpcRequest 请求
+     * @return 完整请求或已还原返回 true，方法 id 未注册返回 false
+     */
+    public static boolean resolve(RpcRequest rpcRequest) {
+        if (!isCompact(rpcRequest)) {
+            return true;
+        }
+        RpcRequest signature = SIGNATURES.get(rpcRequest.getMethodId());
+        if (signature == null) {
+            return false;
+        }
+        rpcRequest.setServiceName(signature.getServiceName());
+        rpcRequest.setServiceVersion(signature.getServiceVersion());
+        rpcRequest.setMethodName(signature.getMethodName());
+        rpcRequest.setParameterTypes(signature.getParameterTypes());
+        return true;
+    }
+
+    /**
+     * 是否为只携带方法 id 的请求
+     */
+    public static boolean isCompact(RpcRequest rpcRequest) {
+        return rpcRequest.getServiceName() == null && rpcRequest.getMethodId() != 0;
+    }
+
+    /**
+     * 构造只携带方法 id 和参数的请求，不修改原请求（重试时可能发往其它连接）
+     * @param rpcRequest 完整请求
+     * @return 精简请求
+     */
+    public static RpcRequest compact(RpcRequest rpcRequest) {
+        RpcRequest compactRequest = new RpcRequest();
+        compactRequest.setServiceVersion(null);
+        compactRequest.setMethodId(rpcRequest.getMethodId());
+        compactRequest.setArgs(rpcRequest.getArgs());
+        return compactRequest;
+    }
+
+    private static boolean sameSignature(RpcRequest a, RpcRequest b) {
+        return a.getServiceName().equals(b.getServiceName())
+                && a.getServiceVersion().equals(b.getServiceVersion())
+                && a.getMethodName().equals(b.getMethodName())
+                && Arrays.equals(a.getParameterTypes(), b.getParameterTypes());
+    }
+}
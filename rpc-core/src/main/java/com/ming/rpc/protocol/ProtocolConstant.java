@@ -8,6 +8,42 @@ public interface ProtocolConstant {
      */
     int MESSAGE_HEADER_LENGTH = 17;
 
+    /**
+     * 消息头中消息体长度字段的偏移
+     */
+    int BODY_LENGTH_OFFSET = 13;
+
+    /**
+     * 序列化器字节中序列化器编号所占的位
+     */
+    int SERIALIZER_MASK = 0x0F;
+
+    /**
+     * 序列化器字节中压缩算法编号的偏移和掩码
+     */
+    int COMPRESSOR_SHIFT = 4;
+    int COMPRESSOR_MASK = 0x07;
+
+    /**
+     * 序列化器字节中表示消息体已压缩的位
+     */
+    int COMPRESSED_FLAG = 0x80;
+
+    /**
+     * 消息类型字节中消息类型编号所占的位
+     */
+    int TYPE_MASK = 0x7F;
+
+    /**
+     * 消息类型字节中表示消息头后附带剩余超时时间的位
+     */
+    int TIMEOUT_FLAG = 0x80;
+
+    /**
+     * 剩余超时时间扩展字段的长度，紧跟在消息头之后，计入消息体长度
+     */
+    int TIMEOUT_LENGTH = 4;
+
     /**
      * 协议魔数
      */
@@ -42,6 +42,17 @@ public class ProtocolMessage<T> {
          */
         private byte serializer;
 
+        /**
+         * 压缩算法，与序列化器共用一个字节（第 4~6 位）
+         * 请求中表示消费者期望的压缩算法，提供者按它压缩响应；只有 compressed 为 true 时消息体才真正被压缩
+         */
+        private byte compressor;
+
+        /**
+         * 消息体是否已压缩（序列化器字节的最高位）
+         */
+        private boolean compressed;
+
         /**
          * 消息类型（请求/响应）
          */
@@ -57,6 +68,13 @@ public class ProtocolMessage<T> {
          */
         private long requestId;
 
+        /**
+         * 请求的剩余超时时间（毫秒），0 表示不限
+         * 大于 0 时消息类型字节的最高位置位，该值以 4 字节紧跟在消息头之后、计入消息体长度；
+         * 传递的是相对时长而不是截止时间点，不依赖两端时钟同步
+         */
+        private int timeout;
+
         /**
          * 消息长度
          */
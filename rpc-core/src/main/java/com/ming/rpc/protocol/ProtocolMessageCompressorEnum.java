@@ -0,0 +1,62 @@
+package com.ming.rpc.protocol;
+
+import cn.hutool.core.util.ObjectUtil;
+import lombok.Getter;
+
+/**
+ * 协议消息压缩算法枚举，编号占消息头序列化器字节的第 4~6 位，最多 8 种
+ */
+@Getter
+public enum ProtocolMessageCompressorEnum {
+    NONE(0, "none"),
+    GZIP(1, "gzip"),
+    DEFLATE(2, "deflate"),
+    LZ4(3, "lz4");
+
+    private final int key;
+    private final String value;
+
+    ProtocolMessageCompressorEnum(int key, String value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    /**
+     * 根据key获取枚举
+     * @param key
+     * @return
+     */
+    public static ProtocolMessageCompressorEnum getEnumByKey(int key) {
+        for (ProtocolMessageCompressorEnum compressorEnum : ProtocolMessageCompressorEnum.values()) {
+            if (compressorEnum.getKey() == key) {
+                return compressorEnum;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 根据配置的算法名获取消息头中的编号，未知算法按不压缩处理
+     * @param value 算法名
+     * @return 编号
+     */
+    public static byte getKeyByValue(String value) {
+        ProtocolMessageCompressorEnum compressorEnum = getEnumByValue(value);
+        return (byte) (compressorEnum == null ? NONE.getKey() : compressorEnum.getKey());
+    }
+
+    /**
+     * 根据value获取枚举
+     */
+    public static ProtocolMessageCompressorEnum getEnumByValue(String value) {
+        if (ObjectUtil.isEmpty(value)) {
+            return null;
+        }
+        for (ProtocolMessageCompressorEnum compressorEnum : ProtocolMessageCompressorEnum.values()) {
+            if (compressorEnum.getValue().equals(value)) {
+                return compressorEnum;
+            }
+        }
+        return null;
+    }
+}
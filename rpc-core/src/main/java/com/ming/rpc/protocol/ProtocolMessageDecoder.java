@@ -1,15 +1,22 @@
 package com.ming.rpc.protocol;
 
 import java.io.IOException;
+import java.io.InputStream;
 
+import com.ming.rpc.RpcApplication;
 import com.ming.rpc.serializer.Serializer;
 import com.ming.rpc.serializer.SerializerFactory;
 import com.ming.rpc.model.RpcRequest;
 import com.ming.rpc.model.RpcResponse;
+import com.ming.rpc.protocol.compress.CompressorFactory;
+import com.ming.rpc.utils.BufferUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
 import io.vertx.core.buffer.Buffer;
 
 /**
  * 协议消息解码器
+ * 消息体不拷贝出来，序列化器直接从底层 Netty 缓冲区的切片读取
  */
 public class ProtocolMessageDecoder {
     /**
@@ -28,13 +35,30 @@ public class ProtocolMessageDecoder {
        }
        header.setMagic(magic);
        header.setVersion(buffer.getByte(1));
-       header.setSerializer(buffer.getByte(2));
-       header.setType(buffer.getByte(3));
+       //序列化器、压缩算法和压缩标记共用一个字节
+       byte serializerByte = buffer.getByte(2);
+       header.setSerializer((byte) (serializerByte & ProtocolConstant.SERIALIZER_MASK));
+       header.setCompressor((byte) ((serializerByte >>> ProtocolConstant.COMPRESSOR_SHIFT) & ProtocolConstant.COMPRESSOR_MASK));
+       header.setCompressed((serializerByte & ProtocolConstant.COMPRESSED_FLAG) != 0);
+       //消息类型的最高位表示消息头后附带剩余超时时间
+       byte typeByte = buffer.getByte(3);
+       header.setType((byte) (typeByte & ProtocolConstant.TYPE_MASK));
        header.setStatus(buffer.getByte(4));
        header.setRequestId(buffer.getLong(5));
        header.setBodyLength(buffer.getInt(13));
-       //解决粘包问题，只读指定长度的数据
-       byte[] bodyBytes = buffer.getBytes(17, 17 + header.getBodyLength());
+       //扩展字段是否存在只看标记位，不看取值，避免标记与取值不一致时错位解析消息体
+       int extensionLength = 0;
+       if ((typeByte & ProtocolConstant.TIMEOUT_FLAG) != 0) {
+           if (header.getBodyLength() < ProtocolConstant.TIMEOUT_LENGTH) {
+               throw new IOException("消息体长度不足以容纳超时时间：" + header.getBodyLength());
+           }
+           int timeout = buffer.getInt(ProtocolConstant.MESSAGE_HEADER_LENGTH);
+           if (timeout <= 0) {
+               throw new IOException("超时时间无效：" + timeout);
+           }
+           header.setTimeout(timeout);
+           extensionLength = ProtocolConstant.TIMEOUT_LENGTH;
+       }
        //解析消息体
        ProtocolMessageSerializerEnum serializerEnum = ProtocolMessageSerializerEnum.getEnumByKey(header.getSerializer());
        if(serializerEnum == null) {
@@ -47,15 +71,40 @@ public class ProtocolMessageDecoder {
        }
        switch(messageTypeEnum) {
         case REQUEST:
-            RpcRequest request = serializer.deserialize(bodyBytes, RpcRequest.class);
+        case HANDSHAKE:
+            RpcRequest request = deserializeBody(buffer, header, extensionLength, serializer, RpcRequest.class);
+            //只携带方法 id 的请求补全签名，id 未知时保持原样，由服务端处理器返回错误
+            MethodIdRegistry.resolve(request);
             return new ProtocolMessage<>(header, request);
         case RESPONSE:
-            RpcResponse response = serializer.deserialize(bodyBytes, RpcResponse.class);
+            RpcResponse response = deserializeBody(buffer, header, extensionLength, serializer, RpcResponse.class);
             return new ProtocolMessage<>(header, response);
         case HEART_BEAT:
+            //心跳没有消息体
+            return new ProtocolMessage<>(header, null);
         case OTHERS:
         default:
         throw new RuntimeException("不支持的消息类型：" + header.getType());
        }
     }
+
+    /**
+     * 反序列化消息体：对底层缓冲区做切片，只读指定长度的数据（解决粘包问题），不产生中间字节数组；
+     * 消息体已压缩时先经过对应的解压流，解压后的大小受 maxDecompressedSize 限制
+     */
+    private static <T> T deserializeBody(Buffer buffer, ProtocolMessage.Header header, int extensionLength, Serializer serializer, Class<T> tClass) throws IOException {
+        ByteBuf body = BufferUtil.toByteBuf(buffer).slice(ProtocolConstant.MESSAGE_HEADER_LENGTH + extensionLength,
+                header.getBodyLength() - extensionLength);
+        InputStream inputStream = new ByteBufInputStream(body);
+        if (header.isCompressed()) {
+            ProtocolMessageCompressorEnum compressorEnum = ProtocolMessageCompressorEnum.getEnumByKey(header.getCompressor());
+            if (compressorEnum == null || compressorEnum == ProtocolMessageCompressorEnum.NONE) {
+                throw new IOException("不支持的压缩算法：" + header.getCompressor());
+            }
+            inputStream = CompressorFactory.getInstance(compressorEnum.getValue()).decompress(inputStream, RpcApplication.getRpcConfig().getMaxDecompressedSize());
+        }
+        try (InputStream in = inputStream) {
+            return serializer.deserialize(in, tClass);
+        }
+    }
 }
@@ -1,37 +1,63 @@
 package com.ming.rpc.protocol;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
+import com.ming.rpc.RpcApplication;
+import com.ming.rpc.protocol.compress.CompressorFactory;
 import com.ming.rpc.serializer.Serializer;
 import com.ming.rpc.serializer.SerializerFactory;
+import com.ming.rpc.utils.BufferUtil;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.vertx.core.buffer.Buffer;
 
 /**
  * 协议消息编码器
- * 
+ * 先写消息头并为消息体长度占位，消息体由序列化器直接写入同一个缓冲区，写完后回填消息体长度，不产生中间数组。
+ * 消息头指定了压缩算法且消息体超过阈值时，再把消息体压缩到新的缓冲区，压缩后没有变小则保持原样。
+ * 请求带有剩余超时时间时，该字段紧跟消息头写出，不参与压缩
  */
 public class ProtocolMessageEncoder {
 
+    /**
+     * 编码缓冲区初始容量，足够容纳大部分小消息，不够时由分配器扩容
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
     /**
      * 编码
      * @param protocolMessage 协议消息
-     * @return 编码后的字节数组
+     * @return 编码后的缓冲区（堆内存，由 GC 回收）
      * @throws IOException 编码异常
      */
     public static Buffer encode(ProtocolMessage<?> protocolMessage) throws IOException {
         if (protocolMessage == null || protocolMessage.getHeader() == null) {
             return Buffer.buffer();
         }
+        return BufferUtil.toBuffer(encode(protocolMessage, false));
+    }
+
+    /**
+     * 编码到池化的直接内存缓冲区，供网络发送使用
+     * 调用方负责在写出完成后调用 {@link ByteBuf#release()} 归还缓冲区
+     * @param protocolMessage 协议消息
+     * @return 编码后的池化缓冲区
+     * @throws IOException 编码异常，此时缓冲区已释放
+     */
+    public static ByteBuf encodePooled(ProtocolMessage<?> protocolMessage) throws IOException {
+        return encode(protocolMessage, true);
+    }
+
+    private static ByteBuf allocate(boolean pooled, int capacity) {
+        return pooled ? PooledByteBufAllocator.DEFAULT.directBuffer(capacity) : Unpooled.buffer(capacity);
+    }
+
+    private static ByteBuf encode(ProtocolMessage<?> protocolMessage, boolean pooled) throws IOException {
         ProtocolMessage.Header header = protocolMessage.getHeader();
-        //依次向缓冲区写入字节
-        Buffer buffer = Buffer.buffer();
-        buffer.appendByte(header.getMagic());
-        buffer.appendByte(header.getVersion());
-        buffer.appendByte(header.getSerializer());
-        buffer.appendByte(header.getType());
-        buffer.appendByte(header.getStatus());
-        buffer.appendLong(header.getRequestId());
         //获取序列器
         ProtocolMessageSerializerEnum serializerEnum = ProtocolMessageSerializerEnum.getEnumByKey(header.getSerializer());
         if (serializerEnum == null) {
@@ -39,12 +65,102 @@ public class ProtocolMessageEncoder {
         }
         Serializer serializer = SerializerFactory.getInstance(serializerEnum.getValue());
 
-        //序列化消息体
-        byte[] bodyBytes = serializer.serialize(protocolMessage.getBody());
-        //写入消息体长度
-        buffer.appendInt(bodyBytes.length);
-        //写入消息体
-        buffer.appendBytes(bodyBytes);
-        return buffer;
+        ByteBuf byteBuf = allocate(pooled, INITIAL_CAPACITY);
+        try {
+            header.setCompressed(false);
+            writeHeader(byteBuf, header);
+            //序列化消息体，直接写入缓冲区；心跳没有消息体
+            if (header.getType() != (byte) ProtocolMessageTypeEnum.HEART_BEAT.getKey()) {
+                try (ByteBufOutputStream outputStream = new ByteBufOutputStream(byteBuf)) {
+                    serializer.serialize(protocolMessage.getBody(), outputStream);
+                }
+            }
+            //回填消息体长度（包含超时扩展字段）
+            int bodyLength = byteBuf.writerIndex() - ProtocolConstant.MESSAGE_HEADER_LENGTH;
+            byteBuf.setInt(ProtocolConstant.BODY_LENGTH_OFFSET, bodyLength);
+            header.setBodyLength(bodyLength);
+
+            ByteBuf compressed = compress(byteBuf, header, pooled);
+            if (compressed != null) {
+                byteBuf.release();
+                return compressed;
+            }
+            return byteBuf;
+        } catch (IOException | RuntimeException e) {
+            byteBuf.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 消息体超过阈值时压缩到新的缓冲区
+     * @return 压缩后的消息，不需要压缩或压缩后没有变小时返回 null
+     */
+    private static ByteBuf compress(ByteBuf byteBuf, ProtocolMessage.Header header, boolean pooled) throws IOException {
+        ProtocolMessageCompressorEnum compressorEnum = ProtocolMessageCompressorEnum.getEnumByKey(header.getCompressor());
+        if (compressorEnum == null || compressorEnum == ProtocolMessageCompressorEnum.NONE) {
+            return null;
+        }
+        int extensionLength = extensionLength(header);
+        int bodyLength = header.getBodyLength() - extensionLength;
+        if (bodyLength < RpcApplication.getRpcConfig().getCompressThreshold()) {
+            return null;
+        }
+        ByteBuf target = allocate(pooled, ProtocolConstant.MESSAGE_HEADER_LENGTH + bodyLength / 2);
+        try {
+            header.setCompressed(true);
+            writeHeader(target, header);
+            try (OutputStream outputStream = CompressorFactory.getInstance(compressorEnum.getValue()).compress(new ByteBufOutputStream(target))) {
+                byteBuf.getBytes(ProtocolConstant.MESSAGE_HEADER_LENGTH + extensionLength, outputStream, bodyLength);
+            }
+            int compressedLength = target.writerIndex() - ProtocolConstant.MESSAGE_HEADER_LENGTH;
+            if (compressedLength >= header.getBodyLength()) {
+                header.setCompressed(false);
+                target.release();
+                return null;
+            }
+            target.setInt(ProtocolConstant.BODY_LENGTH_OFFSET, compressedLength);
+            header.setBodyLength(compressedLength);
+            return target;
+        } catch (IOException | RuntimeException e) {
+            header.setCompressed(false);
+            target.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 消息头之后的扩展字段长度，标记位和扩展字段都按它写出，两者保持一致
+     * @throws IllegalArgumentException 超时时间为负数
+     */
+    private static int extensionLength(ProtocolMessage.Header header) {
+        if (header.getTimeout() < 0) {
+            throw new IllegalArgumentException("超时时间无效：" + header.getTimeout());
+        }
+        return header.getTimeout() > 0 ? ProtocolConstant.TIMEOUT_LENGTH : 0;
+    }
+
+    /**
+     * 依次写入消息头，消息体长度先占位，之后写入扩展字段
+     */
+    private static void writeHeader(ByteBuf byteBuf, ProtocolMessage.Header header) {
+        byteBuf.writeByte(header.getMagic());
+        byteBuf.writeByte(header.getVersion());
+        //序列化器、压缩算法和压缩标记共用一个字节
+        int serializerByte = (header.getSerializer() & ProtocolConstant.SERIALIZER_MASK)
+                | (header.getCompressor() & ProtocolConstant.COMPRESSOR_MASK) << ProtocolConstant.COMPRESSOR_SHIFT
+                | (header.isCompressed() ? ProtocolConstant.COMPRESSED_FLAG : 0);
+        byteBuf.writeByte(serializerByte);
+        //消息类型的最高位表示带有剩余超时时间
+        boolean hasTimeout = extensionLength(header) > 0;
+        int typeByte = (header.getType() & ProtocolConstant.TYPE_MASK)
+                | (hasTimeout ? ProtocolConstant.TIMEOUT_FLAG : 0);
+        byteBuf.writeByte(typeByte);
+        byteBuf.writeByte(header.getStatus());
+        byteBuf.writeLong(header.getRequestId());
+        byteBuf.writeInt(0);
+        if (hasTimeout) {
+            byteBuf.writeInt(header.getTimeout());
+        }
     }
 }
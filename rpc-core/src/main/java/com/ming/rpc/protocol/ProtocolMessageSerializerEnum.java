@@ -12,7 +12,8 @@ public enum ProtocolMessageSerializerEnum {
     JDK(0,"jdk"),
     JSON(1,"json"),
     KRYO(2,"kryo"),
-    HESSIAN(3,"hessian");
+    HESSIAN(3,"hessian"),
+    ENVELOPE(4,"envelope");
 
     private final int key;
     private final String value;
@@ -8,7 +8,8 @@ import lombok.Getter;
 public enum ProtocolMessageStatusEnum {
     OK("OK",20),
     BAD_REQUEST("bad_request",40),
-    BAD_RESPONSE("bad_response",50);
+    BAD_RESPONSE("bad_response",50),
+    REJECTED("rejected",60);
 
     private final String text;
     private final int value;
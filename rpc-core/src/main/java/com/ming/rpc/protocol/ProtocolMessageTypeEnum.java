@@ -1,7 +1,5 @@
 package com.ming.rpc.protocol;
 
-import org.apache.zookeeper.server.FinalRequestProcessor;
-
 import lombok.Getter;
 
 /**
@@ -13,7 +11,11 @@ public enum ProtocolMessageTypeEnum {
     REQUEST(0),
     RESPONSE(1),
     HEART_BEAT(2),
-    OTHERS(3);
+    OTHERS(3),
+    /**
+     * 方法 id 握手，消息体为方法签名（RpcRequest），提供者以普通响应回复
+     */
+    HANDSHAKE(4);
 
     private final int key;
 
@@ -0,0 +1,38 @@
+package com.ming.rpc.protocol.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 压缩器
+ */
+public interface Compressor {
+
+    /**
+     * 包装输出流，写入的数据压缩后输出到目标流，关闭返回的流时完成压缩
+     * @param outputStream 目标输出流
+     * @return 压缩输出流
+     * @throws IOException
+     */
+    OutputStream compress(OutputStream outputStream) throws IOException;
+
+    /**
+     * 包装输入流，读到的是解压后的数据
+     * @param inputStream 压缩数据输入流
+     * @return 解压输入流
+     * @throws IOException
+     */
+    InputStream decompress(InputStream inputStream) throws IOException;
+
+    /**
+     * 包装输入流，解压后的数据超过上限时抛出异常，防止很小的压缩数据解压出大量数据耗尽内存
+     * @param inputStream 压缩数据输入流
+     * @param maxLength 解压后数据的最大字节数
+     * @return 解压输入流
+     * @throws IOException
+     */
+    default InputStream decompress(InputStream inputStream, int maxLength) throws IOException {
+        return new LimitedInputStream(decompress(inputStream), maxLength);
+    }
+}
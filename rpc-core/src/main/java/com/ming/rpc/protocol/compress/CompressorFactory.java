@@ -0,0 +1,21 @@
+package com.ming.rpc.protocol.compress;
+
+import com.ming.rpc.spi.SpiLoader;
+
+/**
+ * 压缩器工厂（工厂模式，用于获取压缩器）
+ */
+public class CompressorFactory {
+    static {
+        SpiLoader.load(Compressor.class);
+    }
+
+    /**
+     * 获取实例
+     * @param key 压缩器类型
+     * @return 压缩器
+     */
+    public static Compressor getInstance(String key) {
+        return SpiLoader.getInstance(Compressor.class, key);
+    }
+}
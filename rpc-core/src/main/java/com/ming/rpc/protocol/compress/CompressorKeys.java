@@ -0,0 +1,11 @@
+package com.ming.rpc.protocol.compress;
+
+/**
+ * 压缩器键名
+ */
+public class CompressorKeys {
+    public static final String NONE = "none";
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+    public static final String LZ4 = "lz4";
+}
@@ -0,0 +1,23 @@
+package com.ming.rpc.protocol.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Deflate 压缩器，与 Gzip 算法相同但没有文件头和校验尾
+ */
+public class DeflateCompressor implements Compressor {
+
+    @Override
+    public OutputStream compress(OutputStream outputStream) throws IOException {
+        return new DeflaterOutputStream(outputStream);
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream) throws IOException {
+        return new InflaterInputStream(inputStream);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ming.rpc.protocol.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip 压缩器
+ */
+public class GzipCompressor implements Compressor {
+
+    @Override
+    public OutputStream compress(OutputStream outputStream) throws IOException {
+        return new GZIPOutputStream(outputStream);
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream) throws IOException {
+        return new GZIPInputStream(inputStream);
+    }
+}
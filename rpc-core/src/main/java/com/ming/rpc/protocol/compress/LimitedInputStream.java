@@ -0,0 +1,71 @@
+package com.ming.rpc.protocol.compress;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 限制可读字节数的输入流，超过上限时抛出异常而不是截断，用于限制解压后的数据大小
+ */
+class LimitedInputStream extends FilterInputStream {
+
+    private final long maxLength;
+
+    private long remaining;
+
+    LimitedInputStream(InputStream inputStream, long maxLength) {
+        super(inputStream);
+        this.maxLength = maxLength;
+        this.remaining = maxLength;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (remaining == 0) {
+            checkEnd();
+            return -1;
+        }
+        int b = super.read();
+        if (b >= 0) {
+            remaining--;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (remaining == 0) {
+            checkEnd();
+            return -1;
+        }
+        int n = super.read(b, off, (int) Math.min(len, remaining));
+        if (n > 0) {
+            remaining -= n;
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(Math.min(n, remaining));
+        remaining -= skipped;
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * 已读满上限时，底层流还有数据说明超出上限
+     */
+    private void checkEnd() throws IOException {
+        if (super.read() >= 0) {
+            throw new IOException("解压后的数据超过上限：" + maxLength + " 字节");
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.ming.rpc.protocol.compress;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * LZ4 风格的快速压缩器（纯 Java 实现）
+ * 使用 LZ4 块格式：只在匹配起点更新哈希表，不做熵编码，压缩率低于 Gzip，但压缩和解压都快得多。
+ * 数据格式：4 字节原始长度 + 一个 LZ4 块
+ */
+public class Lz4Compressor implements Compressor {
+
+    private static final int MIN_MATCH = 4;
+
+    /**
+     * 块末尾必须保留为字面量的字节数
+     */
+    private static final int LAST_LITERALS = 5;
+
+    /**
+     * 最后一个匹配的起点距离块末尾的最小字节数
+     */
+    private static final int MF_LIMIT = 12;
+
+    private static final int MAX_OFFSET = 65535;
+
+    private static final int HASH_LOG = 12;
+
+    /**
+     * LZ4 的最大压缩比：每个长度字节最多表示 255 字节的匹配
+     */
+    private static final int MAX_EXPANSION = 255;
+
+    @Override
+    public OutputStream compress(OutputStream outputStream) throws IOException {
+        // 整块压缩，关闭时一次写出
+        return new ByteArrayOutputStream() {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                DataOutputStream out = new DataOutputStream(outputStream);
+                out.writeInt(count);
+                byte[] compressed = compressBlock(buf, count);
+                out.write(compressed);
+                out.close();
+            }
+        };
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream) throws IOException {
+        return decompress(inputStream, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 原始长度由对端声明，按它分配内存之前先校验：不能超过上限，也不能超过压缩块按最大压缩比能还原的长度
+     */
+    @Override
+    public InputStream decompress(InputStream inputStream, int maxLength) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("非法的 LZ4 原始长度：" + length);
+        }
+        if (length > maxLength) {
+            throw new IOException("解压后的数据超过上限：" + length + " > " + maxLength + " 字节");
+        }
+        byte[] compressed = in.readAllBytes();
+        if (length > (long) compressed.length * MAX_EXPANSION) {
+            throw new IOException("LZ4 原始长度与压缩块不符：" + length + "，压缩块 " + compressed.length + " 字节");
+        }
+        return new ByteArrayInputStream(decompressBlock(compressed, compressed.length, length));
+    }
+
+    /**
+     * 压缩一个块
+     * @param src 原始数据
+     * @param length 原始数据长度
+     * @return 压缩后的块
+     */
+    static byte[] compressBlock(byte[] src, int length) {
+        byte[] dst = new byte[length + length / 255 + 16];
+        int[] table = new int[1 << HASH_LOG];
+        Arrays.fill(table, -1);
+        int anchor = 0;
+        int ip = 0;
+        int op = 0;
+        int matchLimit = length - MF_LIMIT;
+        while (ip < matchLimit) {
+            int sequence = readInt(src, ip);
+            int h = (sequence * -1640531535) >>> (32 - HASH_LOG);
+            int ref = table[h];
+            table[h] = ip;
+            if (ref < 0 || ip - ref > MAX_OFFSET || readInt(src, ref) != sequence) {
+                ip++;
+                continue;
+            }
+            // 向前扩展匹配
+            while (ip > anchor && ref > 0 && src[ip - 1] == src[ref - 1]) {
+                ip--;
+                ref--;
+            }
+            // 向后扩展匹配
+            int matchLength = MIN_MATCH;
+            int maxMatch = length - LAST_LITERALS - ip;
+            while (matchLength < maxMatch && src[ip + matchLength] == src[ref + matchLength]) {
+                matchLength++;
+            }
+            op = writeSequence(dst, op, src, anchor, ip - anchor, ip - ref, matchLength);
+            ip += matchLength;
+            anchor = ip;
+        }
+        // 剩余字节全部作为字面量
+        int literalLength = length - anchor;
+        int tokenPos = op++;
+        op = writeLength(dst, op, literalLength);
+        dst[tokenPos] = (byte) (Math.min(literalLength, 15) << 4);
+        System.arraycopy(src, anchor, dst, op, literalLength);
+        op += literalLength;
+        return Arrays.copyOf(dst, op);
+    }
+
+    /**
+     * 解压一个块
+     * @param src 压缩块
+     * @param srcLength 压缩块长度
+     * @param length 原始数据长度
+     * @return 原始数据
+     * @throws IOException 数据损坏
+     */
+    static byte[] decompressBlock(byte[] src, int srcLength, int length) throws IOException {
+        byte[] dst = new byte[length];
+        int ip = 0;
+        int op = 0;
+        try {
+            while (true) {
+                int token = src[ip++] & 0xFF;
+                int literalLength = token >>> 4;
+                if (literalLength == 15) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        literalLength += b;
+                    } while (b == 255);
+                }
+                System.arraycopy(src, ip, dst, op, literalLength);
+                ip += literalLength;
+                op += literalLength;
+                if (ip >= srcLength) {
+                    break;
+                }
+                int offset = (src[ip++] & 0xFF) | ((src[ip++] & 0xFF) << 8);
+                int matchLength = token & 0x0F;
+                if (matchLength == 15) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        matchLength += b;
+                    } while (b == 255);
+                }
+                matchLength += MIN_MATCH;
+                int ref = op - offset;
+                if (offset == 0 || ref < 0) {
+                    throw new IOException("非法的 LZ4 匹配偏移：" + offset);
+                }
+                // 匹配区域可能与输出重叠，逐字节复制
+                for (int i = 0; i < matchLength; i++) {
+                    dst[op++] = dst[ref++];
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("LZ4 数据损坏", e);
+        }
+        if (op != length) {
+            throw new IOException("LZ4 解压长度不一致：" + op + " != " + length);
+        }
+        return dst;
+    }
+
+    private static int writeSequence(byte[] dst, int op, byte[] src, int literalStart, int literalLength, int offset, int matchLength) {
+        int tokenPos = op++;
+        op = writeLength(dst, op, literalLength);
+        System.arraycopy(src, literalStart, dst, op, literalLength);
+        op += literalLength;
+        dst[op++] = (byte) offset;
+        dst[op++] = (byte) (offset >>> 8);
+        int extraMatch = matchLength - MIN_MATCH;
+        op = writeLength(dst, op, extraMatch);
+        dst[tokenPos] = (byte) ((Math.min(literalLength, 15) << 4) | Math.min(extraMatch, 15));
+        return op;
+    }
+
+    /**
+     * 写入超过 15 的长度部分：每字节 255 累加，最后一个字节小于 255
+     */
+    private static int writeLength(byte[] dst, int op, int length) {
+        if (length < 15) {
+            return op;
+        }
+        length -= 15;
+        while (length >= 255) {
+            dst[op++] = (byte) 255;
+            length -= 255;
+        }
+        dst[op++] = (byte) length;
+        return op;
+    }
+
+    private static int readInt(byte[] src, int index) {
+        return (src[index] & 0xFF) | (src[index + 1] & 0xFF) << 8 | (src[index + 2] & 0xFF) << 16 | (src[index + 3] & 0xFF) << 24;
+    }
+}
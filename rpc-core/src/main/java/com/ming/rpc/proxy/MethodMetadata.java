@@ -0,0 +1,259 @@
+package com.ming.rpc.proxy;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ming.rpc.annotation.HashKey;
+import com.ming.rpc.annotation.Idempotent;
+import com.ming.rpc.annotation.RpcTimeout;
+import com.ming.rpc.exception.RpcException;
+import com.ming.rpc.fault.hedge.LatencyHistogram;
+import com.ming.rpc.model.RpcRequest;
+import com.ming.rpc.protocol.MethodIdRegistry;
+import com.ming.rpc.utils.MurmurHashUtil;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.Getter;
+
+/**
+ * 服务方法元数据（消费端使用）
+ * 每个接口方法只解析一次注解和返回值类型，调用时直接读取
+ */
+@Getter
+public class MethodMetadata {
+
+    private static final Map<Method, MethodMetadata> CACHE = new ConcurrentHashMap<>();
+
+    private static final MethodHandle[] NO_PATH = new MethodHandle[0];
+
+    /**
+     * 接口方法
+     */
+    private final Method method;
+
+    /**
+     * 返回值是否为 CompletableFuture / CompletionStage
+     */
+    private final boolean async;
+
+    /**
+     * 方法名的哈希值，未指定路由键或路由键为 null 时使用
+     */
+    private final int methodNameHash;
+
+    /**
+     * 路由键所在参数下标，-1 表示未指定
+     */
+    private final int hashKeyArgIndex;
+
+    /**
+     * 路由键属性路径上各级的取值句柄，签名统一为 (Object)Object
+     */
+    private final MethodHandle[] hashKeyPath;
+
+    /**
+     * 方法 id，哈希冲突时为 0（始终发送完整请求）
+     */
+    private final int methodId;
+
+    /**
+     * @RpcTimeout 指定的超时（毫秒），-1 表示未指定
+     */
+    private final long timeoutMillis;
+
+    /**
+     * 是否为幂等方法（方法或接口上标注了 @Idempotent）
+     */
+    private final boolean idempotent;
+
+    /**
+     * 调用延迟直方图，只有幂等方法才有，用于计算对冲延迟
+     */
+    private final LatencyHistogram latencyHistogram;
+
+    private MethodMetadata(Method method) {
+        this.method = method;
+        RpcRequest signature = new RpcRequest();
+        signature.setServiceName(method.getDeclaringClass().getName());
+        signature.setMethodName(method.getName());
+        signature.setParameterTypes(method.getParameterTypes());
+        this.methodId = MethodIdRegistry.register(signature);
+        Class<?> returnType = method.getReturnType();
+        this.async = returnType == CompletableFuture.class || returnType == CompletionStage.class;
+        this.methodNameHash = MurmurHashUtil.hash32(method.getName());
+        RpcTimeout rpcTimeout = method.getAnnotation(RpcTimeout.class);
+        if (rpcTimeout == null) {
+            rpcTimeout = method.getDeclaringClass().getAnnotation(RpcTimeout.class);
+        }
+        this.timeoutMillis = rpcTimeout == null ? -1 : rpcTimeout.value();
+        this.idempotent = method.isAnnotationPresent(Idempotent.class)
+                || method.getDeclaringClass().isAnnotationPresent(Idempotent.class);
+        this.latencyHistogram = idempotent ? new LatencyHistogram() : null;
+
+        int argIndex = -1;
+        String path = "";
+        HashKey methodHashKey = method.getAnnotation(HashKey.class);
+        if (methodHashKey != null) {
+            argIndex = methodHashKey.argIndex();
+            path = methodHashKey.value();
+        }
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof HashKey hashKey) {
+                    argIndex = i;
+                    path = hashKey.value();
+                }
+            }
+        }
+        if (argIndex >= method.getParameterCount()) {
+            throw new RpcException("哈希键参数下标越界：" + method + "，下标：" + argIndex);
+        }
+        this.hashKeyArgIndex = argIndex;
+        this.hashKeyPath = argIndex < 0 || StrUtil.isBlank(path)
+                ? NO_PATH
+                : resolvePath(method.getParameterTypes()[argIndex], path);
+    }
+
+    /**
+     * 获取方法元数据，首次访问时解析并缓存
+     * @param method 接口方法
+     * @return 方法元数据
+     */
+    public static MethodMetadata of(Method method) {
+        MethodMetadata metadata = CACHE.get(method);
+        if (metadata != null) {
+            return metadata;
+        }
+        return CACHE.computeIfAbsent(method, MethodMetadata::new);
+    }
+
+    /**
+     * 计算本次调用的超时
+     * @param defaultTimeoutMillis 引用或全局配置的超时（毫秒）
+     * @return 方法或接口上标注了 @RpcTimeout 时使用注解值，否则使用默认值
+     */
+    public long resolveTimeout(long defaultTimeoutMillis) {
+        return timeoutMillis >= 0 ? timeoutMillis : defaultTimeoutMillis;
+    }
+
+    /**
+     * 计算本次调用的路由哈希值
+     * @param args 调用参数
+     * @return 哈希值；未指定路由键或路由键为 null 时返回方法名的哈希值
+     */
+    public int routeHash(Object[] args) {
+        if (hashKeyArgIndex < 0 || args == null) {
+            return methodNameHash;
+        }
+        Object value = args[hashKeyArgIndex];
+        try {
+            for (MethodHandle getter : hashKeyPath) {
+                if (value == null) {
+                    break;
+                }
+                value = (Object) getter.invokeExact(value);
+            }
+        } catch (Throwable e) {
+            throw new RpcException("读取哈希键失败：" + method.getName(), e);
+        }
+        return value == null ? methodNameHash : hashValue(value);
+    }
+
+    /**
+     * 计算路由键的哈希，数值类型直接对其二进制表示计算，不做字符串转换；
+     * 其他类型使用 hashCode，需要保证跨进程稳定（如由字符串、数值组成的 record）
+     */
+    private static int hashValue(Object value) {
+        if (value instanceof String s) {
+            return MurmurHashUtil.hash32(s);
+        }
+        if (value instanceof Long l) {
+            return MurmurHashUtil.hash32(l.longValue());
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return MurmurHashUtil.hash32(((Number) value).intValue());
+        }
+        if (value instanceof Character c) {
+            return MurmurHashUtil.hash32((int) c.charValue());
+        }
+        if (value instanceof Enum<?> e) {
+            return MurmurHashUtil.hash32(e.name());
+        }
+        if (value instanceof UUID uuid) {
+            return MurmurHashUtil.hash32(uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits());
+        }
+        return MurmurHashUtil.hash32(value.hashCode());
+    }
+
+    /**
+     * 按参数的声明类型解析属性路径
+     */
+    private static MethodHandle[] resolvePath(Class<?> type, String path) {
+        String[] names = path.split("\\.");
+        MethodHandle[] handles = new MethodHandle[names.length];
+        for (int i = 0; i < names.length; i++) {
+            MethodHandle handle = findAccessor(type, names[i].trim());
+            if (handle == null) {
+                throw new RpcException("无效的哈希键路径：" + path + "，" + type.getName() + " 中不存在属性 " + names[i]);
+            }
+            type = handle.type().returnType();
+            handles[i] = handle.asType(MethodType.methodType(Object.class, Object.class));
+        }
+        return handles;
+    }
+
+    private static MethodHandle findAccessor(Class<?> type, String name) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            if (type.isRecord()) {
+                for (RecordComponent component : type.getRecordComponents()) {
+                    if (component.getName().equals(name)) {
+                        Method accessor = component.getAccessor();
+                        accessor.setAccessible(true);
+                        return lookup.unreflect(accessor);
+                    }
+                }
+            }
+            String capitalized = StrUtil.upperFirst(name);
+            for (String getterName : new String[]{"get" + capitalized, "is" + capitalized}) {
+                Method getter = findGetter(type, getterName);
+                if (getter != null) {
+                    getter.setAccessible(true);
+                    return lookup.unreflect(getter);
+                }
+            }
+            for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+                for (Field field : clazz.getDeclaredFields()) {
+                    if (field.getName().equals(name) && !Modifier.isStatic(field.getModifiers())) {
+                        field.setAccessible(true);
+                        return lookup.unreflectGetter(field);
+                    }
+                }
+            }
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new RpcException("无法访问哈希键属性：" + type.getName() + "." + name, e);
+        }
+        return null;
+    }
+
+    private static Method findGetter(Class<?> type, String getterName) {
+        try {
+            Method getter = type.getMethod(getterName);
+            return getter.getReturnType() == void.class ? null : getter;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ming.rpc.proxy;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ming.rpc.fault.breaker.CircuitBreakerRegistry;
+import com.ming.rpc.loadbalancer.NodeStatsRegistry;
+import com.ming.rpc.model.ServiceMetaInfo;
+
+/**
+ * 服务节点变化跟踪（消费端使用）
+ * 对比每次服务发现的结果，节点下线后清理它的熔断器和调用统计，避免注册表随节点变更无限增长
+ */
+class ServiceNodeTracker {
+
+    /**
+     * 上一次发现的节点：服务键名 => 节点快照
+     */
+    private static final Map<String, Snapshot> SNAPSHOTS = new ConcurrentHashMap<>();
+
+    /**
+     * 记录服务发现结果，清理已下线节点的状态
+     * @param serviceKey 服务键名
+     * @param serviceMetaInfoList 本次发现的节点
+     */
+    static void onDiscovered(String serviceKey, List<ServiceMetaInfo> serviceMetaInfoList) {
+        Snapshot previous = SNAPSHOTS.get(serviceKey);
+        //注册中心命中缓存时返回同一个列表，节点没有变化，不再比较
+        if (previous != null && previous.serviceMetaInfoList == serviceMetaInfoList) {
+            return;
+        }
+        Snapshot current = new Snapshot(serviceMetaInfoList);
+        previous = SNAPSHOTS.put(serviceKey, current);
+        if (previous == null) {
+            return;
+        }
+        for (String serviceNodeKey : previous.serviceNodeKeys) {
+            if (!current.serviceNodeKeys.contains(serviceNodeKey)) {
+                CircuitBreakerRegistry.remove(serviceNodeKey);
+                NodeStatsRegistry.remove(serviceNodeKey);
+            }
+        }
+    }
+
+    /**
+     * 清空跟踪记录
+     */
+    static void clear() {
+        SNAPSHOTS.clear();
+    }
+
+    private ServiceNodeTracker() {
+    }
+
+    private static final class Snapshot {
+
+        private final List<ServiceMetaInfo> serviceMetaInfoList;
+
+        private final Set<String> serviceNodeKeys;
+
+        private Snapshot(List<ServiceMetaInfo> serviceMetaInfoList) {
+            this.serviceMetaInfoList = serviceMetaInfoList;
+            this.serviceNodeKeys = new HashSet<>(serviceMetaInfoList.size() * 2);
+            for (ServiceMetaInfo serviceMetaInfo : serviceMetaInfoList) {
+                serviceNodeKeys.add(serviceMetaInfo.getServiceNodeKey());
+            }
+        }
+    }
+}
@@ -3,19 +3,42 @@ package com.ming.rpc.proxy;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.InvocationHandler;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import com.ming.rpc.RpcApplication;
+import com.ming.rpc.config.BulkheadConfig;
+import com.ming.rpc.config.CircuitBreakerConfig;
+import com.ming.rpc.config.HedgeConfig;
 import com.ming.rpc.config.RpcConfig;
 import com.ming.rpc.constant.RpcConstant;
+import com.ming.rpc.exception.RpcBulkheadException;
+import com.ming.rpc.exception.RpcCircuitBreakerException;
+import com.ming.rpc.exception.RpcException;
+import com.ming.rpc.exception.RpcTimeoutException;
+import com.ming.rpc.fault.breaker.CircuitBreaker;
+import com.ming.rpc.fault.breaker.CircuitBreakerRegistry;
+import com.ming.rpc.fault.bulkhead.Bulkhead;
+import com.ming.rpc.fault.bulkhead.BulkheadRegistry;
+import com.ming.rpc.fault.hedge.HedgedInvoker;
+import com.ming.rpc.fault.retry.RetryBudget;
 import com.ming.rpc.fault.retry.RetryStrategy;
 import com.ming.rpc.fault.retry.RetryStrategyFactory;
+import com.ming.rpc.fault.tolerant.FailOverTolerantStrategy;
+import com.ming.rpc.fault.tolerant.TolerantContextKeys;
 import com.ming.rpc.fault.tolerant.TolerantStrategy;
 import com.ming.rpc.fault.tolerant.TolerantStrategyFactory;
 import com.ming.rpc.loadbalancer.LoadBalancer;
 import com.ming.rpc.loadbalancer.LoadBalancerFactory;
+import com.ming.rpc.loadbalancer.NodeStatsRegistry;
 import com.ming.rpc.model.ServiceMetaInfo;
 import com.ming.rpc.model.RpcRequest;
 import com.ming.rpc.model.RpcResponse;
@@ -24,6 +47,7 @@ import com.ming.rpc.registry.RegistryFactory;
 import com.ming.rpc.serializer.Serializer;
 import com.ming.rpc.serializer.SerializerFactory;
 import com.ming.rpc.server.tcp.VertexTcpClient;
+import com.ming.rpc.utils.DeadlineContext;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.http.HttpRequest;
@@ -31,9 +55,47 @@ import cn.hutool.http.HttpResponse;
 
 /**
  * 服务代理（JDK动态代理）
- * 
+ * 返回值为 CompletableFuture 的方法走全异步调用，其余方法同步等待结果
  */
 public class ServiceProxy implements InvocationHandler {
+
+    /**
+     * 引用级别的调用超时（毫秒），-1 表示使用全局配置
+     */
+    private final long timeoutMillis;
+
+    /**
+     * 引用级别的服务最大并发调用数，-1 表示使用全局配置
+     */
+    private final int maxConcurrentCalls;
+
+    /**
+     * 引用级别的方法最大并发调用数，-1 表示使用全局配置
+     */
+    private final int methodMaxConcurrentCalls;
+
+    public ServiceProxy() {
+        this(-1);
+    }
+
+    /**
+     * @param timeoutMillis 引用级别的调用超时（毫秒），0 表示不限，-1 表示使用全局配置
+     */
+    public ServiceProxy(long timeoutMillis) {
+        this(timeoutMillis, -1, -1);
+    }
+
+    /**
+     * @param timeoutMillis 引用级别的调用超时（毫秒），0 表示不限，-1 表示使用全局配置
+     * @param maxConcurrentCalls 引用级别的服务最大并发调用数，0 表示不限，-1 表示使用全局配置
+     * @param methodMaxConcurrentCalls 引用级别的方法最大并发调用数，0 表示不限，-1 表示使用全局配置
+     */
+    public ServiceProxy(long timeoutMillis, int maxConcurrentCalls, int methodMaxConcurrentCalls) {
+        this.timeoutMillis = timeoutMillis;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.methodMaxConcurrentCalls = methodMaxConcurrentCalls;
+    }
+
     /*
      * 调用代理
      * @return
@@ -41,6 +103,7 @@ public class ServiceProxy implements InvocationHandler {
      */
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        MethodMetadata methodMetadata = MethodMetadata.of(method);
         // 构造请求
         String serviceName = method.getDeclaringClass().getName();
         RpcRequest rpcRequest = RpcRequest.builder()
@@ -48,6 +111,7 @@ public class ServiceProxy implements InvocationHandler {
             .methodName(method.getName())
             .parameterTypes(method.getParameterTypes())
             .args(args)
+            .methodId(methodMetadata.getMethodId())
             .build();
 
         // 从注册中心获取服务提供者请求地址
@@ -60,13 +124,25 @@ public class ServiceProxy implements InvocationHandler {
         if (CollUtil.isEmpty(serviceMetaInfoList)) {
             throw new RuntimeException("No service provider found");
         }
+        //节点下线后清理它的熔断器和调用统计
+        ServiceNodeTracker.onDiscovered(serviceMetaInfo.getServiceKey(), serviceMetaInfoList);
 
         // 负载均衡
         LoadBalancer loadBalancer = LoadBalancerFactory.getInstance(rpcConfig.getLoadBalancer());
-        //将调用方法名（请求路径）作为负载均衡参数
+        //将调用方法名（请求路径）和路由哈希值作为负载均衡参数，哈希值按 @HashKey 指定的参数计算
         Map<String,Object> requestParams = new HashMap<>();
-        requestParams.put("methodName", rpcRequest.getMethodName());
-        ServiceMetaInfo selectedServiceMetaInfo = loadBalancer.select(requestParams, serviceMetaInfoList);
+        requestParams.put(RpcConstant.LOAD_BALANCE_METHOD_NAME, rpcRequest.getMethodName());
+        requestParams.put(RpcConstant.LOAD_BALANCE_HASH, methodMetadata.routeHash(args));
+        //剔除心跳超时的节点和已熔断的节点，全部熔断时快速失败，不再发出请求
+        List<ServiceMetaInfo> candidates = NodeStatsRegistry.filterHealthy(serviceMetaInfoList);
+        CircuitBreakerConfig circuitBreakerConfig = rpcConfig.getCircuitBreakerConfig();
+        if (circuitBreakerConfig.isEnabled()) {
+            candidates = CircuitBreakerRegistry.filterAvailable(candidates);
+            if (candidates.isEmpty()) {
+                throw new RpcCircuitBreakerException("服务的所有节点均已熔断：" + serviceMetaInfo.getServiceKey());
+            }
+        }
+        ServiceMetaInfo selectedServiceMetaInfo = loadBalancer.select(requestParams, candidates);
 //            // http 请求
 //            // 指定序列化器
 //            Serializer serializer = SerializerFactory.getInstance(RpcApplication.getRpcConfig().getSerializer());
@@ -75,18 +151,132 @@ public class ServiceProxy implements InvocationHandler {
         // rpc 请求
         // 使用重试机制
 
-        RpcResponse rpcResponse ;
+        //超时优先级：方法/接口注解 > 引用 > 全局配置；在提供者内部发起的调用不超过上游剩余时间
+        long timeout = DeadlineContext.narrow(methodMetadata.resolveTimeout(
+                timeoutMillis >= 0 ? timeoutMillis : rpcConfig.getRequestTimeout()));
+        if (timeout < 0) {
+            throw new RpcTimeoutException("上游调用已超时，放弃调用：" + serviceName + "#" + method.getName());
+        }
+        RetryStrategy retryStrategy = RetryStrategyFactory.getInstance(rpcConfig.getRetryStrategy());
+        TolerantStrategy tolerantStrategy = TolerantStrategyFactory.getInstance(rpcConfig.getTolerantStrategy());
+        Supplier<CompletableFuture<RpcResponse>> call = nodeCall(rpcRequest, selectedServiceMetaInfo, timeout, circuitBreakerConfig.isEnabled());
+        //幂等方法：首个请求迟迟不响应时向另一个节点发送对冲请求
+        HedgeConfig hedgeConfig = rpcConfig.getHedgeConfig();
+        if (methodMetadata.isIdempotent() && hedgeConfig.isEnabled() && candidates.size() > 1) {
+            List<ServiceMetaInfo> others = new ArrayList<>(candidates);
+            others.remove(selectedServiceMetaInfo);
+            Supplier<CompletableFuture<RpcResponse>> primary = call;
+            Supplier<CompletableFuture<RpcResponse>> backup = () -> nodeCall(rpcRequest,
+                    loadBalancer.select(requestParams, others), timeout, circuitBreakerConfig.isEnabled()).get();
+            RetryBudget hedgeBudget = HedgedInvoker.budget(serviceMetaInfo.getServiceKey(), hedgeConfig);
+            call = () -> HedgedInvoker.invoke(primary, backup, methodMetadata.getLatencyHistogram(), hedgeConfig, hedgeBudget);
+        }
+        //容错上下文只在调用失败时构造
+        List<ServiceMetaInfo> tolerantCandidates = candidates;
+        Function<Exception, CompletableFuture<RpcResponse>> tolerant = e -> tolerantStrategy.doTolerantAsync(
+                tolerantContext(rpcRequest, tolerantCandidates, selectedServiceMetaInfo, loadBalancer,
+                        requestParams, timeout, circuitBreakerConfig.isEnabled()), e);
+
+        //舱壁隔离：服务或方法的在途调用数达到上限时不发出请求，名额在整个调用（含重试和容错）结束后归还
+        BulkheadConfig bulkheadConfig = rpcConfig.getBulkheadConfig();
+        Bulkhead serviceBulkhead = BulkheadRegistry.forService(serviceMetaInfo.getServiceKey(),
+                maxConcurrentCalls >= 0 ? maxConcurrentCalls : bulkheadConfig.getMaxConcurrentCalls());
+        Bulkhead methodBulkhead = BulkheadRegistry.forMethod(method,
+                methodMaxConcurrentCalls >= 0 ? methodMaxConcurrentCalls : bulkheadConfig.getMethodMaxConcurrentCalls());
+        CompletableFuture<RpcResponse> responseFuture;
+        if (!serviceBulkhead.tryAcquire()) {
+            responseFuture = rejected(serviceBulkhead, bulkheadConfig, tolerant);
+        } else if (!methodBulkhead.tryAcquire()) {
+            serviceBulkhead.release();
+            responseFuture = rejected(methodBulkhead, bulkheadConfig, tolerant);
+        } else {
+            try {
+                responseFuture = retryStrategy
+                        .doRetryAsync(call, RetryBudget.of(serviceMetaInfo.getServiceKey()))
+                        // 容错机制
+                        .exceptionallyCompose(e -> tolerant.apply(toException(unwrap(e))))
+                        .whenComplete((response, e) -> {
+                            methodBulkhead.release();
+                            serviceBulkhead.release();
+                        });
+            } catch (RuntimeException e) {
+                methodBulkhead.release();
+                serviceBulkhead.release();
+                throw e;
+            }
+        }
+
+        // 异步接口直接返回 Future，由 Vert.x 事件循环线程完成，不阻塞调用线程；提供者返回的异常使 Future 异常完成
+        if (methodMetadata.isAsync()) {
+            return responseFuture.thenCompose(response -> response.getException() != null
+                    ? CompletableFuture.failedFuture(response.getException())
+                    : CompletableFuture.completedFuture(response.getData()));
+        }
         try {
-            RetryStrategy retryStrategy = RetryStrategyFactory.getInstance(rpcConfig.getRetryStrategy());
-            rpcResponse = retryStrategy.doRetry(() ->
-                    VertexTcpClient.doRequest(rpcRequest, selectedServiceMetaInfo)
-            );
-        } catch (Exception e) {
-            // 容错机制
-            TolerantStrategy tolerantStrategy = TolerantStrategyFactory.getInstance(rpcConfig.getTolerantStrategy());
-            rpcResponse = tolerantStrategy.doTolerant(null, e);
+            return responseFuture.get().getData();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * 向指定节点发起一次调用，开启熔断时经过该节点的熔断器
+     */
+    private static Supplier<CompletableFuture<RpcResponse>> nodeCall(RpcRequest rpcRequest, ServiceMetaInfo node,
+                                                                     long timeout, boolean circuitBreakerEnabled) {
+        Supplier<CompletableFuture<RpcResponse>> transport = () -> VertexTcpClient.doRequestAsync(rpcRequest, node, timeout);
+        if (!circuitBreakerEnabled) {
+            return transport;
         }
-        return rpcResponse.getData();
+        CircuitBreaker circuitBreaker = CircuitBreakerRegistry.get(node);
+        return () -> circuitBreaker.execute(transport);
+    }
+
+    /**
+     * 舱壁已满时的处理：按配置交给容错策略或直接失败
+     */
+    private static CompletableFuture<RpcResponse> rejected(Bulkhead bulkhead, BulkheadConfig bulkheadConfig,
+                                                           Function<Exception, CompletableFuture<RpcResponse>> tolerant) {
+        RpcBulkheadException e = new RpcBulkheadException("并发调用数已达上限（" + bulkhead.getMaxConcurrentCalls() + "）：" + bulkhead.getName());
+        return bulkheadConfig.isFallbackOnRejection() ? tolerant.apply(e) : CompletableFuture.failedFuture(e);
+    }
+
+    /**
+     * 构造容错上下文，故障转移时对其他节点的调用与首次调用走同样的超时和熔断
+     */
+    private static Map<String, Object> tolerantContext(RpcRequest rpcRequest, List<ServiceMetaInfo> candidates,
+                                                       ServiceMetaInfo selectedServiceMetaInfo, LoadBalancer loadBalancer,
+                                                       Map<String, Object> requestParams, long timeout,
+                                                       boolean circuitBreakerEnabled) {
+        FailOverTolerantStrategy.AsyncRetryer asyncRetryer = (request, node) ->
+                nodeCall(request, node, timeout, circuitBreakerEnabled).get();
+        Map<String, Object> context = new HashMap<>();
+        context.put(TolerantContextKeys.RPC_REQUEST, rpcRequest);
+        context.put(TolerantContextKeys.SERVICE_NODE_LIST, candidates);
+        context.put(TolerantContextKeys.SELECTED_NODE, selectedServiceMetaInfo);
+        context.put(TolerantContextKeys.LOAD_BALANCER, loadBalancer);
+        context.put(TolerantContextKeys.REQUEST_PARAMS, requestParams);
+        context.put(TolerantContextKeys.ASYNC_RETRYER, asyncRetryer);
+        context.put(TolerantContextKeys.RETRYER,
+                (FailOverTolerantStrategy.Retryer) (request, node) -> asyncRetryer.doRetryAsync(request, node).join());
+        context.put(TolerantContextKeys.RETRIED_COUNT, new AtomicInteger(0));
+        return context;
+    }
+
+    /**
+     * 剥离 Future 包装的异常，取出真实原因
+     * @param e 异常
+     * @return 真实异常
+     */
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    private static Exception toException(Throwable e) {
+        return e instanceof Exception ? (Exception) e : new RpcException("服务调用失败", e);
     }
     
 
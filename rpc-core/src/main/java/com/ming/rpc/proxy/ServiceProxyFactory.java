@@ -17,6 +17,30 @@ public class ServiceProxyFactory {
      * @return
      */
     public static <T> T getProxy(Class<T> serviceClass) {
+      return getProxy(serviceClass, -1);
+    }
+
+    /**
+     * 获取指定调用超时的服务代理对象
+     * @param serviceClass
+     * @param timeoutMillis 调用超时（毫秒），0 表示不限，-1 表示使用全局配置；方法上的 @RpcTimeout 优先
+     * @param <T>
+     * @return
+     */
+    public static <T> T getProxy(Class<T> serviceClass, long timeoutMillis) {
+      return getProxy(serviceClass, timeoutMillis, -1, -1);
+    }
+
+    /**
+     * 获取指定调用超时和并发上限的服务代理对象
+     * @param serviceClass
+     * @param timeoutMillis 调用超时（毫秒），0 表示不限，-1 表示使用全局配置；方法上的 @RpcTimeout 优先
+     * @param maxConcurrentCalls 服务最大并发调用数，0 表示不限，-1 表示使用全局配置
+     * @param methodMaxConcurrentCalls 每个方法最大并发调用数，0 表示不限，-1 表示使用全局配置
+     * @param <T>
+     * @return
+     */
+    public static <T> T getProxy(Class<T> serviceClass, long timeoutMillis, int maxConcurrentCalls, int methodMaxConcurrentCalls) {
       if (RpcApplication.getRpcConfig().isMock()) {
         return getMockProxy(serviceClass);
       }
@@ -24,7 +48,7 @@ public class ServiceProxyFactory {
       return (T) Proxy.newProxyInstance(
         serviceClass.getClassLoader(),
         new Class[] { serviceClass },
-        new ServiceProxy()
+        new ServiceProxy(timeoutMillis, maxConcurrentCalls, methodMaxConcurrentCalls)
       );
     }
     /**
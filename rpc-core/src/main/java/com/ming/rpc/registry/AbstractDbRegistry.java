@@ -1,6 +1,7 @@
 package com.ming.rpc.registry;
 
 import com.ming.rpc.config.RegistryConfig;
+import com.ming.rpc.constant.RpcConstant;
 import com.ming.rpc.model.ServiceMetaInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -81,6 +82,9 @@ public abstract class AbstractDbRegistry implements Registry {
                 serviceMetaInfo.setServiceHost(rs.getString("serviceHost"));
                 serviceMetaInfo.setServicePort(rs.getInt("servicePort"));
                 serviceMetaInfo.setServiceGroup(rs.getString("serviceGroup"));
+                serviceMetaInfo.setWeight(rs.getInt("weight"));
+                serviceMetaInfo.setStartTime(rs.getLong("startTime"));
+                serviceMetaInfo.setWarmup(rs.getInt("warmup"));
                 serviceMetaInfoList.add(serviceMetaInfo);
             }
         } catch (SQLException e) {
@@ -119,12 +123,34 @@ public abstract class AbstractDbRegistry implements Registry {
         String sql = getCreateTableSql();
         try (Statement stmt = connection.createStatement()) {
             stmt.execute(sql);
+            //旧版本创建的表缺少这些列，启动时补上
+            addColumnIfMissing(stmt, "weight", "INT NOT NULL DEFAULT " + RpcConstant.DEFAULT_SERVICE_WEIGHT);
+            addColumnIfMissing(stmt, "startTime", "BIGINT NOT NULL DEFAULT 0");
+            addColumnIfMissing(stmt, "warmup", "INT NOT NULL DEFAULT 0");
         } catch (SQLException e) {
             LOGGER.error("Failed to create table for registry", e);
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * 列不存在时添加（不同数据库对未加引号标识符的大小写处理不同，两种都查）
+     */
+    private void addColumnIfMissing(Statement stmt, String column, String definition) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (String table : new String[]{DB_TABLE_NAME, DB_TABLE_NAME.toUpperCase()}) {
+            for (String name : new String[]{column, column.toLowerCase(), column.toUpperCase()}) {
+                try (ResultSet rs = metaData.getColumns(null, null, table, name)) {
+                    if (rs.next()) {
+                        return;
+                    }
+                }
+            }
+        }
+        stmt.execute("ALTER TABLE " + DB_TABLE_NAME + " ADD COLUMN " + column + " " + definition);
+        LOGGER.info("Added {} column to table {}", column, DB_TABLE_NAME);
+    }
+
     private void startHeartbeatCleanupTask() {
         heartbeatExecutor.scheduleWithFixedDelay(() -> {
             try {
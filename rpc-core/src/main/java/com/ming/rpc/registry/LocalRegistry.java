@@ -4,6 +4,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.ming.rpc.server.invoker.ServiceInvokerRegistry;
+
 /**
  * 本地注册中心
  */
@@ -22,6 +24,8 @@ public class LocalRegistry {
      */
     public  static void register(String serviceName,Class<?> implClass){
         map.put(serviceName, implClass);
+        // 实现类可能变化，让已缓存的调用器失效
+        ServiceInvokerRegistry.remove(serviceName);
     }
 
     /**
@@ -39,6 +43,7 @@ public class LocalRegistry {
      */
     public static void remove(String serviceName){
         map.remove(serviceName);
+        ServiceInvokerRegistry.remove(serviceName);
     }
 
     /**
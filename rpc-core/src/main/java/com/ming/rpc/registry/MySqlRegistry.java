@@ -16,6 +16,9 @@ public class MySqlRegistry extends AbstractDbRegistry {
                 "serviceHost VARCHAR(255) NOT NULL," +
                 "servicePort INT NOT NULL," +
                 "serviceGroup VARCHAR(255) NOT NULL," +
+                "weight INT NOT NULL DEFAULT 100," +
+                "startTime BIGINT NOT NULL DEFAULT 0," +
+                "warmup INT NOT NULL DEFAULT 0," +
                 "createTime TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
                 "updateTime TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP," +
                 "UNIQUE KEY unique_service (serviceName, serviceVersion, serviceHost, servicePort)" +
@@ -24,7 +27,7 @@ public class MySqlRegistry extends AbstractDbRegistry {
 
     @Override
     protected String getRegisterSql() {
-        return "INSERT INTO " + DB_TABLE_NAME + " (serviceName, serviceVersion, serviceHost, servicePort, serviceGroup) VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE updateTime = CURRENT_TIMESTAMP";
+        return "INSERT INTO " + DB_TABLE_NAME + " (serviceName, serviceVersion, serviceHost, servicePort, serviceGroup, weight, startTime, warmup) VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE weight = VALUES(weight), startTime = VALUES(startTime), warmup = VALUES(warmup), updateTime = CURRENT_TIMESTAMP";
     }
 
     @Override
@@ -34,7 +37,7 @@ public class MySqlRegistry extends AbstractDbRegistry {
 
     @Override
     protected String getDiscoverySql() {
-        return "SELECT serviceName, serviceVersion, serviceHost, servicePort, serviceGroup FROM " + DB_TABLE_NAME + " WHERE serviceName = ?";
+        return "SELECT serviceName, serviceVersion, serviceHost, servicePort, serviceGroup, weight, startTime, warmup FROM " + DB_TABLE_NAME + " WHERE serviceName = ?";
     }
 
     @Override
@@ -49,5 +52,8 @@ public class MySqlRegistry extends AbstractDbRegistry {
         ps.setString(3, serviceMetaInfo.getServiceHost());
         ps.setInt(4, serviceMetaInfo.getServicePort());
         ps.setString(5, serviceMetaInfo.getServiceGroup());
+        ps.setInt(6, serviceMetaInfo.getWeight());
+        ps.setLong(7, serviceMetaInfo.getStartTime());
+        ps.setInt(8, serviceMetaInfo.getWarmup());
     }
 } 
\ No newline at end of file
@@ -42,6 +42,7 @@ public class NacosRegistry implements Registry {
             instance.setIp(serviceMetaInfo.getServiceHost());
             instance.setPort(serviceMetaInfo.getServicePort());
             instance.setClusterName("DEFAULT"); // Or from config
+            instance.setWeight(serviceMetaInfo.getWeight());
             Map<String, String> metadata = new HashMap<>();
             metadata.put("serviceMetaInfo", new String(serializer.serialize(serviceMetaInfo)));
             instance.setMetadata(metadata);
@@ -77,7 +78,10 @@ public class NacosRegistry implements Registry {
                     .map(instance -> {
                         try {
                             String serviceMetaInfoJson = instance.getMetadata().get("serviceMetaInfo");
-                            return serializer.deserialize(serviceMetaInfoJson.getBytes(), ServiceMetaInfo.class);
+                            ServiceMetaInfo serviceMetaInfo = serializer.deserialize(serviceMetaInfoJson.getBytes(), ServiceMetaInfo.class);
+                            // 以 Nacos 实例权重为准，便于在控制台上直接调整
+                            serviceMetaInfo.setWeight((int) Math.round(instance.getWeight()));
+                            return serviceMetaInfo;
                         } catch (IOException e) {
                             throw new RuntimeException(e);
                         }
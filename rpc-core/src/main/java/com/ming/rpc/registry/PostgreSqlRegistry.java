@@ -16,6 +16,9 @@ public class PostgreSqlRegistry extends AbstractDbRegistry {
                 "serviceHost VARCHAR(255) NOT NULL," +
                 "servicePort INT NOT NULL," +
                 "serviceGroup VARCHAR(255) NOT NULL," +
+                "weight INT NOT NULL DEFAULT 100," +
+                "startTime BIGINT NOT NULL DEFAULT 0," +
+                "warmup INT NOT NULL DEFAULT 0," +
                 "createTime TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP," +
                 "updateTime TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP," +
                 "CONSTRAINT unique_service UNIQUE (serviceName, serviceVersion, serviceHost, servicePort)" +
@@ -24,8 +27,8 @@ public class PostgreSqlRegistry extends AbstractDbRegistry {
 
     @Override
     protected String getRegisterSql() {
-        return "INSERT INTO " + DB_TABLE_NAME + " (serviceName, serviceVersion, serviceHost, servicePort, serviceGroup, updateTime) VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP) " +
-                "ON CONFLICT (serviceName, serviceVersion, serviceHost, servicePort) DO UPDATE SET updateTime = CURRENT_TIMESTAMP";
+        return "INSERT INTO " + DB_TABLE_NAME + " (serviceName, serviceVersion, serviceHost, servicePort, serviceGroup, weight, startTime, warmup, updateTime) VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP) " +
+                "ON CONFLICT (serviceName, serviceVersion, serviceHost, servicePort) DO UPDATE SET weight = EXCLUDED.weight, startTime = EXCLUDED.startTime, warmup = EXCLUDED.warmup, updateTime = CURRENT_TIMESTAMP";
     }
 
     @Override
@@ -35,7 +38,7 @@ public class PostgreSqlRegistry extends AbstractDbRegistry {
 
     @Override
     protected String getDiscoverySql() {
-        return "SELECT serviceName, serviceVersion, serviceHost, servicePort, serviceGroup FROM " + DB_TABLE_NAME + " WHERE serviceName = ?";
+        return "SELECT serviceName, serviceVersion, serviceHost, servicePort, serviceGroup, weight, startTime, warmup FROM " + DB_TABLE_NAME + " WHERE serviceName = ?";
     }
 
     @Override
@@ -50,5 +53,8 @@ public class PostgreSqlRegistry extends AbstractDbRegistry {
         ps.setString(3, serviceMetaInfo.getServiceHost());
         ps.setInt(4, serviceMetaInfo.getServicePort());
         ps.setString(5, serviceMetaInfo.getServiceGroup());
+        ps.setInt(6, serviceMetaInfo.getWeight());
+        ps.setLong(7, serviceMetaInfo.getStartTime());
+        ps.setInt(8, serviceMetaInfo.getWarmup());
     }
 } 
\ No newline at end of file
@@ -16,6 +16,9 @@ public class SqliteRegistry extends AbstractDbRegistry {
                 "serviceHost TEXT NOT NULL," +
                 "servicePort INTEGER NOT NULL," +
                 "serviceGroup TEXT NOT NULL," +
+                "weight INTEGER NOT NULL DEFAULT 100," +
+                "startTime INTEGER NOT NULL DEFAULT 0," +
+                "warmup INTEGER NOT NULL DEFAULT 0," +
                 "createTime TEXT DEFAULT (datetime('now','localtime'))," +
                 "updateTime TEXT DEFAULT (datetime('now','localtime'))," +
                 "UNIQUE(serviceName, serviceVersion, serviceHost, servicePort)" +
@@ -25,8 +28,8 @@ public class SqliteRegistry extends AbstractDbRegistry {
     @Override
     protected String getRegisterSql() {
         return "INSERT OR REPLACE INTO " + DB_TABLE_NAME + 
-               " (serviceName, serviceVersion, serviceHost, servicePort, serviceGroup, updateTime) " +
-               "VALUES (?, ?, ?, ?, ?, datetime('now','localtime'))";
+               " (serviceName, serviceVersion, serviceHost, servicePort, serviceGroup, weight, startTime, warmup, updateTime) " +
+               "VALUES (?, ?, ?, ?, ?, ?, ?, ?, datetime('now','localtime'))";
     }
 
     @Override
@@ -36,7 +39,7 @@ public class SqliteRegistry extends AbstractDbRegistry {
 
     @Override
     protected String getDiscoverySql() {
-        return "SELECT serviceName, serviceVersion, serviceHost, servicePort, serviceGroup FROM " + DB_TABLE_NAME + " WHERE serviceName = ?";
+        return "SELECT serviceName, serviceVersion, serviceHost, servicePort, serviceGroup, weight, startTime, warmup FROM " + DB_TABLE_NAME + " WHERE serviceName = ?";
     }
 
     @Override
@@ -51,5 +54,8 @@ public class SqliteRegistry extends AbstractDbRegistry {
         ps.setString(3, serviceMetaInfo.getServiceHost());
         ps.setInt(4, serviceMetaInfo.getServicePort());
         ps.setString(5, serviceMetaInfo.getServiceGroup());
+        ps.setInt(6, serviceMetaInfo.getWeight());
+        ps.setLong(7, serviceMetaInfo.getStartTime());
+        ps.setInt(8, serviceMetaInfo.getWarmup());
     }
 } 
\ No newline at end of file
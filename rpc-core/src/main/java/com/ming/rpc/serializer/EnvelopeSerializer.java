@@ -0,0 +1,437 @@
+package com.ming.rpc.serializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ming.rpc.RpcApplication;
+import com.ming.rpc.exception.RpcException;
+import com.ming.rpc.model.RpcRequest;
+import com.ming.rpc.model.RpcResponse;
+import com.ming.rpc.protocol.MethodIdRegistry;
+
+import cn.hutool.core.util.ClassUtil;
+
+/**
+ * RPC 信封序列化器
+ * RpcRequest / RpcResponse 的固定字段按手写的二进制格式直接读写，不再作为通用对象图处理；
+ * 字符串、整数等常见值内联编码，其余参数和返回值交给可插拔的值序列化器（默认 Kryo）；
+ * 异常只传类名和消息，不对提供者传来的字节做 Java 原生反序列化
+ */
+public class EnvelopeSerializer implements Serializer {
+
+    /**
+     * 格式版本，字段有变化时递增
+     */
+    private static final byte FORMAT_VERSION = 2;
+
+    /**
+     * Java 方法最多 255 个参数，超过时必然是损坏或伪造的数据
+     */
+    private static final int MAX_PARAMETER_COUNT = 255;
+
+    /**
+     * 值类型标记
+     */
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_BOOLEAN = 4;
+    private static final byte TAG_DOUBLE = 5;
+    private static final byte TAG_BYTES = 6;
+    /**
+     * 运行时类型与声明类型一致，交给值序列化器，不写类名
+     */
+    private static final byte TAG_DECLARED = 10;
+    /**
+     * 运行时类型与声明类型不同，先写类名再交给值序列化器
+     */
+    private static final byte TAG_NAMED = 11;
+
+    /**
+     * 常用类直接写编号，不写类名，顺序决定编号，只能在末尾追加
+     */
+    private static final Class<?>[] WELL_KNOWN_CLASSES = {
+            Object.class, String.class, void.class,
+            int.class, long.class, boolean.class, double.class, float.class, short.class, byte.class, char.class,
+            Integer.class, Long.class, Boolean.class, Double.class, Float.class, Short.class, Byte.class, Character.class,
+            byte[].class, int[].class, long[].class, String[].class, Object[].class,
+            List.class, ArrayList.class, LinkedList.class, Map.class, HashMap.class, LinkedHashMap.class, TreeMap.class,
+            Set.class, HashSet.class, LinkedHashSet.class, TreeSet.class, Collection.class,
+            BigDecimal.class, BigInteger.class, Date.class, LocalDate.class, LocalDateTime.class, Optional.class,
+            CompletableFuture.class
+    };
+
+    private static final Map<Class<?>, Integer> WELL_KNOWN_INDEX = new HashMap<>();
+
+    static {
+        for (int i = 0; i < WELL_KNOWN_CLASSES.length; i++) {
+            WELL_KNOWN_INDEX.put(WELL_KNOWN_CLASSES[i], i);
+        }
+    }
+
+    /**
+     * 类名 => 类 缓存，避免每次调用都按名字加载
+     */
+    private static final Map<String, Class<?>> CLASS_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 值序列化器，为 null 时在首次使用时按全局配置获取
+     */
+    private volatile Serializer valueSerializer;
+
+    public EnvelopeSerializer() {
+    }
+
+    public EnvelopeSerializer(Serializer valueSerializer) {
+        this.valueSerializer = valueSerializer;
+    }
+
+    @Override
+    public <T> byte[] serialize(T object) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        serialize(object, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    @Override
+    public <T> T deserialize(byte[] bytes, Class<T> tClass) throws IOException {
+        return deserialize(new ByteArrayInputStream(bytes), tClass);
+    }
+
+    @Override
+    public <T> void serialize(T object, OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeByte(FORMAT_VERSION);
+        if (object instanceof RpcRequest rpcRequest) {
+            writeRequest(out, rpcRequest);
+        } else if (object instanceof RpcResponse rpcResponse) {
+            writeResponse(out, rpcResponse);
+        } else {
+            writeValue(out, object, object == null ? Object.class : object.getClass());
+        }
+        out.flush();
+    }
+
+    @Override
+    public <T> T deserialize(InputStream inputStream, Class<T> tClass) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        byte version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("不支持的信封格式版本：" + version);
+        }
+        if (tClass == RpcRequest.class) {
+            return tClass.cast(readRequest(in));
+        }
+        if (tClass == RpcResponse.class) {
+            return tClass.cast(readResponse(in));
+        }
+        return tClass.cast(readValue(in, tClass));
+    }
+
+    private void writeRequest(DataOutputStream out, RpcRequest rpcRequest) throws IOException {
+        writeString(out, rpcRequest.getServiceName());
+        writeString(out, rpcRequest.getServiceVersion());
+        writeString(out, rpcRequest.getMethodName());
+        out.writeInt(rpcRequest.getMethodId());
+        Class<?>[] parameterTypes = rpcRequest.getParameterTypes();
+        Object[] args = rpcRequest.getArgs();
+        writeLength(out, parameterTypes == null ? -1 : parameterTypes.length);
+        if (parameterTypes != null) {
+            for (Class<?> parameterType : parameterTypes) {
+                writeClass(out, parameterType);
+            }
+        } else if (MethodIdRegistry.isCompact(rpcRequest)) {
+            //只携带方法 id 时参数类型不上线路，按签名确定参数的声明类型
+            RpcRequest signature = MethodIdRegistry.lookup(rpcRequest.getMethodId());
+            parameterTypes = signature == null ? null : signature.getParameterTypes();
+        }
+        writeLength(out, args == null ? -1 : args.length);
+        if (args != null) {
+            for (int i = 0; i < args.length; i++) {
+                Class<?> declaredType = parameterTypes != null && i < parameterTypes.length ? parameterTypes[i] : Object.class;
+                writeValue(out, args[i], declaredType);
+            }
+        }
+    }
+
+    private RpcRequest readRequest(DataInputStream in) throws IOException {
+        RpcRequest rpcRequest = new RpcRequest();
+        rpcRequest.setServiceName(readString(in));
+        rpcRequest.setServiceVersion(readString(in));
+        rpcRequest.setMethodName(readString(in));
+        rpcRequest.setMethodId(in.readInt());
+        int parameterCount = readCount(in);
+        Class<?>[] parameterTypes = null;
+        if (parameterCount >= 0) {
+            parameterTypes = new Class<?>[parameterCount];
+            for (int i = 0; i < parameterCount; i++) {
+                parameterTypes[i] = readClass(in);
+            }
+        }
+        rpcRequest.setParameterTypes(parameterTypes);
+        if (MethodIdRegistry.isCompact(rpcRequest)) {
+            if (!MethodIdRegistry.resolve(rpcRequest)) {
+                throw new IOException("未知的方法 id：" + rpcRequest.getMethodId());
+            }
+            parameterTypes = rpcRequest.getParameterTypes();
+        }
+        int argCount = readCount(in);
+        if (argCount >= 0) {
+            Object[] args = new Object[argCount];
+            for (int i = 0; i < argCount; i++) {
+                Class<?> declaredType = parameterTypes != null && i < parameterTypes.length ? parameterTypes[i] : Object.class;
+                args[i] = readValue(in, declaredType);
+            }
+            rpcRequest.setArgs(args);
+        }
+        return rpcRequest;
+    }
+
+    private void writeResponse(DataOutputStream out, RpcResponse rpcResponse) throws IOException {
+        writeString(out, rpcResponse.getMessage());
+        RpcResponse.MessageType messageType = rpcResponse.getMessageType();
+        out.writeByte(messageType == null ? -1 : messageType.ordinal());
+        writeClass(out, rpcResponse.getDataType());
+        Class<?> declaredType = rpcResponse.getDataType() == null ? Object.class : rpcResponse.getDataType();
+        writeValue(out, rpcResponse.getData(), declaredType);
+        writeException(out, rpcResponse.getException());
+    }
+
+    private RpcResponse readResponse(DataInputStream in) throws IOException {
+        RpcResponse rpcResponse = new RpcResponse();
+        rpcResponse.setMessage(readString(in));
+        byte messageType = in.readByte();
+        rpcResponse.setMessageType(messageType < 0 ? null : RpcResponse.MessageType.values()[messageType]);
+        Class<?> dataType = readClass(in);
+        rpcResponse.setDataType(dataType);
+        rpcResponse.setData(readValue(in, dataType == null ? Object.class : dataType));
+        rpcResponse.setException(readException(in));
+        return rpcResponse;
+    }
+
+    /**
+     * 写入异常：只写类名和消息，null 时只写一个空类名
+     */
+    private static void writeException(DataOutputStream out, Exception exception) throws IOException {
+        if (exception == null) {
+            writeString(out, null);
+            return;
+        }
+        writeString(out, exception.getClass().getName());
+        writeString(out, exception.getMessage());
+    }
+
+    /**
+     * 按类名和消息还原异常：本地存在且带 (String) 构造器的 Exception 子类按原类型还原，
+     * 其余退化为 {@link RpcException}，不会实例化任意类型
+     */
+    private static Exception readException(DataInputStream in) throws IOException {
+        String className = readString(in);
+        if (className == null) {
+            return null;
+        }
+        String message = readString(in);
+        try {
+            Class<?> exceptionClass = ClassUtil.loadClass(className, false);
+            if (Exception.class.isAssignableFrom(exceptionClass)) {
+                return (Exception) exceptionClass.getConstructor(String.class).newInstance(message);
+            }
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            //本地没有该异常类或无法按消息构造，按通用异常处理
+        }
+        return new RpcException(message == null ? className : className + ": " + message);
+    }
+
+    /**
+     * 写入一个参数或返回值，常见类型内联编码，其余交给值序列化器
+     */
+    private void writeValue(DataOutputStream out, Object value, Class<?> declaredType) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof String s) {
+            out.writeByte(TAG_STRING);
+            writeString(out, s);
+        } else if (value instanceof Integer i) {
+            out.writeByte(TAG_INT);
+            out.writeInt(i);
+        } else if (value instanceof Long l) {
+            out.writeByte(TAG_LONG);
+            out.writeLong(l);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean(b);
+        } else if (value instanceof Double d) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof byte[] bytes) {
+            out.writeByte(TAG_BYTES);
+            writeBytes(out, bytes);
+        } else if (value.getClass() == declaredType) {
+            out.writeByte(TAG_DECLARED);
+            writeBytes(out, getValueSerializer().serialize(value));
+        } else {
+            out.writeByte(TAG_NAMED);
+            writeClass(out, value.getClass());
+            writeBytes(out, getValueSerializer().serialize(value));
+        }
+    }
+
+    private Object readValue(DataInputStream in, Class<?> declaredType) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return readString(in);
+            case TAG_INT:
+                return in.readInt();
+            case TAG_LONG:
+                return in.readLong();
+            case TAG_BOOLEAN:
+                return in.readBoolean();
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_BYTES:
+                return readBytes(in);
+            case TAG_DECLARED:
+                return getValueSerializer().deserialize(readBytes(in), declaredType);
+            case TAG_NAMED:
+                Class<?> valueType = readClass(in);
+                return getValueSerializer().deserialize(readBytes(in), valueType);
+            default:
+                throw new IOException("未知的值类型标记：" + tag);
+        }
+    }
+
+    /**
+     * 写入类：-1 表示 null，常用类写编号，其余写编号上限后跟类名
+     */
+    private void writeClass(DataOutputStream out, Class<?> clazz) throws IOException {
+        if (clazz == null) {
+            writeLength(out, -1);
+            return;
+        }
+        Integer index = WELL_KNOWN_INDEX.get(clazz);
+        if (index != null) {
+            writeLength(out, index);
+            return;
+        }
+        writeLength(out, WELL_KNOWN_CLASSES.length);
+        writeString(out, clazz.getName());
+    }
+
+    private Class<?> readClass(DataInputStream in) throws IOException {
+        int index = readLength(in);
+        if (index < 0) {
+            return null;
+        }
+        if (index < WELL_KNOWN_CLASSES.length) {
+            return WELL_KNOWN_CLASSES[index];
+        }
+        String className = readString(in);
+        try {
+            return CLASS_CACHE.computeIfAbsent(className, name -> ClassUtil.loadClass(name, false));
+        } catch (RuntimeException e) {
+            throw new IOException("无法加载类：" + className, e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = readBytes(in);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        writeLength(out, bytes == null ? -1 : bytes.length);
+        if (bytes != null) {
+            out.write(bytes);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = readLength(in);
+        if (length < 0) {
+            return null;
+        }
+        //长度来自对端，不能直接按它分配内存：readNBytes 随读到的数据分块扩容，数据不足时按实际长度返回
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("数据长度不足：需要 " + length + " 字节，实际 " + bytes.length + " 字节");
+        }
+        return bytes;
+    }
+
+    /**
+     * 读取参数个数，-1 表示 null
+     */
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = readLength(in);
+        if (count > MAX_PARAMETER_COUNT) {
+            throw new IOException("非法的参数个数：" + count);
+        }
+        return count;
+    }
+
+    /**
+     * 写入长度，-1 表示 null；按 length + 1 的无符号变长整数编码，短字符串只占 1 字节
+     */
+    private static void writeLength(DataOutputStream out, int length) throws IOException {
+        int value = length + 1;
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value - 1;
+            }
+        }
+        throw new IOException("非法的长度编码");
+    }
+
+    private Serializer getValueSerializer() {
+        if (valueSerializer == null) {
+            valueSerializer = SerializerFactory.getInstance(RpcApplication.getRpcConfig().getEnvelopeValueSerializer());
+        }
+        return valueSerializer;
+    }
+}
@@ -3,6 +3,8 @@ package com.ming.rpc.serializer;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 import com.caucho.hessian.io.Hessian2Input;
 import com.caucho.hessian.io.Hessian2Output;
@@ -24,7 +26,19 @@ public class HessianSerializer implements Serializer {
     @Override
     @SuppressWarnings("unchecked")
     public <T> T deserialize(byte[] bytes, Class<T> classType) throws IOException {
-        ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes);
+        return deserialize(new ByteArrayInputStream(bytes), classType);
+    }
+
+    @Override
+    public <T> void serialize(T object, OutputStream outputStream) throws IOException {
+        Hessian2Output output = new Hessian2Output(outputStream);
+        output.writeObject(object);
+        output.flush();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T deserialize(InputStream inputStream, Class<T> classType) throws IOException {
         Hessian2Input input = new Hessian2Input(inputStream);
         return (T) input.readObject(classType);
     }
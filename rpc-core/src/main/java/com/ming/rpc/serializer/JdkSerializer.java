@@ -3,8 +3,10 @@ package com.ming.rpc.serializer;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 
 /**
  * JDK 序列化器
@@ -37,7 +39,18 @@ public class JdkSerializer implements Serializer {
      */
     @Override
     public <T> T deserialize(byte[] bytes, Class<T> tClass) throws IOException {
-        ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes);
+        return deserialize(new ByteArrayInputStream(bytes), tClass);
+    }
+
+    @Override
+    public <T> void serialize(T object, OutputStream outputStream) throws IOException {
+        ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+        objectOutputStream.writeObject(object);
+        objectOutputStream.flush();
+    }
+
+    @Override
+    public <T> T deserialize(InputStream inputStream, Class<T> tClass) throws IOException {
         ObjectInputStream objectInputStream = new ObjectInputStream(inputStream);
         try {
             Object obj = objectInputStream.readObject();
@@ -4,8 +4,11 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ming.rpc.model.RpcRequest;
 import com.ming.rpc.model.RpcResponse;
+import com.ming.rpc.protocol.MethodIdRegistry;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * Json 序列化器
@@ -30,7 +33,23 @@ public class JsonSerializer implements Serializer {
 
     @Override
     public <T> T deserialize(byte[] bytes, Class<T> classType) throws IOException {
-        T  obj = OBJECT_MAPPER.readValue(bytes , classType);
+        return handleTypes(OBJECT_MAPPER.readValue(bytes , classType), classType);
+    }
+
+    @Override
+    public <T> void serialize(T object, OutputStream outputStream) throws IOException {
+        OBJECT_MAPPER.writeValue(outputStream, object);
+    }
+
+    @Override
+    public <T> T deserialize(InputStream inputStream, Class<T> classType) throws IOException {
+        return handleTypes(OBJECT_MAPPER.readValue(inputStream, classType), classType);
+    }
+
+    /**
+     * 按声明类型还原请求参数和响应数据
+     */
+    private <T> T handleTypes(T obj, Class<T> classType) throws IOException {
         if(obj instanceof RpcRequest) {
             return handleReqest((RpcRequest) obj, classType);
         }
@@ -50,11 +69,19 @@ public class JsonSerializer implements Serializer {
      * @throws IOException  IO异常
      */
     private <T> T handleReqest(RpcRequest rpcRequest, Class<T> type) throws IOException {
+        // 只携带方法 id 的请求先按 id 还原参数类型
+        MethodIdRegistry.resolve(rpcRequest);
         Class<?>[] parameterTypes = rpcRequest.getParameterTypes();
         Object[] args = rpcRequest.getArgs();
+        if (parameterTypes == null || args == null) {
+            return type.cast(rpcRequest);
+        }
 
         // 循环处理每个参数的类型
         for (int i = 0; i < parameterTypes.length; i++) {
+            if (args[i] == null) {
+                continue;
+            }
             Class<?> clazz = parameterTypes[i];
             //如果类型不同，则重新处理一下类型
             if (!clazz.isAssignableFrom(args[i].getClass())) {
@@ -73,6 +100,10 @@ public class JsonSerializer implements Serializer {
      * @throws IOException  IO异常
      */
     private <T> T handleResponse(RpcResponse rpcResponse, Class<T> type) throws IOException {
+        // 没有数据（如调用失败）时无需还原类型
+        if (rpcResponse.getData() == null || rpcResponse.getDataType() == null) {
+            return type.cast(rpcResponse);
+        }
         byte[] dataBytes = OBJECT_MAPPER.writeValueAsBytes(rpcResponse.getData());
         rpcResponse.setData(OBJECT_MAPPER.readValue(dataBytes, rpcResponse.getDataType()));
         return type.cast(rpcResponse);
@@ -1,52 +1,262 @@
 package com.ming.rpc.serializer;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.util.Pool;
+import com.ming.rpc.RpcApplication;
+import com.ming.rpc.config.KryoConfig;
+import com.ming.rpc.model.RpcRequest;
+import com.ming.rpc.model.RpcResponse;
+
+import cn.hutool.core.util.ClassUtil;
+import cn.hutool.core.util.StrUtil;
 
 /**
  * Kryo 序列化器
+ * Kryo、Output、Input 及其缓冲区成套放在有界对象池中复用，序列化过程不再为每次调用分配流和数组；
+ * 不绑定线程，虚拟线程模式下每个请求一个新线程也能复用。
+ * 可选开启注册模式，为框架类和用户 DTO 分配固定类 id，用户类列表每个序列化器只解析一次，详见 {@link KryoConfig}
  */
 public class KryoSerializer implements Serializer {
 
     /**
-     * kryo 线程不安全，使用ThreadLocal 保证线程只有一个 Kryo
+     * 框架内置类的起始 id，Kryo 默认占用了较小的 id 给基本类型和 String
      */
-    private static final ThreadLocal<Kryo> KRYO_THREAD_LOCAL = ThreadLocal.withInitial(() -> {
-        Kryo kryo = new Kryo();
-        // 设置动态序列化和反序列化类，不提前注册所有类（可能有安全问题）
-        kryo.setRegistrationRequired(false);
-        return kryo;
-    });
+    private static final int FRAMEWORK_ID_BASE = 20;
+
+    /**
+     * 用户类的起始 id，与内置类之间留出空间便于以后增加内置类
+     */
+    private static final int USER_ID_BASE = 100;
+
+    /**
+     * 框架内置注册的类，顺序决定 id，只能在末尾追加
+     */
+    private static final Class<?>[] FRAMEWORK_CLASSES = {
+            RpcRequest.class, RpcResponse.class, Class.class, Class[].class, Object[].class,
+            String[].class, byte[].class, int[].class, long[].class,
+            ArrayList.class, LinkedList.class, HashMap.class, LinkedHashMap.class, TreeMap.class,
+            HashSet.class, TreeSet.class, BigDecimal.class, BigInteger.class, Date.class
+    };
+
+    /**
+     * 池中最多保留的 Kryo 数量，并发更高时临时创建，用完丢弃
+     */
+    private static final int MAX_POOLED = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+
+    /**
+     * 复用的缓冲区超过该大小后丢弃，避免偶发的大消息让池中对象长期占用大数组
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * 一次借出的 Kryo 及读写对象
+     */
+    private static final class KryoContext {
+        private final Kryo kryo;
+        private final Output output;
+        private final Input input;
+        private final byte[] inputBuffer;
+
+        private KryoContext(Kryo kryo, int bufferSize) {
+            this.kryo = kryo;
+            this.output = new Output(bufferSize, -1);
+            this.inputBuffer = new byte[bufferSize];
+            this.input = new Input(inputBuffer);
+        }
+    }
+
+    /**
+     * Kryo 配置，为 null 时在首次使用时从全局配置读取
+     */
+    private volatile KryoConfig kryoConfig;
+
+    /**
+     * 注册模式下的用户类，首次创建 Kryo 时解析
+     */
+    private volatile List<Class<?>> userClasses;
+
+    /**
+     * kryo 线程不安全，每次序列化从池中借出一套，用完归还
+     */
+    private final Pool<KryoContext> contextPool = new Pool<KryoContext>(true, false, MAX_POOLED) {
+        @Override
+        protected KryoContext create() {
+            return createContext();
+        }
+    };
+
+    public KryoSerializer() {
+    }
+
+    public KryoSerializer(KryoConfig kryoConfig) {
+        this.kryoConfig = kryoConfig;
+    }
 
     @Override
     public byte[] serialize(Object obj) throws IOException {
         if (obj == null) {
             return new byte[0];
         }
-        Kryo kryo = KRYO_THREAD_LOCAL.get();
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        Output output = new Output(outputStream);
-        kryo.writeObject(output, obj);
-        output.close();
-        return outputStream.toByteArray();
+        KryoContext context = contextPool.obtain();
+        Output output = context.output;
+        output.setOutputStream(null);
+        try {
+            context.kryo.writeObject(output, obj);
+            return output.toBytes();
+        } finally {
+            trimOutput(output);
+            contextPool.free(context);
+        }
+    }
+
+    @Override
+    public <T> void serialize(T object, OutputStream outputStream) throws IOException {
+        if (object == null) {
+            return;
+        }
+        KryoContext context = contextPool.obtain();
+        Output output = context.output;
+        //有输出流时缓冲区写满即刷出，不会扩容
+        output.setOutputStream(outputStream);
+        try {
+            context.kryo.writeObject(output, object);
+            output.flush();
+        } finally {
+            output.setOutputStream(null);
+            output.reset();
+            contextPool.free(context);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(InputStream inputStream, Class<T> classType) throws IOException {
+        KryoContext context = contextPool.obtain();
+        Input input = context.input;
+        input.setInputStream(inputStream);
+        try {
+            //空消息体对应 null
+            if (input.end()) {
+                return null;
+            }
+            return context.kryo.readObject(input, classType);
+        } finally {
+            input.setInputStream(null);
+            contextPool.free(context);
+        }
     }
 
-    @Override 
+    @Override
     public <T> T deserialize(byte[] bytes, Class<T> classType) throws IOException {
         if (bytes == null || bytes.length == 0) {
             return null;
         }
-        Kryo kryo = KRYO_THREAD_LOCAL.get();
-        ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes);
-        Input input = new Input(inputStream);
-        T result  = kryo.readObject(input, classType);
-        input.close();
-        return result;
+        KryoContext context = contextPool.obtain();
+        Input input = context.input;
+        input.setBuffer(bytes);
+        try {
+            return context.kryo.readObject(input, classType);
+        } finally {
+            //换回自己的缓冲区，不持有调用方的数组
+            input.setBuffer(context.inputBuffer);
+            contextPool.free(context);
+        }
     }
 
+    /**
+     * 清空输出位置，过大的缓冲区换回初始大小
+     */
+    private void trimOutput(Output output) {
+        if (output.getBuffer().length > MAX_RETAINED_BUFFER_SIZE) {
+            output.setBuffer(new byte[getKryoConfig().getBufferSize()], -1);
+        } else {
+            output.reset();
+        }
+    }
+
+    private KryoConfig getKryoConfig() {
+        if (kryoConfig == null) {
+            KryoConfig config = RpcApplication.getRpcConfig().getKryoConfig();
+            kryoConfig = config == null ? new KryoConfig() : config;
+        }
+        return kryoConfig;
+    }
+
+    private KryoContext createContext() {
+        KryoConfig kryoConfig = getKryoConfig();
+        Kryo kryo = new Kryo();
+        if (kryoConfig.isRegistration()) {
+            kryo.setRegistrationRequired(kryoConfig.isRegistrationRequired());
+            register(kryo, getUserClasses(kryoConfig));
+        } else {
+            // 设置动态序列化和反序列化类，不提前注册所有类（可能有安全问题）
+            kryo.setRegistrationRequired(false);
+        }
+        return new KryoContext(kryo, kryoConfig.getBufferSize());
+    }
+
+    /**
+     * 按固定规则分配类 id：内置类按声明顺序，用户类按类名排序，保证两端相同配置得到相同 id
+     */
+    private static void register(Kryo kryo, List<Class<?>> userClasses) {
+        for (int i = 0; i < FRAMEWORK_CLASSES.length; i++) {
+            kryo.register(FRAMEWORK_CLASSES[i], FRAMEWORK_ID_BASE + i);
+        }
+        for (int i = 0; i < userClasses.size(); i++) {
+            kryo.register(userClasses.get(i), USER_ID_BASE + i);
+        }
+    }
+
+    /**
+     * 获取用户类列表，包扫描只在首次调用时执行
+     */
+    private List<Class<?>> getUserClasses(KryoConfig kryoConfig) {
+        List<Class<?>> classes = userClasses;
+        if (classes == null) {
+            synchronized (this) {
+                classes = userClasses;
+                if (classes == null) {
+                    classes = List.copyOf(resolveUserClasses(kryoConfig));
+                    userClasses = classes;
+                }
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * 解析配置中声明的用户类，去重后按类名排序
+     * @param kryoConfig Kryo 配置
+     * @return 排好序的用户类
+     */
+    static List<Class<?>> resolveUserClasses(KryoConfig kryoConfig) {
+        TreeMap<String, Class<?>> classes = new TreeMap<>();
+        for (String packageName : StrUtil.splitTrim(kryoConfig.getRegisterPackages(), ',')) {
+            for (Class<?> clazz : ClassUtil.scanPackage(packageName)) {
+                if (!clazz.isInterface() && !clazz.isAnnotation()) {
+                    classes.put(clazz.getName(), clazz);
+                }
+            }
+        }
+        for (String className : StrUtil.splitTrim(kryoConfig.getRegisterClasses(), ',')) {
+            classes.put(className, ClassUtil.loadClass(className));
+        }
+        return new ArrayList<>(classes.values());
+    }
 }
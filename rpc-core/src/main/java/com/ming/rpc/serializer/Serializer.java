@@ -1,6 +1,8 @@
 package com.ming.rpc.serializer;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * 序列化接口
@@ -23,4 +25,29 @@ public interface Serializer {
      * @return 对象
      */
     <T> T deserialize(byte[] bytes, Class<T> tClass) throws IOException;
+
+    /**
+     * 序列化到输出流，编解码器借此把消息体直接写进网络缓冲区，不产生中间字节数组
+     * 默认实现先序列化为字节数组再写出，实现类应尽量直接写流
+     * @param object 对象
+     * @param outputStream 输出流，调用方负责关闭
+     * @param <T> 泛型
+     * @throws IOException
+     */
+    default <T> void serialize(T object, OutputStream outputStream) throws IOException {
+        outputStream.write(serialize(object));
+    }
+
+    /**
+     * 从输入流反序列化，编解码器借此直接读取网络缓冲区中的消息体切片
+     * 输入流只包含本条消息体，默认实现读出全部字节后再反序列化，实现类应尽量直接读流
+     * @param inputStream 输入流，调用方负责关闭
+     * @param tClass 类
+     * @param <T> 泛型
+     * @return 对象
+     * @throws IOException
+     */
+    default <T> T deserialize(InputStream inputStream, Class<T> tClass) throws IOException {
+        return deserialize(inputStream.readAllBytes(), tClass);
+    }
 }
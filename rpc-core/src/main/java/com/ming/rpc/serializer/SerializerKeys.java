@@ -8,4 +8,5 @@ public class SerializerKeys {
     public static final String JSON = "json";
     public static final String KRYO = "kryo";
     public static final String HESSIAN = "hessian";
+    public static final String ENVELOPE = "envelope";
 }
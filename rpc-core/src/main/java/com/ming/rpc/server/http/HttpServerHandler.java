@@ -1,6 +1,5 @@
 package com.ming.rpc.server.http;
 
-import java.lang.reflect.Method;
 import java.io.IOException;
 
 import com.ming.rpc.model.RpcRequest;
@@ -8,7 +7,8 @@ import com.ming.rpc.model.RpcResponse;
 import com.ming.rpc.RpcApplication;
 import com.ming.rpc.serializer.Serializer;
 import com.ming.rpc.serializer.SerializerFactory;
-import com.ming.rpc.registry.LocalRegistry;
+import com.ming.rpc.server.invoker.ServiceInvoker;
+import com.ming.rpc.server.invoker.ServiceInvokerRegistry;
 
 import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
@@ -48,13 +48,12 @@ public class HttpServerHandler  implements Handler<HttpServerRequest>{
                 return;
         }
         try{
-            //获取要调用的服务实现类，通过反射调用
-            Class<?> implClass = LocalRegistry.get(rpcRequest.getServiceName());
-            Method method = implClass.getMethod(rpcRequest.getMethodName(), rpcRequest.getParameterTypes());
-            Object result = method.invoke(implClass.newInstance(), rpcRequest.getArgs());
+            //从调用器注册表获取预先解析好的调用器，直接调用单例服务实例
+            ServiceInvoker invoker = ServiceInvokerRegistry.getInvoker(rpcRequest);
+            Object result = invoker.invoke(rpcRequest.getArgs());
             //封装返回结果
             rpcResponse.setData(result);
-            rpcResponse.setDataType(method.getReturnType());
+            rpcResponse.setDataType(invoker.getMethod().getReturnType());
             rpcResponse.setMessage("ok");
             rpcResponse.setMessageType(RpcResponse.MessageType.SUCCESS);
         }catch(Exception e){
@@ -0,0 +1,22 @@
+package com.ming.rpc.server.invoker;
+
+/**
+ * 服务执行模式枚举（服务端使用）
+ */
+public enum ExecutionModeEnum {
+
+    /**
+     * 直接在 Vert.x 事件循环线程上执行，适合纯内存计算、耗时极短的方法
+     */
+    EVENT_LOOP,
+
+    /**
+     * 提交到有界工作线程池执行，适合会阻塞的方法（数据库、远程调用等）
+     */
+    WORKER,
+
+    /**
+     * 每个请求一个虚拟线程，适合大量并发的阻塞型方法
+     */
+    VIRTUAL_THREAD
+}
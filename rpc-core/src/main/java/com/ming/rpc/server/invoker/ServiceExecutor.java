@@ -0,0 +1,144 @@
+package com.ming.rpc.server.invoker;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.ming.rpc.RpcApplication;
+import com.ming.rpc.config.ExecutorConfig;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+
+/**
+ * 服务执行器（服务端使用）
+ * 按执行模式把服务调用分派到事件循环、有界工作线程池或虚拟线程上，超出排队上限时直接拒绝，避免请求无限堆积
+ */
+public class ServiceExecutor {
+
+    private static volatile ServiceExecutor defaultExecutor;
+
+    private final ExecutorConfig executorConfig;
+
+    /**
+     * 有界工作线程池，首次使用时创建
+     */
+    private volatile ThreadPoolExecutor workerPool;
+
+    /**
+     * 每个任务一个虚拟线程
+     */
+    private volatile ExecutorService virtualThreadExecutor;
+
+    /**
+     * 虚拟线程模式下的并发许可
+     */
+    private final Semaphore virtualThreadPermits;
+
+    public ServiceExecutor(ExecutorConfig executorConfig) {
+        this.executorConfig = executorConfig;
+        this.virtualThreadPermits = new Semaphore(executorConfig.getMaxVirtualThreadRequests());
+    }
+
+    /**
+     * 获取按全局配置创建的默认执行器
+     * @return 执行器
+     */
+    public static ServiceExecutor getDefault() {
+        if (defaultExecutor == null) {
+            synchronized (ServiceExecutor.class) {
+                if (defaultExecutor == null) {
+                    defaultExecutor = new ServiceExecutor(RpcApplication.getRpcConfig().getExecutorConfig());
+                }
+            }
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * 关闭默认执行器，下次获取时按当时的全局配置重新创建
+     */
+    public static void shutdownDefault() {
+        synchronized (ServiceExecutor.class) {
+            if (defaultExecutor != null) {
+                defaultExecutor.shutdown();
+                defaultExecutor = null;
+            }
+        }
+    }
+
+    /**
+     * 执行任务
+     * @param mode 执行模式，为 null 时使用配置中的默认模式
+     * @param task 任务
+     * @throws RejectedExecutionException 排队已满或并发已达上限
+     */
+    public void execute(ExecutionModeEnum mode, Runnable task) {
+        if (mode == null) {
+            mode = executorConfig.getMode();
+        }
+        switch (mode) {
+            case WORKER -> getWorkerPool().execute(task);
+            case VIRTUAL_THREAD -> {
+                if (!virtualThreadPermits.tryAcquire()) {
+                    throw new RejectedExecutionException("虚拟线程并发请求数已达上限：" + executorConfig.getMaxVirtualThreadRequests());
+                }
+                try {
+                    getVirtualThreadExecutor().execute(() -> {
+                        try {
+                            task.run();
+                        } finally {
+                            virtualThreadPermits.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    virtualThreadPermits.release();
+                    throw e;
+                }
+            }
+            default -> task.run();
+        }
+    }
+
+    /**
+     * 关闭线程池
+     */
+    public void shutdown() {
+        if (workerPool != null) {
+            workerPool.shutdown();
+        }
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdown();
+        }
+    }
+
+    private ThreadPoolExecutor getWorkerPool() {
+        if (workerPool == null) {
+            synchronized (this) {
+                if (workerPool == null) {
+                    int threads = executorConfig.getWorkerThreads();
+                    // 核心线程数等于最大线程数，队列满后由 AbortPolicy 直接拒绝
+                    workerPool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                            new ArrayBlockingQueue<>(executorConfig.getWorkerQueueCapacity()),
+                            ThreadFactoryBuilder.create().setNamePrefix("rpc-worker-").setDaemon(true).build(),
+                            new ThreadPoolExecutor.AbortPolicy());
+                }
+            }
+        }
+        return workerPool;
+    }
+
+    private ExecutorService getVirtualThreadExecutor() {
+        if (virtualThreadExecutor == null) {
+            synchronized (this) {
+                if (virtualThreadExecutor == null) {
+                    virtualThreadExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("rpc-virtual-", 0).factory());
+                }
+            }
+        }
+        return virtualThreadExecutor;
+    }
+}
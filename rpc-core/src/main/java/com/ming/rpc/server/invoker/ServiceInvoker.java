@@ -0,0 +1,80 @@
+package com.ming.rpc.server.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import com.ming.rpc.exception.RpcException;
+
+import lombok.Getter;
+
+/**
+ * 服务方法调用器
+ * 持有单例服务实例和预先解析好的 MethodHandle，调用时既不需要反射查找方法，也不需要创建服务实例
+ */
+@Getter
+public class ServiceInvoker {
+
+    private static final Object[] EMPTY_ARGS = new Object[0];
+
+    /**
+     * 服务实例
+     */
+    private final Object serviceInstance;
+
+    /**
+     * 目标方法
+     */
+    private final Method method;
+
+    /**
+     * 已绑定服务实例、签名统一为 (Object[])Object 的方法句柄
+     */
+    private final MethodHandle methodHandle;
+
+    /**
+     * 执行模式，为 null 时使用配置中的默认模式
+     */
+    private final ExecutionModeEnum executionMode;
+
+    public ServiceInvoker(Object serviceInstance, Method method) {
+        this(serviceInstance, method, null);
+    }
+
+    public ServiceInvoker(Object serviceInstance, Method method, ExecutionModeEnum executionMode) {
+        this.serviceInstance = serviceInstance;
+        this.method = method;
+        this.executionMode = executionMode;
+        try {
+            // 实现类可能不是 public 的，先放开访问检查
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (!Modifier.isStatic(method.getModifiers())) {
+                handle = handle.bindTo(serviceInstance);
+            }
+            this.methodHandle = handle
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new RpcException("无法访问服务方法：" + method, e);
+        }
+    }
+
+    /**
+     * 调用服务方法
+     * @param args 参数列表
+     * @return 返回值，void 方法返回 null
+     * @throws Exception 服务方法抛出的原始异常
+     */
+    public Object invoke(Object[] args) throws Exception {
+        try {
+            return (Object) methodHandle.invokeExact(args == null ? EMPTY_ARGS : args);
+        } catch (Exception e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RpcException("服务方法执行出错：" + method.getName(), t);
+        }
+    }
+}
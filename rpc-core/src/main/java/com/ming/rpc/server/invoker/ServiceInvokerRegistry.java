@@ -0,0 +1,133 @@
+package com.ming.rpc.server.invoker;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ming.rpc.annotation.RpcExecution;
+import com.ming.rpc.exception.RpcException;
+import com.ming.rpc.model.RpcRequest;
+import com.ming.rpc.registry.LocalRegistry;
+
+/**
+ * 服务调用器注册表（服务端使用）
+ * 按 服务名/方法名/参数类型 缓存调用器，每个实现类只实例化一次，请求分发只需一次 Map 查找加一次直接调用
+ */
+public class ServiceInvokerRegistry {
+
+    /**
+     * 调用器缓存：方法签名 => 调用器
+     */
+    private static final Map<InvokerKey, ServiceInvoker> INVOKERS = new ConcurrentHashMap<>();
+
+    /**
+     * 单例服务实例：实现类 => 实例
+     */
+    private static final Map<Class<?>, Object> SERVICE_INSTANCES = new ConcurrentHashMap<>();
+
+    /**
+     * 获取请求对应的调用器，首次调用时解析并缓存
+     * @param rpcRequest 请求
+     * @return 调用器
+     */
+    public static ServiceInvoker getInvoker(RpcRequest rpcRequest) {
+        InvokerKey key = new InvokerKey(rpcRequest.getServiceName(), rpcRequest.getMethodName(), rpcRequest.getParameterTypes());
+        ServiceInvoker invoker = INVOKERS.get(key);
+        if (invoker != null) {
+            return invoker;
+        }
+        invoker = createInvoker(key);
+        ServiceInvoker existing = INVOKERS.putIfAbsent(key, invoker);
+        return existing != null ? existing : invoker;
+    }
+
+    /**
+     * 清除某个服务的调用器缓存（服务重新注册或注销时调用）
+     * @param serviceName 服务名称
+     */
+    public static void remove(String serviceName) {
+        INVOKERS.keySet().removeIf(key -> key.serviceName.equals(serviceName));
+    }
+
+    private static ServiceInvoker createInvoker(InvokerKey key) {
+        Class<?> implClass = LocalRegistry.get(key.serviceName);
+        if (implClass == null) {
+            throw new RpcException("未找到服务：" + key.serviceName);
+        }
+        Method method;
+        try {
+            method = implClass.getMethod(key.methodName, key.parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new RpcException("未找到服务方法：" + key.serviceName + "#" + key.methodName, e);
+        }
+        return new ServiceInvoker(getServiceInstance(implClass), method, resolveExecutionMode(implClass, method));
+    }
+
+    /**
+     * 解析执行模式：方法上的注解优先，其次是实现类上的注解
+     */
+    private static ExecutionModeEnum resolveExecutionMode(Class<?> implClass, Method method) {
+        RpcExecution rpcExecution = method.getAnnotation(RpcExecution.class);
+        if (rpcExecution == null) {
+            rpcExecution = implClass.getAnnotation(RpcExecution.class);
+        }
+        return rpcExecution == null ? null : rpcExecution.value();
+    }
+
+    private static Object getServiceInstance(Class<?> implClass) {
+        return SERVICE_INSTANCES.computeIfAbsent(implClass, clazz -> {
+            try {
+                return clazz.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new RpcException("服务实例化失败：" + clazz.getName(), e);
+            }
+        });
+    }
+
+    /**
+     * 调用器缓存键
+     */
+    private static final class InvokerKey {
+
+        private static final Class<?>[] NO_PARAMETER_TYPES = new Class<?>[0];
+
+        private final String serviceName;
+
+        private final String methodName;
+
+        private final Class<?>[] parameterTypes;
+
+        private final int hash;
+
+        private InvokerKey(String serviceName, String methodName, Class<?>[] parameterTypes) {
+            this.serviceName = serviceName;
+            this.methodName = methodName;
+            this.parameterTypes = parameterTypes == null ? NO_PARAMETER_TYPES : parameterTypes;
+            this.hash = 31 * (31 * Objects.hashCode(serviceName) + Objects.hashCode(methodName)) + Arrays.hashCode(this.parameterTypes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof InvokerKey other)) {
+                return false;
+            }
+            return hash == other.hash
+                    && Objects.equals(serviceName, other.serviceName)
+                    && Objects.equals(methodName, other.methodName)
+                    && Arrays.equals(parameterTypes, other.parameterTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private ServiceInvokerRegistry() {
+    }
+}
@@ -1,79 +1,66 @@
 package com.ming.rpc.server.tcp;
+import com.ming.rpc.exception.RpcException;
 import com.ming.rpc.protocol.ProtocolConstant;
+import com.ming.rpc.utils.BufferUtil;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
-import io.vertx.core.parsetools.RecordParser;
 
 /**
  * TCP 消息处理器包装
- * 装饰者模式，使用 recordingParser 对原有的Buffer 处理能力进行增强
+ * 装饰者模式，按 消息头 + 消息体长度 切分完整帧后交给原有的 Buffer 处理器，解决半包、粘包问题。
+ * 完整落在本次收到的数据里的帧直接切片传递，不拷贝；只有跨越多次读取的半包才暂存拼接。
+ * 暂存区按帧长度一次分配，之后的读取直接追加，大帧分多次到达时每个字节只拷贝一次
  */
 public class TcpBufferHandlerWrapper implements Handler<Buffer> {
 
+    private final Handler<Buffer> bufferHandler;
+
     /**
-     * 解析器，用于解决半包、粘包问题
+     * 上次读取剩下的半包数据，没有时为 null
      */
-    private final RecordParser recordParser;
+    private ByteBuf cumulation;
 
     public TcpBufferHandlerWrapper(Handler<Buffer> bufferHandler) {
-        recordParser = initRecordParser(bufferHandler);
+        this.bufferHandler = bufferHandler;
     }
 
     @Override
     public void handle(Buffer buffer) {
-        recordParser.handle(buffer);
-    }
-
-    /**
-     * 初始化解析器
-     * @param bufferHandler
-     * @return
-     */
-    private RecordParser initRecordParser(Handler<Buffer> bufferHandler) {
-        //构造 parser
-        RecordParser parser = RecordParser.newFixed(ProtocolConstant.MESSAGE_HEADER_LENGTH);
-
-        parser.setOutput(new Handler<Buffer>() {
-            //标记当前是否正在处理消息头
-            boolean isReadingHeader = true;
-            //一次完整的读取（头+体）
-            Buffer resultBuffer = Buffer.buffer();
-
-            @Override
-            public void handle(Buffer buffer) {
-                if (isReadingHeader) {
-                    // 读取消息头
-                    resultBuffer.appendBuffer(buffer);
-                    // 读取消息体长度
-                    int bodyLength = buffer.getInt(13);
-                    if (bodyLength > 0) {
-                        // 切换到读取消息体模式
-                        parser.fixedSizeMode(bodyLength);
-                        isReadingHeader = false;
-                    } else {
-                        // 如果没有消息体，直接处理完整消息
-                        bufferHandler.handle(resultBuffer);
-                        // 重置，准备读取下一个消息
-                        resetParser();
-                    }
-                } else {
-                    // 读取消息体
-                    resultBuffer.appendBuffer(buffer);
-                    // 已拼接为完整Buffer，执行处理
-                    bufferHandler.handle(resultBuffer);
-                    // 重置，准备读取下一个消息
-                    resetParser();
-                }
+        ByteBuf in = BufferUtil.toByteBuf(buffer);
+        if (cumulation != null) {
+            cumulation.writeBytes(in);
+            in = cumulation;
+        }
+        boolean sliced = false;
+        int pendingFrameLength = 0;
+        while (in.readableBytes() >= ProtocolConstant.MESSAGE_HEADER_LENGTH) {
+            int bodyLength = in.getInt(in.readerIndex() + ProtocolConstant.BODY_LENGTH_OFFSET);
+            if (bodyLength < 0) {
+                throw new RpcException("非法的消息体长度：" + bodyLength);
             }
-            
-            // 重置解析器状态
-            private void resetParser() {
-                parser.fixedSizeMode(ProtocolConstant.MESSAGE_HEADER_LENGTH);
-                isReadingHeader = true;
-                resultBuffer = Buffer.buffer();
+            int frameLength = ProtocolConstant.MESSAGE_HEADER_LENGTH + bodyLength;
+            if (in.readableBytes() < frameLength) {
+                pendingFrameLength = frameLength;
+                break;
             }
-        });
-        return parser;
+            // 已拼接为完整帧，切片后执行处理
+            ByteBuf frame = in.slice(in.readerIndex(), frameLength);
+            in.skipBytes(frameLength);
+            sliced = true;
+            bufferHandler.handle(BufferUtil.toBuffer(frame));
+        }
+        if (!in.isReadable()) {
+            cumulation = null;
+        } else if (in != cumulation || sliced) {
+            // 剩余半包拷贝到新的暂存区，容量按整帧预留；已交出的帧切片仍引用旧数据，不能原地压缩复用
+            ByteBuf remaining = Unpooled.buffer(Math.max(Math.max(in.readableBytes(), pendingFrameLength),
+                    ProtocolConstant.MESSAGE_HEADER_LENGTH * 4));
+            remaining.writeBytes(in);
+            cumulation = remaining;
+        }
+        // 否则本次没有交出帧，暂存区原样保留，下次继续追加
     }
 }
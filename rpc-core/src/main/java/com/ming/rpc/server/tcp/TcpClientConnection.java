@@ -0,0 +1,293 @@
+package com.ming.rpc.server.tcp;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ming.rpc.config.HeartbeatConfig;
+import com.ming.rpc.exception.RpcException;
+import com.ming.rpc.exception.RpcRejectedException;
+import com.ming.rpc.model.RpcRequest;
+import com.ming.rpc.model.RpcResponse;
+import com.ming.rpc.protocol.HeartbeatMessage;
+import com.ming.rpc.protocol.MethodIdRegistry;
+import com.ming.rpc.protocol.ProtocolMessage;
+import com.ming.rpc.protocol.ProtocolMessageDecoder;
+import com.ming.rpc.protocol.ProtocolMessageEncoder;
+import com.ming.rpc.protocol.ProtocolMessageStatusEnum;
+import com.ming.rpc.protocol.ProtocolMessageTypeEnum;
+import com.ming.rpc.utils.BufferUtil;
+
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.NetSocket;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * TCP 客户端长连接
+ * 一条连接上可以同时存在多个未完成的请求（多路复用），响应按消息头中的请求 id 匹配回对应的 Future。
+ * 开启心跳时，连接空闲后定期发送 ping，超时没有收到任何数据则判定对端失联，关闭连接让未完成的请求立即失败
+ */
+@Slf4j
+public class TcpClientConnection {
+
+    private final NetSocket socket;
+
+    /**
+     * 未完成的请求：请求 id => 响应 Future
+     */
+    private final Map<Long, CompletableFuture<RpcResponse>> pendingRequests = new ConcurrentHashMap<>();
+
+    /**
+     * 提供者已在本连接上确认的方法 id，这些方法的请求只携带方法 id 和参数
+     */
+    private final Set<Integer> internedMethodIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 已发起过握手的方法 id，每个方法在每条连接上只握手一次
+     */
+    private final Set<Integer> handshakeMethodIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 连接是否已关闭
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * 最近一次收到数据的时间（毫秒）
+     */
+    private volatile long lastReadMillis = System.currentTimeMillis();
+
+    private final Vertx vertx;
+
+    private final HeartbeatConfig heartbeatConfig;
+
+    /**
+     * 心跳超时回调
+     */
+    private final Runnable onHeartbeatTimeout;
+
+    /**
+     * 心跳定时器 id，未开启心跳时为 -1
+     */
+    private final long heartbeatTimerId;
+
+    public TcpClientConnection(NetSocket socket) {
+        this(socket, null, null, null);
+    }
+
+    /**
+     * @param socket 连接
+     * @param vertx 用于心跳定时器，为 null 时不开启心跳
+     * @param heartbeatConfig 心跳配置
+     * @param onHeartbeatTimeout 心跳超时回调，可为 null
+     */
+    public TcpClientConnection(NetSocket socket, Vertx vertx, HeartbeatConfig heartbeatConfig, Runnable onHeartbeatTimeout) {
+        this.socket = socket;
+        this.vertx = vertx;
+        this.heartbeatConfig = heartbeatConfig;
+        this.onHeartbeatTimeout = onHeartbeatTimeout;
+        socket.handler(new TcpBufferHandlerWrapper(this::handleResponse));
+        socket.exceptionHandler(e -> {
+            log.warn("TCP 连接异常，关闭连接：{}", socket.remoteAddress(), e);
+            socket.close();
+        });
+        socket.closeHandler(v -> onClosed());
+        if (vertx != null && heartbeatConfig != null && heartbeatConfig.isEnabled()) {
+            heartbeatTimerId = vertx.setPeriodic(heartbeatConfig.getIntervalMillis(), id -> checkHeartbeat());
+        } else {
+            heartbeatTimerId = -1;
+        }
+    }
+
+    /**
+     * 检查心跳：超时关闭连接，空闲则发送 ping
+     */
+    private void checkHeartbeat() {
+        if (closed) {
+            return;
+        }
+        long idleMillis = System.currentTimeMillis() - lastReadMillis;
+        if (idleMillis >= heartbeatConfig.getTimeoutMillis()) {
+            log.warn("心跳超时，{} ms 未收到数据，关闭连接：{}", idleMillis, socket.remoteAddress());
+            if (onHeartbeatTimeout != null) {
+                onHeartbeatTimeout.run();
+            }
+            socket.close();
+            return;
+        }
+        if (idleMillis >= heartbeatConfig.getIntervalMillis()) {
+            socket.write(HeartbeatMessage.ping(VertexTcpClient.nextRequestId()));
+        }
+    }
+
+    /**
+     * 发送请求
+     * @param protocolMessage 请求消息
+     * @return 响应 Future，在事件循环线程上完成
+     */
+    public CompletableFuture<RpcResponse> send(ProtocolMessage<RpcRequest> protocolMessage) {
+        RpcRequest rpcRequest = protocolMessage.getBody();
+        int methodId = rpcRequest == null ? 0 : rpcRequest.getMethodId();
+        if (methodId == 0 || protocolMessage.getHeader().getType() != (byte) ProtocolMessageTypeEnum.REQUEST.getKey()) {
+            return write(protocolMessage);
+        }
+        if (internedMethodIds.contains(methodId)) {
+            return write(new ProtocolMessage<>(protocolMessage.getHeader(), MethodIdRegistry.compact(rpcRequest)));
+        }
+        // 本次仍发送完整请求，紧随其后发送握手，不增加本次调用的延迟
+        CompletableFuture<RpcResponse> responseFuture = write(protocolMessage);
+        if (handshakeMethodIds.add(methodId)) {
+            handshake(protocolMessage.getHeader(), rpcRequest);
+        }
+        return responseFuture;
+    }
+
+    /**
+     * 发送方法 id 握手，提供者确认后该方法在本连接上改用方法 id
+     * @param requestHeader 原请求的消息头，握手沿用其协议版本和序列化器
+     * @param rpcRequest 原请求
+     */
+    private void handshake(ProtocolMessage.Header requestHeader, RpcRequest rpcRequest) {
+        ProtocolMessage.Header header = new ProtocolMessage.Header();
+        header.setMagic(requestHeader.getMagic());
+        header.setVersion(requestHeader.getVersion());
+        header.setSerializer(requestHeader.getSerializer());
+        header.setType((byte) ProtocolMessageTypeEnum.HANDSHAKE.getKey());
+        header.setRequestId(VertexTcpClient.nextRequestId());
+        RpcRequest signature = new RpcRequest();
+        signature.setServiceName(rpcRequest.getServiceName());
+        signature.setServiceVersion(rpcRequest.getServiceVersion());
+        signature.setMethodName(rpcRequest.getMethodName());
+        signature.setParameterTypes(rpcRequest.getParameterTypes());
+        signature.setMethodId(rpcRequest.getMethodId());
+        write(new ProtocolMessage<>(header, signature)).whenComplete((response, e) -> {
+            if (e == null && response.getException() == null) {
+                internedMethodIds.add(signature.getMethodId());
+            } else {
+                log.debug("方法 id 握手未通过，继续发送完整请求：{}#{}", signature.getServiceName(), signature.getMethodName());
+            }
+        });
+    }
+
+    /**
+     * 编码并写出消息，登记响应 Future
+     */
+    private CompletableFuture<RpcResponse> write(ProtocolMessage<RpcRequest> protocolMessage) {
+        CompletableFuture<RpcResponse> responseFuture = new CompletableFuture<>();
+        long requestId = protocolMessage.getHeader().getRequestId();
+        pendingRequests.put(requestId, responseFuture);
+        // 先登记再检查，避免与关闭回调竞争导致 Future 永远不完成
+        if (closed) {
+            failPending(requestId, connectionClosedException());
+            return responseFuture;
+        }
+        ByteBuf byteBuf;
+        try {
+            byteBuf = ProtocolMessageEncoder.encodePooled(protocolMessage);
+        } catch (Exception e) {
+            failPending(requestId, new RpcException("encode protocol message error", e));
+            return responseFuture;
+        }
+        // 写出完成（无论成功失败）后归还池化缓冲区
+        socket.write(BufferUtil.toBuffer(byteBuf), ar -> {
+            byteBuf.release();
+            if (ar.failed()) {
+                failPending(requestId, new RpcException("write protocol message error", ar.cause()));
+            }
+        });
+        return responseFuture;
+    }
+
+    /**
+     * 放弃等待某个请求的响应（超时或取消时调用），迟到的响应会被直接丢弃
+     * @param requestId 请求 id
+     */
+    public void abandon(long requestId) {
+        pendingRequests.remove(requestId);
+    }
+
+    /**
+     * 连接是否可用
+     * @return 未关闭返回 true
+     */
+    public boolean isActive() {
+        return !closed;
+    }
+
+    /**
+     * 未完成的请求数
+     * @return 数量
+     */
+    public int getPendingCount() {
+        return pendingRequests.size();
+    }
+
+    /**
+     * 主动关闭连接
+     */
+    public void close() {
+        socket.close();
+    }
+
+    /**
+     * 处理响应
+     * @param buffer 完整的一帧数据
+     */
+    private void handleResponse(Buffer buffer) {
+        lastReadMillis = System.currentTimeMillis();
+        ProtocolMessage<?> protocolMessage;
+        try {
+            protocolMessage = ProtocolMessageDecoder.decode(buffer);
+        } catch (Exception e) {
+            log.error("decode protocol message error", e);
+            return;
+        }
+        if (HeartbeatMessage.isHeartbeat(protocolMessage.getHeader())) {
+            if (HeartbeatMessage.isPing(protocolMessage.getHeader())) {
+                socket.write(HeartbeatMessage.pong(protocolMessage.getHeader()));
+            }
+            return;
+        }
+        CompletableFuture<RpcResponse> responseFuture = pendingRequests.remove(protocolMessage.getHeader().getRequestId());
+        if (responseFuture == null) {
+            // 请求已超时或被取消
+            log.debug("丢弃无人等待的响应，请求 id：{}", protocolMessage.getHeader().getRequestId());
+            return;
+        }
+        RpcResponse rpcResponse = (RpcResponse) protocolMessage.getBody();
+        if (protocolMessage.getHeader().getStatus() == (byte) ProtocolMessageStatusEnum.REJECTED.getValue()) {
+            // 服务端过载拒绝，按调用失败处理，交给重试和容错策略
+            responseFuture.completeExceptionally(new RpcRejectedException(rpcResponse.getMessage()));
+            return;
+        }
+        responseFuture.complete(rpcResponse);
+    }
+
+    /**
+     * 连接关闭后让所有未完成的请求失败
+     */
+    private void onClosed() {
+        closed = true;
+        if (heartbeatTimerId >= 0) {
+            vertx.cancelTimer(heartbeatTimerId);
+        }
+        for (Long requestId : pendingRequests.keySet()) {
+            failPending(requestId, connectionClosedException());
+        }
+    }
+
+    private void failPending(long requestId, Throwable cause) {
+        CompletableFuture<RpcResponse> responseFuture = pendingRequests.remove(requestId);
+        if (responseFuture != null) {
+            responseFuture.completeExceptionally(cause);
+        }
+    }
+
+    private RpcException connectionClosedException() {
+        return new RpcException("connection closed: " + socket.remoteAddress(), new ClosedChannelException());
+    }
+}
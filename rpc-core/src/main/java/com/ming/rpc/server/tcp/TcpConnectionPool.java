@@ -0,0 +1,118 @@
+package com.ming.rpc.server.tcp;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.ming.rpc.config.HeartbeatConfig;
+import com.ming.rpc.exception.RpcException;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.net.NetClient;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 单个服务节点的 TCP 连接池
+ * 固定数量的长连接槽位，按需建立、断开（包括心跳超时被关闭）后自动重连，请求在各连接之间轮询分摊
+ */
+@Slf4j
+public class TcpConnectionPool {
+
+    private final NetClient netClient;
+
+    private final String host;
+
+    private final int port;
+
+    /**
+     * 连接槽位，每个槽位保存一次连接尝试的结果
+     */
+    private final AtomicReferenceArray<CompletableFuture<TcpClientConnection>> slots;
+
+    /**
+     * 轮询下标
+     */
+    private final AtomicInteger nextSlot = new AtomicInteger(0);
+
+    private final Vertx vertx;
+
+    private final HeartbeatConfig heartbeatConfig;
+
+    /**
+     * 连接心跳超时回调
+     */
+    private final Runnable onHeartbeatTimeout;
+
+    public TcpConnectionPool(NetClient netClient, String host, int port, int size) {
+        this(netClient, host, port, size, null, null, null);
+    }
+
+    /**
+     * @param vertx 用于连接心跳定时器，为 null 时不开启心跳
+     * @param heartbeatConfig 心跳配置
+     * @param onHeartbeatTimeout 任一连接心跳超时时回调，可为 null
+     */
+    public TcpConnectionPool(NetClient netClient, String host, int port, int size,
+                             Vertx vertx, HeartbeatConfig heartbeatConfig, Runnable onHeartbeatTimeout) {
+        this.netClient = netClient;
+        this.host = host;
+        this.port = port;
+        this.slots = new AtomicReferenceArray<>(Math.max(1, size));
+        this.vertx = vertx;
+        this.heartbeatConfig = heartbeatConfig;
+        this.onHeartbeatTimeout = onHeartbeatTimeout;
+    }
+
+    /**
+     * 获取一条可用连接
+     * @return 连接 Future，建连失败时异常完成
+     */
+    public CompletableFuture<TcpClientConnection> acquire() {
+        // 与 Integer.MAX_VALUE 相与，避免计数溢出后出现负数下标
+        int index = (nextSlot.getAndIncrement() & Integer.MAX_VALUE) % slots.length();
+        CompletableFuture<TcpClientConnection> current = slots.get(index);
+        if (current != null && isUsable(current)) {
+            return current;
+        }
+        CompletableFuture<TcpClientConnection> fresh = new CompletableFuture<>();
+        if (slots.compareAndSet(index, current, fresh)) {
+            connect(fresh);
+            return fresh;
+        }
+        // 其他线程已经在重连
+        return slots.get(index);
+    }
+
+    /**
+     * 关闭所有连接
+     */
+    public void close() {
+        for (int i = 0; i < slots.length(); i++) {
+            CompletableFuture<TcpClientConnection> slot = slots.getAndSet(i, null);
+            if (slot != null) {
+                slot.thenAccept(TcpClientConnection::close);
+            }
+        }
+    }
+
+    /**
+     * 正在建连，或已建连且连接未关闭
+     */
+    private boolean isUsable(CompletableFuture<TcpClientConnection> slot) {
+        if (!slot.isDone()) {
+            return true;
+        }
+        return !slot.isCompletedExceptionally() && slot.join().isActive();
+    }
+
+    private void connect(CompletableFuture<TcpClientConnection> future) {
+        netClient.connect(port, host, result -> {
+            if (result.succeeded()) {
+                future.complete(new TcpClientConnection(result.result(), vertx, heartbeatConfig, onHeartbeatTimeout));
+            } else {
+                log.warn("connect to server failed: {}:{}", host, port, result.cause());
+                future.completeExceptionally(new RpcException("connect to server failed: " + host + ":" + port, result.cause()));
+            }
+        });
+    }
+}
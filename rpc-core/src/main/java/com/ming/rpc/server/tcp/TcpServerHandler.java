@@ -1,34 +1,67 @@
 package com.ming.rpc.server.tcp;
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.Context;
 import io.vertx.core.Handler;
-import io.vertx.core.buffer.Buffer;
+import io.vertx.core.Vertx;
 import io.vertx.core.net.NetSocket;
 
 import java.io.IOException;
-import java.lang.reflect.Method;
-import java.net.Socket;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
 
+import com.ming.rpc.RpcApplication;
+import com.ming.rpc.config.HeartbeatConfig;
+import com.ming.rpc.config.RpcConfig;
+import com.ming.rpc.exception.RpcException;
+import com.ming.rpc.exception.RpcTimeoutException;
 import com.ming.rpc.model.RpcRequest;
 import com.ming.rpc.model.RpcResponse;
+import com.ming.rpc.protocol.HeartbeatMessage;
+import com.ming.rpc.protocol.MethodIdRegistry;
 import com.ming.rpc.protocol.ProtocolMessage;
+import com.ming.rpc.protocol.ProtocolMessageCompressorEnum;
 import com.ming.rpc.protocol.ProtocolMessageDecoder;
 import com.ming.rpc.protocol.ProtocolMessageEncoder;
 import com.ming.rpc.protocol.ProtocolMessageStatusEnum;
 import com.ming.rpc.protocol.ProtocolMessageTypeEnum;
-import com.ming.rpc.registry.LocalRegistry;
+import com.ming.rpc.server.invoker.ServiceExecutor;
+import com.ming.rpc.server.invoker.ServiceInvoker;
+import com.ming.rpc.server.invoker.ServiceInvokerRegistry;
+import com.ming.rpc.utils.BufferUtil;
+import com.ming.rpc.utils.DeadlineContext;
+
+import lombok.extern.slf4j.Slf4j;
 
 
 /**
  * TCP 请求处理器
+ * 解码在事件循环线程上完成，服务方法按调用器的执行模式分派执行，执行器饱和时返回拒绝响应。
+ * 收到心跳 ping 时直接回 pong；开启心跳时，连接超过超时时间没有收到任何数据则判定对端失联并关闭。
+ * 请求携带剩余超时时间时，开始执行前已超过截止时间的请求直接返回超时，不再调用服务方法
  */
+@Slf4j
 public class TcpServerHandler implements Handler<NetSocket> {
+
+    private final ServiceExecutor serviceExecutor;
+
+    public TcpServerHandler() {
+        this(ServiceExecutor.getDefault());
+    }
+
+    public TcpServerHandler(ServiceExecutor serviceExecutor) {
+        this.serviceExecutor = serviceExecutor;
+    }
+
     /**
      * 处理 TCP 请求
      * @param socket
      */
-
     @Override
     public void handle(NetSocket socket) {
+        long[] lastReadMillis = {System.currentTimeMillis()};
         TcpBufferHandlerWrapper bufferHandlerWrapper = new  TcpBufferHandlerWrapper(buffer -> {
+            lastReadMillis[0] = System.currentTimeMillis();
             // 处理 TCP 请求,decode 解码
             ProtocolMessage<RpcRequest> protocolMessage ;
             try{
@@ -36,38 +69,166 @@ public class TcpServerHandler implements Handler<NetSocket> {
             }catch(Exception e){
                throw new RuntimeException("decode protocol message error",e);
             }
+            ProtocolMessage.Header header = protocolMessage.getHeader();
+            if (HeartbeatMessage.isHeartbeat(header)) {
+                if (HeartbeatMessage.isPing(header)) {
+                    socket.write(HeartbeatMessage.pong(header));
+                }
+                return;
+            }
             // 处理 RPC 请求
             RpcRequest rpcRequest = protocolMessage.getBody();
-            ProtocolMessage.Header header = protocolMessage.getHeader();
+            //按收到请求的时间计算截止时间，排队等待执行的时间也计算在内
+            long deadlineMillis = header.getTimeout() > 0 ? lastReadMillis[0] + header.getTimeout() : 0;
+            if (header.getType() == (byte) ProtocolMessageTypeEnum.HANDSHAKE.getKey()) {
+                doHandshake(socket, header, rpcRequest);
+                return;
+            }
 
-            RpcResponse rpcResponse = new RpcResponse();
+            ServiceInvoker invoker;
             try{
-                //获取要调用的服务实现类，通过反射调用
-                Class<?> impClass = LocalRegistry.get(rpcRequest.getServiceName()) ;
-                Method method =impClass.getMethod(rpcRequest.getMethodName(),rpcRequest.getParameterTypes());
-                Object result = method.invoke(impClass.newInstance(),rpcRequest.getArgs());
-                //封装返回结果
-                rpcResponse.setData(result);
-                rpcResponse.setDataType(method.getReturnType());
-                rpcResponse.setMessage("ok");
+                if (MethodIdRegistry.isCompact(rpcRequest)) {
+                    throw new RpcException("未知的方法 id：" + rpcRequest.getMethodId());
+                }
+                //从调用器注册表获取预先解析好的调用器
+                invoker = ServiceInvokerRegistry.getInvoker(rpcRequest);
             }catch(Exception e){
-               e.printStackTrace();
-               rpcResponse.setMessage(e.getMessage());
-               rpcResponse.setException(e);
+                RpcResponse rpcResponse = new RpcResponse();
+                rpcResponse.setMessage(e.getMessage());
+                rpcResponse.setException(e);
+                doResponse(socket, header, rpcResponse);
+                return;
             }
-
-            // 编码 RPC 响应
-            header.setType((byte)ProtocolMessageTypeEnum.RESPONSE.getKey());
-            header.setStatus((byte)ProtocolMessageStatusEnum.OK.getValue());
-            ProtocolMessage<RpcResponse> responseProtocolMessage = new ProtocolMessage<>(header,rpcResponse);
             try{
-                Buffer encode = ProtocolMessageEncoder.encode(responseProtocolMessage);
-                socket.write(encode);
-            }catch (IOException e){
-                throw new RuntimeException("encode protocol message error",e);
+                serviceExecutor.execute(invoker.getExecutionMode(), () -> doInvoke(socket, header, rpcRequest, invoker, deadlineMillis));
+            }catch(RejectedExecutionException e){
+                RpcResponse rpcResponse = new RpcResponse();
+                rpcResponse.setMessage("服务端繁忙，请求被拒绝：" + e.getMessage());
+                doResponse(socket, header, rpcResponse, ProtocolMessageStatusEnum.REJECTED);
             }
         });
         socket.handler(bufferHandlerWrapper);
+        watchIdle(socket, lastReadMillis);
+    }
+
+    /**
+     * 空闲检测：超过心跳超时时间没有收到数据则关闭连接
+     * 读时间只在事件循环线程上更新和检查，不需要同步
+     */
+    private void watchIdle(NetSocket socket, long[] lastReadMillis) {
+        HeartbeatConfig heartbeatConfig = RpcApplication.getRpcConfig().getHeartbeatConfig();
+        Context context = Vertx.currentContext();
+        if (heartbeatConfig == null || !heartbeatConfig.isEnabled() || context == null) {
+            return;
+        }
+        Vertx vertx = context.owner();
+        long timerId = vertx.setPeriodic(heartbeatConfig.getIntervalMillis(), id -> {
+            long idleMillis = System.currentTimeMillis() - lastReadMillis[0];
+            if (idleMillis >= heartbeatConfig.getTimeoutMillis()) {
+                log.warn("心跳超时，{} ms 未收到数据，关闭连接：{}", idleMillis, socket.remoteAddress());
+                vertx.cancelTimer(id);
+                socket.close();
+            }
+        });
+        socket.closeHandler(v -> vertx.cancelTimer(timerId));
+    }
+
+    /**
+     * 处理方法 id 握手：确认服务方法存在、双方计算的 id 一致且没有哈希冲突后登记该 id
+     */
+    private void doHandshake(NetSocket socket, ProtocolMessage.Header header, RpcRequest signature) {
+        RpcResponse rpcResponse = new RpcResponse();
+        try {
+            ServiceInvokerRegistry.getInvoker(signature);
+            int methodId = MethodIdRegistry.register(signature);
+            if (methodId == 0 || methodId != signature.getMethodId()) {
+                throw new RpcException("方法 id 不可用：" + signature.getServiceName() + "#" + signature.getMethodName());
+            }
+            rpcResponse.setMessage("ok");
+        } catch (Exception e) {
+            rpcResponse.setMessage(e.getMessage());
+            rpcResponse.setException(e);
+        }
+        doResponse(socket, header, rpcResponse);
+    }
+
+    /**
+     * 调用服务方法并写回响应
+     * @param deadlineMillis 截止时间（毫秒时间戳），0 表示不限
+     */
+    private void doInvoke(NetSocket socket, ProtocolMessage.Header header, RpcRequest rpcRequest, ServiceInvoker invoker, long deadlineMillis) {
+        RpcResponse rpcResponse = new RpcResponse();
+        if (deadlineMillis > 0 && System.currentTimeMillis() >= deadlineMillis) {
+            //调用方已放弃等待，不再执行
+            RpcTimeoutException e = new RpcTimeoutException("请求在执行前已超时：" + rpcRequest.getServiceName() + "#" + rpcRequest.getMethodName());
+            rpcResponse.setMessage(e.getMessage());
+            rpcResponse.setException(e);
+            doResponse(socket, header, rpcResponse);
+            return;
+        }
+        //服务方法内发起的下游调用沿用本请求的截止时间
+        DeadlineContext.set(deadlineMillis);
+        try{
+            Object result = invoker.invoke(rpcRequest.getArgs());
+            //异步服务：等结果完成后再响应，不阻塞执行线程
+            if (result instanceof CompletionStage<?> stage) {
+                stage.whenComplete((value, e) -> {
+                    if (e != null) {
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        rpcResponse.setMessage(cause.getMessage());
+                        rpcResponse.setException(cause instanceof Exception ? (Exception) cause : new RuntimeException(cause));
+                    } else {
+                        rpcResponse.setData(value);
+                        //结果为 null 时也要给出类型，消费端按类型还原数据
+                        rpcResponse.setDataType(value == null ? Object.class : value.getClass());
+                        rpcResponse.setMessage("ok");
+                    }
+                    doResponse(socket, header, rpcResponse);
+                });
+                return;
+            }
+            //封装返回结果
+            rpcResponse.setData(result);
+            rpcResponse.setDataType(invoker.getMethod().getReturnType());
+            rpcResponse.setMessage("ok");
+        }catch(Exception e){
+           log.error("服务调用失败：{}#{}", rpcRequest.getServiceName(), rpcRequest.getMethodName(), e);
+           rpcResponse.setMessage(e.getMessage());
+           rpcResponse.setException(e);
+        }finally{
+            DeadlineContext.clear();
+        }
+        doResponse(socket, header, rpcResponse);
+    }
+
+    private void doResponse(NetSocket socket, ProtocolMessage.Header header, RpcResponse rpcResponse) {
+        doResponse(socket, header, rpcResponse, ProtocolMessageStatusEnum.OK);
+    }
+
+    /**
+     * 编码并写回 RPC 响应，NetSocket 的写操作线程安全，可以在工作线程上调用
+     * @param socket 连接
+     * @param header 请求消息头（复用请求 id）
+     * @param rpcResponse 响应
+     * @param status 响应状态
+     */
+    private void doResponse(NetSocket socket, ProtocolMessage.Header header, RpcResponse rpcResponse, ProtocolMessageStatusEnum status) {
+        header.setType((byte)ProtocolMessageTypeEnum.RESPONSE.getKey());
+        header.setTimeout(0);
+        //按消费者在请求头中声明的算法压缩响应；未声明时只有显式开启 defaultResponseCompression 才使用本端配置
+        RpcConfig rpcConfig = RpcApplication.getRpcConfig();
+        if (header.getCompressor() == ProtocolMessageCompressorEnum.NONE.getKey() && rpcConfig.isDefaultResponseCompression()) {
+            header.setCompressor(ProtocolMessageCompressorEnum.getKeyByValue(rpcConfig.getCompressor()));
+        }
+        header.setStatus((byte)status.getValue());
+        ProtocolMessage<RpcResponse> responseProtocolMessage = new ProtocolMessage<>(header,rpcResponse);
+        try{
+            ByteBuf byteBuf = ProtocolMessageEncoder.encodePooled(responseProtocolMessage);
+            // 写出完成后归还池化缓冲区
+            socket.write(BufferUtil.toBuffer(byteBuf), ar -> byteBuf.release());
+        }catch (IOException e){
+            throw new RuntimeException("encode protocol message error",e);
+        }
     }
 
 }
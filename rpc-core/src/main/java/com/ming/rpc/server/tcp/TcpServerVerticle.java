@@ -0,0 +1,61 @@
+package com.ming.rpc.server.tcp;
+
+import com.ming.rpc.config.TcpServerConfig;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Promise;
+import io.vertx.core.net.NetServer;
+import io.vertx.core.net.NetServerOptions;
+
+/**
+ * TCP 服务端 Verticle
+ * 每个实例运行在自己的事件循环上，多个实例监听同一端口时由 Vert.x 在实例之间分摊新连接
+ */
+public class TcpServerVerticle extends AbstractVerticle {
+
+    private final int port;
+
+    private final TcpServerConfig tcpServerConfig;
+
+    private NetServer netServer;
+
+    public TcpServerVerticle(int port, TcpServerConfig tcpServerConfig) {
+        this.port = port;
+        this.tcpServerConfig = tcpServerConfig;
+    }
+
+    @Override
+    public void start(Promise<Void> startPromise) {
+        netServer = vertx.createNetServer(buildOptions());
+        netServer.connectHandler(new TcpServerHandler());
+        netServer.listen(port, ar -> {
+            if (ar.succeeded()) {
+                startPromise.complete();
+            } else {
+                startPromise.fail(ar.cause());
+            }
+        });
+    }
+
+    @Override
+    public void stop(Promise<Void> stopPromise) {
+        if (netServer == null) {
+            stopPromise.complete();
+            return;
+        }
+        netServer.close(ar -> stopPromise.complete());
+    }
+
+    private NetServerOptions buildOptions() {
+        NetServerOptions options = new NetServerOptions()
+                .setTcpNoDelay(tcpServerConfig.isTcpNoDelay())
+                .setReusePort(tcpServerConfig.isReusePort());
+        if (tcpServerConfig.getReceiveBufferSize() > 0) {
+            options.setReceiveBufferSize(tcpServerConfig.getReceiveBufferSize());
+        }
+        if (tcpServerConfig.getSendBufferSize() > 0) {
+            options.setSendBufferSize(tcpServerConfig.getSendBufferSize());
+        }
+        return options;
+    }
+}
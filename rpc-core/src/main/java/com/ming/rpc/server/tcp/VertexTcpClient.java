@@ -1,91 +1,200 @@
 package com.ming.rpc.server.tcp;
 
-import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.ming.rpc.RpcApplication;
+import com.ming.rpc.config.HeartbeatConfig;
+import com.ming.rpc.config.RpcConfig;
+import com.ming.rpc.exception.RpcTimeoutException;
+import com.ming.rpc.loadbalancer.NodeStats;
+import com.ming.rpc.loadbalancer.NodeStatsRegistry;
 import com.ming.rpc.model.RpcRequest;
 import com.ming.rpc.model.RpcResponse;
 import com.ming.rpc.model.ServiceMetaInfo;
 import com.ming.rpc.protocol.ProtocolConstant;
 import com.ming.rpc.protocol.ProtocolMessage;
-import com.ming.rpc.protocol.ProtocolMessageDecoder;
-import com.ming.rpc.protocol.ProtocolMessageEncoder;
+import com.ming.rpc.protocol.ProtocolMessageCompressorEnum;
 import com.ming.rpc.protocol.ProtocolMessageSerializerEnum;
 import com.ming.rpc.protocol.ProtocolMessageTypeEnum;
+import com.ming.rpc.utils.RpcTimer;
 
-import cn.hutool.core.util.IdUtil;
-
+import io.netty.util.Timeout;
 import io.vertx.core.Vertx;
-import io.vertx.core.buffer.Buffer;
 import io.vertx.core.net.NetClient;
-import io.vertx.core.net.NetSocket;
 
 /**
  * Vertx 实现的 TCP 客户端
+ * 全局共享一个 Vertx 实例和 NetClient，每个服务节点维护一个长连接池，多个请求复用同一条连接
  */
 public class VertexTcpClient {
+
+    private static volatile Vertx vertx;
+
+    private static volatile NetClient netClient;
+
+    /**
+     * 连接池：服务节点键名 => 连接池
+     */
+    private static final Map<String, TcpConnectionPool> CONNECTION_POOLS = new ConcurrentHashMap<>();
+
+    /**
+     * 请求 id 生成器，响应按连接内的请求 id 匹配，进程内唯一即可
+     */
+    private static final AtomicLong REQUEST_ID = new AtomicLong(0);
+
     /**
-     * 发送请求
+     * 发送请求（同步等待响应）
      * @param rpcRequest
      * @param serviceMetaInfo
      * @return
      * @throws InterruptedException
      * @throws ExecutionException
      */
-    public static RpcResponse doRequest(RpcRequest rpcRequest,ServiceMetaInfo serviceMetaInfo) throws InterruptedException,ExecutionException{
-
-        //发送TCP请求
-        Vertx vertx = Vertx.vertx();
-        NetClient netClient = vertx.createNetClient();
-        CompletableFuture<RpcResponse> responseFuture = new CompletableFuture<>();
-        netClient.connect(serviceMetaInfo.getServicePort(), serviceMetaInfo.getServiceHost(),
-        result -> {
-            if(!result.succeeded()){
-                System.err.println("connect to server failed");
-                return;
-            }
-            NetSocket socket = result.result();
-            //发送数据
-            //构造消息
-            ProtocolMessage<RpcRequest> protocolMessage = new ProtocolMessage<>();
-            ProtocolMessage.Header header = new ProtocolMessage.Header();
-            header.setMagic(ProtocolConstant.PROTOCOL_MAGIC);
-            header.setVersion(ProtocolConstant.PROTOCOL_VERSION);
-            header.setSerializer((byte)ProtocolMessageSerializerEnum.getEnumByValue(RpcApplication.getRpcConfig().getSerializer()).getKey());
-            header.setType((byte)ProtocolMessageTypeEnum.REQUEST.getKey());
-            //生成全局请求ID
-            header.setRequestId(IdUtil.getSnowflakeNextId());
-            protocolMessage.setHeader(header);
-            protocolMessage.setBody(rpcRequest);
-
-            //编码请求
-            try{
-                Buffer encodeBuffer = ProtocolMessageEncoder.encode(protocolMessage);
-                socket.write(encodeBuffer);
-            } catch(IOException e){
-                throw new RuntimeException("encode protocol message error",e);
-            }
+    public static RpcResponse doRequest(RpcRequest rpcRequest, ServiceMetaInfo serviceMetaInfo) throws InterruptedException, ExecutionException {
+        return doRequestAsync(rpcRequest, serviceMetaInfo).get();
+    }
 
-            //接受响应
-            TcpBufferHandlerWrapper bufferHandlerWrapper  = new TcpBufferHandlerWrapper(
-                buffer -> {
-                    try{
-                        ProtocolMessage<RpcResponse> rpcResponseProtocolMessage = (
-                            ProtocolMessage<RpcResponse>
-                         ) ProtocolMessageDecoder.decode(buffer);
-                         responseFuture.complete(rpcResponseProtocolMessage.getBody());
-                    }catch(IOException e){
-                        throw new RuntimeException("decode protocol message error",e);
+    /**
+     * 发送请求（异步），使用全局配置的调用超时
+     * @param rpcRequest 请求
+     * @param serviceMetaInfo 服务节点
+     * @return 响应 Future，在 Vert.x 事件循环线程上完成
+     */
+    public static CompletableFuture<RpcResponse> doRequestAsync(RpcRequest rpcRequest, ServiceMetaInfo serviceMetaInfo) {
+        return doRequestAsync(rpcRequest, serviceMetaInfo, RpcApplication.getRpcConfig().getRequestTimeout());
+    }
+
+    /**
+     * 发送请求（异步）
+     * 超时由全局时间轮计时，覆盖获取连接和等待响应的全过程；剩余时间写入消息头，提供者据此跳过调用方已放弃的请求
+     * @param rpcRequest 请求
+     * @param serviceMetaInfo 服务节点
+     * @param timeoutMillis 超时（毫秒），0 表示不限
+     * @return 响应 Future，在 Vert.x 事件循环线程或定时器线程上完成，超时时以 {@link RpcTimeoutException} 失败；
+     *         可以取消，取消后不再等待响应
+     */
+    public static CompletableFuture<RpcResponse> doRequestAsync(RpcRequest rpcRequest, ServiceMetaInfo serviceMetaInfo, long timeoutMillis) {
+        //构造消息
+        ProtocolMessage<RpcRequest> protocolMessage = new ProtocolMessage<>();
+        ProtocolMessage.Header header = new ProtocolMessage.Header();
+        header.setMagic(ProtocolConstant.PROTOCOL_MAGIC);
+        header.setVersion(ProtocolConstant.PROTOCOL_VERSION);
+        header.setSerializer((byte) ProtocolMessageSerializerEnum.getEnumByValue(RpcApplication.getRpcConfig().getSerializer()).getKey());
+        header.setCompressor(ProtocolMessageCompressorEnum.getKeyByValue(RpcApplication.getRpcConfig().getCompressor()));
+        header.setType((byte) ProtocolMessageTypeEnum.REQUEST.getKey());
+        header.setRequestId(nextRequestId());
+        protocolMessage.setHeader(header);
+        protocolMessage.setBody(rpcRequest);
+
+        //记录节点延迟和未完成请求数，供自适应负载均衡使用
+        NodeStats nodeStats = NodeStatsRegistry.get(serviceMetaInfo);
+        long startNanos = nodeStats.start();
+        CompletableFuture<RpcResponse> resultFuture = new CompletableFuture<>();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        //超时后的重试、故障转移会在完成 Future 的线程上继续执行，不能占用定时器线程
+        Timeout timeout = timeoutMillis <= 0 ? null : RpcTimer.scheduleAsync(() -> resultFuture.completeExceptionally(new RpcTimeoutException(
+                "调用超时（" + timeoutMillis + " ms）：" + serviceMetaInfo.getServiceNodeKey() + "，请求 id：" + header.getRequestId())),
+                timeoutMillis);
+        getConnectionPool(serviceMetaInfo).acquire()
+                .thenCompose(connection -> {
+                    if (resultFuture.isDone()) {
+                        return CompletableFuture.failedFuture(new RpcTimeoutException("调用已超时或被取消，未发出请求"));
                     }
-                }
-            );
-            socket.handler(bufferHandlerWrapper);
+                    if (timeout != null) {
+                        //获取连接也会耗时，消息头中只携带剩余时间
+                        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+                        if (remainingMillis <= 0) {
+                            return CompletableFuture.failedFuture(new RpcTimeoutException("调用超时（" + timeoutMillis + " ms），未发出请求"));
+                        }
+                        header.setTimeout((int) Math.min(remainingMillis, Integer.MAX_VALUE));
+                    }
+                    CompletableFuture<RpcResponse> responseFuture = connection.send(protocolMessage);
+                    //超时或被取消（如对冲请求中落后的一方）后不再等待响应，迟到的响应直接丢弃；
+                    //必须在 send 登记请求之后注册，否则先于登记触发的超时会清理落空，请求永远留在连接上
+                    resultFuture.whenComplete((response, e) -> {
+                        if (e instanceof RpcTimeoutException || e instanceof CancellationException) {
+                            connection.abandon(header.getRequestId());
+                        }
+                    });
+                    return responseFuture;
+                })
+                .whenComplete((response, e) -> {
+                    if (e != null) {
+                        resultFuture.completeExceptionally(e);
+                    } else {
+                        resultFuture.complete(response);
+                    }
+                });
+        //返回原始 Future，调用方取消时能直接作用到本次请求；被取消时按已耗时计入延迟
+        resultFuture.whenComplete((response, e) -> {
+            if (timeout != null) {
+                timeout.cancel();
+            }
+            nodeStats.finish(startNanos, e == null || e instanceof CancellationException);
         });
-        RpcResponse rpcResponse = responseFuture.get();
-        netClient.close();
-        return rpcResponse;
+        return resultFuture;
+    }
+
+    /**
+     * 生成请求 id
+     */
+    static long nextRequestId() {
+        return REQUEST_ID.incrementAndGet();
+    }
+
+    /**
+     * 关闭所有连接并释放 Vertx 资源
+     */
+    public static synchronized void destroy() {
+        CONNECTION_POOLS.values().forEach(TcpConnectionPool::close);
+        CONNECTION_POOLS.clear();
+        if (netClient != null) {
+            netClient.close();
+            netClient = null;
+        }
+        if (vertx != null) {
+            vertx.close();
+            vertx = null;
+        }
+    }
+
+    /**
+     * 获取服务节点对应的连接池
+     */
+    private static TcpConnectionPool getConnectionPool(ServiceMetaInfo serviceMetaInfo) {
+        String serviceNodeKey = serviceMetaInfo.getServiceNodeKey();
+        TcpConnectionPool pool = CONNECTION_POOLS.get(serviceNodeKey);
+        if (pool != null) {
+            return pool;
+        }
+        NetClient client = getNetClient();
+        RpcConfig rpcConfig = RpcApplication.getRpcConfig();
+        HeartbeatConfig heartbeatConfig = rpcConfig.getHeartbeatConfig();
+        //心跳超时的节点暂时从负载均衡候选中剔除
+        Runnable onHeartbeatTimeout = () -> NodeStatsRegistry.get(serviceMetaInfo).markUnhealthy(heartbeatConfig.getEvictMillis());
+        return CONNECTION_POOLS.computeIfAbsent(serviceNodeKey,
+                key -> new TcpConnectionPool(client, serviceMetaInfo.getServiceHost(), serviceMetaInfo.getServicePort(),
+                        rpcConfig.getConnectionsPerNode(), vertx, heartbeatConfig, onHeartbeatTimeout));
+    }
+
+    /**
+     * 获取共享的 NetClient，双检锁懒加载
+     */
+    private static NetClient getNetClient() {
+        if (netClient == null) {
+            synchronized (VertexTcpClient.class) {
+                if (netClient == null) {
+                    vertx = Vertx.vertx();
+                    netClient = vertx.createNetClient();
+                }
+            }
+        }
+        return netClient;
     }
 }
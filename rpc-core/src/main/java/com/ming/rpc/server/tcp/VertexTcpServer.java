@@ -1,30 +1,81 @@
 package com.ming.rpc.server.tcp;
+import java.util.concurrent.CompletableFuture;
+
+import com.ming.rpc.RpcApplication;
+import com.ming.rpc.config.TcpServerConfig;
+import com.ming.rpc.server.invoker.ServiceExecutor;
+
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Vertx;
-import io.vertx.core.net.NetServer;
+import io.vertx.core.VertxOptions;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Vert.x TCP 服务端
+ * 按配置部署多个 TcpServerVerticle 共享同一端口，新连接分摊到所有事件循环上
  */
 @Slf4j
 public class VertexTcpServer {
+
+    private final TcpServerConfig tcpServerConfig;
+
+    private Vertx vertx;
+
+    public VertexTcpServer() {
+        this(RpcApplication.getRpcConfig().getTcpServerConfig());
+    }
+
+    public VertexTcpServer(TcpServerConfig tcpServerConfig) {
+        this.tcpServerConfig = tcpServerConfig;
+    }
+
     public void doStart(int port) {
-        //创建 Vert.x 实例
-        Vertx vertx = Vertx.vertx();
-        //创建 TCP 服务端
-        NetServer netServer = vertx.createNetServer();
-        //设置 TCP 服务端监听端口
-        netServer.connectHandler(new TcpServerHandler());
-        //启动 TCP 服务端
-        netServer.listen(port, ar -> {
+        start(port);
+    }
+
+    /**
+     * 启动服务端
+     * @param port 监听端口
+     * @return 全部实例监听成功后完成
+     */
+    public CompletableFuture<Void> start(int port) {
+        int instances = Math.max(1, tcpServerConfig.getInstances());
+        //事件循环数不少于实例数，保证每个实例独占一个事件循环
+        VertxOptions vertxOptions = new VertxOptions()
+                .setPreferNativeTransport(tcpServerConfig.isPreferNativeTransport())
+                .setEventLoopPoolSize(Math.max(instances, VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE));
+        vertx = Vertx.vertx(vertxOptions);
+        //部署回调中不再读取 vertx 字段，stop() 可能已将其置空
+        boolean nativeTransport = vertx.isNativeTransportEnabled();
+        if (tcpServerConfig.isPreferNativeTransport() && !nativeTransport) {
+            log.info("原生传输不可用，使用 NIO 传输", vertx.unavailableNativeTransportCause());
+        }
+
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        vertx.deployVerticle(() -> new TcpServerVerticle(port, tcpServerConfig), new DeploymentOptions().setInstances(instances), ar -> {
             if (ar.succeeded()) {
-                log.info("TCP 服务端启动成功，监听端口：{}", port);
+                log.info("TCP 服务端启动成功，监听端口：{}，实例数：{}，原生传输：{}", port, instances, nativeTransport);
+                started.complete(null);
             } else {
                 log.error("TCP 服务端启动失败，监听端口：{}", port, ar.cause());
+                started.completeExceptionally(ar.cause());
             }
         });
+        return started;
     }
+
+    /**
+     * 关闭服务端
+     */
+    public void stop() {
+        if (vertx != null) {
+            vertx.close();
+            vertx = null;
+        }
+        ServiceExecutor.shutdownDefault();
+    }
+
     public static void main(String[] args) {
-       new VertexTcpServer().doStart(8888);
+       new VertexTcpServer(new TcpServerConfig()).doStart(8888);
     }
 }
@@ -0,0 +1,35 @@
+package com.ming.rpc.utils;
+
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Vert.x Buffer 与 Netty ByteBuf 的互相包装，均不拷贝数据
+ * Vert.x 4 把这两个方法标为过时（准备在 5 中移到内部 API），但目前没有不拷贝的公开替代；
+ * 编解码和切帧都依赖零拷贝，所以集中在这里使用并抑制过时警告，升级 Vert.x 时只需要改这一处
+ */
+public final class BufferUtil {
+
+    /**
+     * 取出 Buffer 底层的 ByteBuf
+     * @param buffer Vert.x 缓冲区
+     * @return 共享同一块内存的 ByteBuf
+     */
+    @SuppressWarnings("deprecation")
+    public static ByteBuf toByteBuf(Buffer buffer) {
+        return buffer.getByteBuf();
+    }
+
+    /**
+     * 把 ByteBuf 包装为 Buffer
+     * @param byteBuf Netty 缓冲区，引用计数不变
+     * @return 共享同一块内存的 Buffer
+     */
+    @SuppressWarnings("deprecation")
+    public static Buffer toBuffer(ByteBuf byteBuf) {
+        return Buffer.buffer(byteBuf);
+    }
+
+    private BufferUtil() {
+    }
+}
@@ -0,0 +1,50 @@
+package com.ming.rpc.utils;
+
+/**
+ * 调用截止时间上下文（服务端使用）
+ * 提供者执行服务方法期间记录当前请求的截止时间，服务方法内发起的下游调用据此收紧自己的超时，
+ * 调用方已放弃的时间不会继续向下游传递。只在执行服务方法的线程上有效，异步服务切换线程后不再传递
+ */
+public class DeadlineContext {
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    /**
+     * 设置当前线程的截止时间
+     * @param deadlineMillis 截止时间（毫秒时间戳），0 表示不限
+     */
+    public static void set(long deadlineMillis) {
+        if (deadlineMillis > 0) {
+            DEADLINE.set(deadlineMillis);
+        } else {
+            DEADLINE.remove();
+        }
+    }
+
+    /**
+     * 清除当前线程的截止时间
+     */
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    /**
+     * 结合当前线程的截止时间收紧超时
+     * @param timeoutMillis 本次调用自身的超时（毫秒），0 表示不限
+     * @return 实际使用的超时（毫秒），0 表示不限；截止时间已过时返回负数
+     */
+    public static long narrow(long timeoutMillis) {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return timeoutMillis;
+        }
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            return -1;
+        }
+        return timeoutMillis > 0 ? Math.min(timeoutMillis, remaining) : remaining;
+    }
+
+    private DeadlineContext() {
+    }
+}
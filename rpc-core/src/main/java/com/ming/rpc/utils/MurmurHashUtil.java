@@ -45,6 +45,55 @@ public final class MurmurHashUtil {
         return hash32(bytes, bytes.length, 0x9747b28c);
     }
 
+    /**
+     * 计算 int 值的哈希，结果与对其 4 字节小端序表示调用 {@link #hash32(byte[])} 相同，但不创建数组。
+     *
+     * @param value 要计算哈希的值
+     * @return 32-bit 哈希值 (int)
+     */
+    public static int hash32(int value) {
+        int h = 0x9747b28c ^ 4;
+        h = mixBlock(h, value);
+        return fmix(h);
+    }
+
+    /**
+     * 计算 long 值的哈希，结果与对其 8 字节小端序表示调用 {@link #hash32(byte[])} 相同，但不创建数组。
+     *
+     * @param value 要计算哈希的值
+     * @return 32-bit 哈希值 (int)
+     */
+    public static int hash32(long value) {
+        int h = 0x9747b28c ^ 8;
+        h = mixBlock(h, (int) value);
+        h = mixBlock(h, (int) (value >>> 32));
+        return fmix(h);
+    }
+
+    /**
+     * 混入一个 4 字节块
+     */
+    private static int mixBlock(int h, int k) {
+        final int m = 0x5bd1e995;
+        k *= m;
+        k ^= k >>> 24;
+        k *= m;
+        h *= m;
+        h ^= k;
+        return h;
+    }
+
+    /**
+     * 最终混合
+     */
+    private static int fmix(int h) {
+        final int m = 0x5bd1e995;
+        h ^= h >>> 13;
+        h *= m;
+        h ^= h >>> 15;
+        return h;
+    }
+
     /**
      * 计算给定数据的 MurmurHash3 32-bit 哈希值。
      *
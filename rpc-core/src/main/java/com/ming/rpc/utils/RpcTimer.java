@@ -0,0 +1,56 @@
+package com.ming.rpc.utils;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+/**
+ * 全局共享的时间轮定时器
+ * 所有调用的超时共用一个工作线程，登记和取消都是 O(1)，不为每次调用占用线程。
+ * 精度为一个刻度（10ms），只用于超时这类不要求精确的场景。
+ * {@link #schedule} 的任务在定时器线程上执行，不能阻塞，也不应做序列化、发请求这类耗时操作，否则会推迟进程内所有超时；
+ * 这类任务使用 {@link #scheduleAsync}，定时器线程只负责转交给执行器
+ */
+public class RpcTimer {
+
+    private static final HashedWheelTimer TIMER = new HashedWheelTimer(
+            new DefaultThreadFactory("rpc-timer", true), 10, TimeUnit.MILLISECONDS, 512);
+
+    /**
+     * 延迟执行任务
+     * @param task 任务
+     * @param delayMillis 延迟（毫秒）
+     * @return 定时任务，可用于取消
+     */
+    public static Timeout schedule(Runnable task, long delayMillis) {
+        return TIMER.newTimeout(timeout -> task.run(), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 延迟后在公共线程池中执行任务，定时器线程只做转交
+     * @param task 任务
+     * @param delayMillis 延迟（毫秒）
+     * @return 定时任务，可用于取消
+     */
+    public static Timeout scheduleAsync(Runnable task, long delayMillis) {
+        return scheduleAsync(task, delayMillis, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 延迟后在指定执行器中执行任务，定时器线程只做转交
+     * @param task 任务
+     * @param delayMillis 延迟（毫秒）
+     * @param executor 执行器
+     * @return 定时任务，可用于取消
+     */
+    public static Timeout scheduleAsync(Runnable task, long delayMillis, Executor executor) {
+        return TIMER.newTimeout(timeout -> executor.execute(task), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private RpcTimer() {
+    }
+}
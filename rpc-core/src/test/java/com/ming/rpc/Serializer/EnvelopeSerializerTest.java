@@ -0,0 +1,137 @@
+package com.ming.rpc.serializer;
+
+import com.ming.rpc.config.KryoConfig;
+import com.ming.rpc.exception.RpcException;
+import com.ming.rpc.model.RpcRequest;
+import com.ming.rpc.model.RpcResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 信封序列化器测试
+ */
+public class EnvelopeSerializerTest {
+
+    public static class UserDTO implements Serializable {
+        private String name;
+        private int age;
+
+        public UserDTO() {
+        }
+
+        public UserDTO(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof UserDTO other && age == other.age && Objects.equals(name, other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, age);
+        }
+    }
+
+    /**
+     * 没有 (String) 构造器的异常，无法按类名和消息还原
+     */
+    public static class NoMessageException extends Exception {
+        public NoMessageException() {
+            super("fixed");
+        }
+    }
+
+    private static RpcRequest buildRequest() {
+        List<String> tags = new ArrayList<>(List.of("a", "b"));
+        RpcRequest rpcRequest = new RpcRequest();
+        rpcRequest.setServiceName("com.ming.example.UserService");
+        rpcRequest.setMethodName("update");
+        rpcRequest.setParameterTypes(new Class[]{UserDTO.class, Object.class, long.class, String.class, byte[].class});
+        rpcRequest.setArgs(new Object[]{new UserDTO("ming", 22), tags, 5L, null, new byte[]{1, 2, 3}});
+        return rpcRequest;
+    }
+
+    @Test
+    @DisplayName("请求信封往返，声明类型和多态参数都能还原")
+    void testRequestRoundTrip() throws Exception {
+        for (Serializer valueSerializer : new Serializer[]{new KryoSerializer(new KryoConfig()), new JdkSerializer()}) {
+            EnvelopeSerializer serializer = new EnvelopeSerializer(valueSerializer);
+            RpcRequest decoded = serializer.deserialize(serializer.serialize(buildRequest()), RpcRequest.class);
+
+            assertEquals("com.ming.example.UserService", decoded.getServiceName());
+            assertEquals("update", decoded.getMethodName());
+            assertArrayEquals(buildRequest().getParameterTypes(), decoded.getParameterTypes());
+            Object[] args = decoded.getArgs();
+            assertEquals(new UserDTO("ming", 22), args[0]);
+            assertEquals(List.of("a", "b"), args[1]);
+            assertEquals(5L, args[2]);
+            assertNull(args[3]);
+            assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) args[4]);
+        }
+    }
+
+    @Test
+    @DisplayName("响应信封往返，异常按类名和消息还原类型")
+    void testResponseRoundTrip() throws Exception {
+        EnvelopeSerializer serializer = new EnvelopeSerializer(new KryoSerializer(new KryoConfig()));
+
+        RpcResponse ok = new RpcResponse();
+        ok.setData(new UserDTO("ming", 23));
+        ok.setDataType(UserDTO.class);
+        ok.setMessage("ok");
+        ok.setMessageType(RpcResponse.MessageType.SUCCESS);
+        RpcResponse decoded = serializer.deserialize(serializer.serialize(ok), RpcResponse.class);
+        assertEquals(new UserDTO("ming", 23), decoded.getData());
+        assertEquals(UserDTO.class, decoded.getDataType());
+        assertEquals(RpcResponse.MessageType.SUCCESS, decoded.getMessageType());
+
+        RpcResponse failed = new RpcResponse();
+        failed.setMessage("boom");
+        failed.setException(new IllegalStateException("boom"));
+        decoded = serializer.deserialize(serializer.serialize(failed), RpcResponse.class);
+        assertInstanceOf(IllegalStateException.class, decoded.getException());
+        assertEquals("boom", decoded.getException().getMessage());
+        assertNull(decoded.getData());
+    }
+
+    @Test
+    @DisplayName("信封载荷小于把整个请求当对象图序列化")
+    void testSmallerThanObjectGraph() throws Exception {
+        byte[] envelope = new EnvelopeSerializer(new KryoSerializer(new KryoConfig())).serialize(buildRequest());
+        byte[] kryo = new KryoSerializer(new KryoConfig()).serialize(buildRequest());
+        byte[] jdk = new JdkSerializer().serialize(buildRequest());
+        assertTrue(envelope.length < kryo.length, envelope.length + " vs " + kryo.length);
+        assertTrue(envelope.length < jdk.length, envelope.length + " vs " + jdk.length);
+    }
+
+    @Test
+    @DisplayName("无法按消息构造的异常退化为 RpcException，保留原类名")
+    void testUnconstructableExceptionFallsBack() throws Exception {
+        EnvelopeSerializer serializer = new EnvelopeSerializer(new KryoSerializer(new KryoConfig()));
+        RpcResponse failed = new RpcResponse();
+        failed.setException(new NoMessageException());
+        RpcResponse decoded = serializer.deserialize(serializer.serialize(failed), RpcResponse.class);
+        assertInstanceOf(RpcException.class, decoded.getException());
+        assertEquals(NoMessageException.class.getName() + ": fixed", decoded.getException().getMessage());
+    }
+
+    @Test
+    @DisplayName("声明长度超出实际数据时直接失败，不按声明长度分配内存")
+    void testOversizedLengthRejected() {
+        EnvelopeSerializer serializer = new EnvelopeSerializer(new KryoSerializer(new KryoConfig()));
+        //格式版本 + 消息长度 Integer.MAX_VALUE - 1（变长编码）+ 少量数据
+        byte[] forged = {2, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 'a', 'b', 'c'};
+        assertThrows(IOException.class, () -> serializer.deserialize(forged, RpcResponse.class));
+    }
+}
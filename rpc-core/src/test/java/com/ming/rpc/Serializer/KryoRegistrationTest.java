@@ -0,0 +1,128 @@
+package com.ming.rpc.serializer;
+
+import com.ming.rpc.config.KryoConfig;
+import com.ming.rpc.model.RpcRequest;
+import com.ming.rpc.model.ServiceMetaInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Kryo 注册模式与缓冲区复用测试
+ */
+public class KryoRegistrationTest {
+
+    public static class OrderDTO {
+        private long id;
+        private String owner;
+
+        public OrderDTO() {
+        }
+
+        public OrderDTO(long id, String owner) {
+            this.id = id;
+            this.owner = owner;
+        }
+    }
+
+    private static RpcRequest buildRequest() {
+        RpcRequest rpcRequest = new RpcRequest();
+        rpcRequest.setServiceName("orderService");
+        rpcRequest.setMethodName("save");
+        rpcRequest.setParameterTypes(new Class[]{OrderDTO.class});
+        rpcRequest.setArgs(new Object[]{new OrderDTO(7L, "ming")});
+        return rpcRequest;
+    }
+
+    private static KryoConfig registrationConfig(boolean required) {
+        KryoConfig kryoConfig = new KryoConfig();
+        kryoConfig.setRegistration(true);
+        kryoConfig.setRegistrationRequired(required);
+        kryoConfig.setRegisterClasses(OrderDTO.class.getName());
+        return kryoConfig;
+    }
+
+    @Test
+    @DisplayName("注册模式下载荷只写类 id，体积更小且可以还原")
+    void testRegistrationShrinksPayload() throws Exception {
+        byte[] plain = new KryoSerializer(new KryoConfig()).serialize(buildRequest());
+        KryoSerializer registered = new KryoSerializer(registrationConfig(true));
+        byte[] compact = registered.serialize(buildRequest());
+        assertTrue(compact.length < plain.length, "注册模式载荷应更小：" + compact.length + " vs " + plain.length);
+
+        //另一个独立实例（模拟对端）使用相同配置即可还原
+        RpcRequest decoded = new KryoSerializer(registrationConfig(true)).deserialize(compact, RpcRequest.class);
+        assertEquals("save", decoded.getMethodName());
+        assertEquals(OrderDTO.class, decoded.getParameterTypes()[0]);
+        assertEquals("ming", ((OrderDTO) decoded.getArgs()[0]).owner);
+    }
+
+    @Test
+    @DisplayName("严格注册模式拒绝未注册的类")
+    void testRegistrationRequiredRejectsUnknownClass() {
+        KryoConfig kryoConfig = new KryoConfig();
+        kryoConfig.setRegistration(true);
+        kryoConfig.setRegistrationRequired(true);
+        KryoSerializer serializer = new KryoSerializer(kryoConfig);
+        assertThrows(IllegalArgumentException.class, () -> serializer.serialize(new OrderDTO(1L, "x")));
+    }
+
+    @Test
+    @DisplayName("用户类按类名排序，两端得到相同顺序")
+    void testUserClassesSortedByName() {
+        KryoConfig kryoConfig = new KryoConfig();
+        kryoConfig.setRegisterPackages("com.ming.rpc.model");
+        kryoConfig.setRegisterClasses(OrderDTO.class.getName());
+        List<Class<?>> classes = KryoSerializer.resolveUserClasses(kryoConfig);
+        assertTrue(classes.contains(ServiceMetaInfo.class));
+        assertTrue(classes.contains(OrderDTO.class));
+        for (int i = 1; i < classes.size(); i++) {
+            assertTrue(classes.get(i - 1).getName().compareTo(classes.get(i).getName()) < 0);
+        }
+    }
+
+    @Test
+    @DisplayName("池中复用的缓冲区在多次调用、超过初始大小时结果正确")
+    void testBufferReuse() throws Exception {
+        KryoConfig kryoConfig = new KryoConfig();
+        kryoConfig.setBufferSize(16);
+        KryoSerializer serializer = new KryoSerializer(kryoConfig);
+        String big = "x".repeat(1000);
+        for (String value : new String[]{"a", big, "b"}) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            serializer.serialize(value, outputStream);
+            assertEquals(value, serializer.deserialize(new ByteArrayInputStream(outputStream.toByteArray()), String.class));
+            assertEquals(value, serializer.deserialize(serializer.serialize(value), String.class));
+        }
+    }
+
+    @Test
+    @DisplayName("每个请求一个虚拟线程时并发序列化结果正确")
+    void testVirtualThreadsShareSerializer() throws Exception {
+        KryoSerializer serializer = new KryoSerializer(registrationConfig(true));
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                String owner = "owner-" + i;
+                results.add(executor.submit(() -> {
+                    RpcRequest rpcRequest = buildRequest();
+                    rpcRequest.setArgs(new Object[]{new OrderDTO(1L, owner)});
+                    byte[] bytes = serializer.serialize(rpcRequest);
+                    return ((OrderDTO) serializer.deserialize(bytes, RpcRequest.class).getArgs()[0]).owner;
+                }));
+            }
+        }
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals("owner-" + i, results.get(i).get());
+        }
+    }
+}
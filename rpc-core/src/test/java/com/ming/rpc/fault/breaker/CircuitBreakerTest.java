@@ -0,0 +1,141 @@
+package com.ming.rpc.fault.breaker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.ming.rpc.RpcApplication;
+import com.ming.rpc.config.CircuitBreakerConfig;
+import com.ming.rpc.config.RpcConfig;
+import com.ming.rpc.exception.RpcCircuitBreakerException;
+import com.ming.rpc.model.ServiceMetaInfo;
+
+/**
+ * 熔断器测试
+ */
+public class CircuitBreakerTest {
+
+    private static CircuitBreakerConfig config() {
+        CircuitBreakerConfig config = new CircuitBreakerConfig();
+        config.setMinimumCalls(10);
+        config.setFailureRateThreshold(50);
+        config.setSlowCallDurationMillis(100);
+        config.setSlowCallRateThreshold(80);
+        config.setOpenDurationMillis(200);
+        config.setHalfOpenPermittedCalls(2);
+        return config;
+    }
+
+    @Test
+    @DisplayName("失败率达到阈值后打开，到期半开，探测全部成功后关闭")
+    void testStateTransitions() throws Exception {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("node", config());
+        for (int i = 0; i < 9; i++) {
+            circuitBreaker.record(i % 2 == 0, 1);
+        }
+        assertEquals(CircuitBreakerStateEnum.CLOSED, circuitBreaker.getState(), "调用数不足时不计算失败率");
+        circuitBreaker.record(false, 1);
+        assertEquals(CircuitBreakerStateEnum.OPEN, circuitBreaker.getState());
+
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> rejected = circuitBreaker.execute(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("ok");
+        });
+        ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(RpcCircuitBreakerException.class, e.getCause());
+        assertEquals(0, calls.get(), "熔断时不应发起调用");
+        assertFalse(circuitBreaker.isCallPermitted());
+
+        Thread.sleep(250);
+        assertTrue(circuitBreaker.isCallPermitted());
+        assertTrue(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreakerStateEnum.HALF_OPEN, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire(), "半开状态只放行指定数量的探测");
+        circuitBreaker.record(true, 1);
+        circuitBreaker.record(true, 1);
+        assertEquals(CircuitBreakerStateEnum.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("半开探测失败重新打开；慢调用率达到阈值同样打开")
+    void testReopenAndSlowCalls() throws Exception {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("node", config());
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.record(true, 150);
+        }
+        assertEquals(CircuitBreakerStateEnum.OPEN, circuitBreaker.getState(), "全部为慢调用应打开");
+
+        Thread.sleep(250);
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.record(false, 1);
+        assertEquals(CircuitBreakerStateEnum.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("半开探测被取消时归还许可，节点仍能恢复")
+    void testCancelledProbeReleasesPermit() throws Exception {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("node", config());
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.record(false, 1);
+        }
+        assertEquals(CircuitBreakerStateEnum.OPEN, circuitBreaker.getState());
+
+        Thread.sleep(250);
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        assertSame(first, circuitBreaker.execute(() -> first));
+        assertSame(second, circuitBreaker.execute(() -> second));
+        assertEquals(CircuitBreakerStateEnum.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.isCallPermitted(), "探测许可已用完");
+
+        //对冲请求中落后的一方被取消
+        first.cancel(false);
+        assertTrue(circuitBreaker.isCallPermitted(), "取消的探测应归还许可");
+        second.complete("ok");
+        assertEquals("ok", circuitBreaker.execute(() -> CompletableFuture.completedFuture("ok")).get());
+        assertEquals(CircuitBreakerStateEnum.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("已熔断的节点不参与负载均衡选择")
+    void testFilterAvailable() throws Exception {
+        //通过反射设置配置，避免初始化注册中心
+        Field configField = RpcApplication.class.getDeclaredField("rpcConfig");
+        configField.setAccessible(true);
+        configField.set(null, new RpcConfig());
+        ServiceMetaInfo healthy = node(9201);
+        ServiceMetaInfo broken = node(9202);
+        try {
+            CircuitBreaker circuitBreaker = CircuitBreakerRegistry.get(broken);
+            for (int i = 0; i < 100; i++) {
+                circuitBreaker.record(false, 1);
+            }
+            assertEquals(CircuitBreakerStateEnum.OPEN, circuitBreaker.getState());
+            assertEquals(List.of(healthy), CircuitBreakerRegistry.filterAvailable(List.of(broken, healthy)));
+            assertTrue(CircuitBreakerRegistry.filterAvailable(List.of(broken)).isEmpty());
+            List<ServiceMetaInfo> allHealthy = List.of(healthy);
+            assertSame(allHealthy, CircuitBreakerRegistry.filterAvailable(allHealthy));
+        } finally {
+            CircuitBreakerRegistry.remove(broken.getServiceNodeKey());
+            RpcApplication.destroy();
+        }
+    }
+
+    private static ServiceMetaInfo node(int port) {
+        ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
+        serviceMetaInfo.setServiceName("breakerService");
+        serviceMetaInfo.setServiceHost("127.0.0.1");
+        serviceMetaInfo.setServicePort(port);
+        return serviceMetaInfo;
+    }
+}
@@ -0,0 +1,97 @@
+package com.ming.rpc.fault.bulkhead;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 舱壁隔离测试
+ */
+public class BulkheadTest {
+
+    @AfterEach
+    public void tearDown() {
+        BulkheadRegistry.clear();
+    }
+
+    /**
+     * 达到上限后立即拒绝，归还名额后可以再次获取
+     */
+    @Test
+    public void testAcquireAndRelease() {
+        Bulkhead bulkhead = new Bulkhead("testService", 2);
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.tryAcquire());
+        assertFalse(bulkhead.tryAcquire());
+        assertEquals(2, bulkhead.getInFlight());
+        assertEquals(1, bulkhead.getRejectedCount());
+
+        bulkhead.release();
+        assertTrue(bulkhead.tryAcquire());
+        assertEquals(2, bulkhead.getInFlight());
+    }
+
+    /**
+     * 并发获取时在途调用数从不超过上限
+     */
+    @Test
+    public void testConcurrentLimit() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("testService", 4);
+        AtomicInteger maxObserved = new AtomicInteger();
+        AtomicInteger admitted = new AtomicInteger();
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        for (int j = 0; j < 1000; j++) {
+                            if (bulkhead.tryAcquire()) {
+                                admitted.incrementAndGet();
+                                maxObserved.accumulateAndGet(bulkhead.getInFlight(), Math::max);
+                                bulkhead.release();
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            start.countDown();
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(maxObserved.get() <= 4, "max in flight: " + maxObserved.get());
+        assertEquals(0, bulkhead.getInFlight());
+        assertEquals(threads * 1000L, admitted.get() + bulkhead.getRejectedCount());
+    }
+
+    /**
+     * 不限并发时不创建舱壁；同一个服务共用一个舱壁
+     */
+    @Test
+    public void testRegistry() throws NoSuchMethodException {
+        assertSame(Bulkhead.UNLIMITED, BulkheadRegistry.forService("testService:1.0", 0));
+        assertSame(Bulkhead.UNLIMITED, BulkheadRegistry.forMethod(Object.class.getMethod("toString"), 0));
+
+        Bulkhead bulkhead = BulkheadRegistry.forService("testService:1.0", 8);
+        assertSame(bulkhead, BulkheadRegistry.forService("testService:1.0", 8));
+        assertEquals(8, bulkhead.getMaxConcurrentCalls());
+        Bulkhead methodBulkhead = BulkheadRegistry.forMethod(Object.class.getMethod("toString"), 2);
+        assertEquals("java.lang.Object#toString", methodBulkhead.getName());
+        assertNotSame(bulkhead, methodBulkhead);
+    }
+}
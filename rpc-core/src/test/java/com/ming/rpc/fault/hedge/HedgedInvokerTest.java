@@ -0,0 +1,126 @@
+package com.ming.rpc.fault.hedge;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.ming.rpc.config.HedgeConfig;
+import com.ming.rpc.exception.RpcException;
+import com.ming.rpc.fault.retry.RetryBudget;
+import com.ming.rpc.model.RpcResponse;
+
+/**
+ * 对冲请求测试
+ */
+public class HedgedInvokerTest {
+
+    private static HedgeConfig config() {
+        HedgeConfig hedgeConfig = new HedgeConfig();
+        hedgeConfig.setDelayPercentile(95);
+        hedgeConfig.setMinDelayMillis(1);
+        hedgeConfig.setMinSamples(10);
+        return hedgeConfig;
+    }
+
+    /**
+     * 预先积累延迟约 5ms 的样本
+     */
+    private static LatencyHistogram warmHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 100; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        return histogram;
+    }
+
+    private static RpcResponse response(String message) {
+        return RpcResponse.builder().message(message).build();
+    }
+
+    @Test
+    @DisplayName("百分位估算落在真实值所在的桶内")
+    void testPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(-1, histogram.percentileMillis(95, 10), "样本不足时不估算");
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        long p95 = histogram.percentileMillis(95, 10);
+        assertTrue(p95 >= 95 && p95 <= 120, "p95=" + p95);
+        long p50 = histogram.percentileMillis(50, 10);
+        assertTrue(p50 >= 50 && p50 <= 63, "p50=" + p50);
+    }
+
+    @Test
+    @DisplayName("首个请求超过对冲延迟未响应时发出对冲请求，先成功的生效，落后的被取消")
+    void testHedgeWins() throws Exception {
+        CompletableFuture<RpcResponse> stalled = new CompletableFuture<>();
+        AtomicInteger backupCalls = new AtomicInteger();
+        CompletableFuture<RpcResponse> result = HedgedInvoker.invoke(() -> stalled, () -> {
+            backupCalls.incrementAndGet();
+            return CompletableFuture.completedFuture(response("backup"));
+        }, warmHistogram(), config(), new RetryBudget(0.1, 10));
+
+        assertEquals("backup", result.get(2, TimeUnit.SECONDS).getMessage());
+        assertEquals(1, backupCalls.get());
+        assertTrue(stalled.isCancelled(), "落后的请求应被取消");
+    }
+
+    @Test
+    @DisplayName("首个请求及时响应或对冲预算耗尽时不发对冲请求")
+    void testNoHedge() throws Exception {
+        AtomicInteger backupCalls = new AtomicInteger();
+        CompletableFuture<RpcResponse> fast = HedgedInvoker.invoke(() -> CompletableFuture.completedFuture(response("primary")), () -> {
+            backupCalls.incrementAndGet();
+            return CompletableFuture.completedFuture(response("backup"));
+        }, warmHistogram(), config(), new RetryBudget(0.1, 10));
+        assertEquals("primary", fast.get(2, TimeUnit.SECONDS).getMessage());
+
+        RetryBudget exhausted = new RetryBudget(0.01, 1);
+        assertTrue(exhausted.tryAcquire());
+        CompletableFuture<RpcResponse> slowPrimary = new CompletableFuture<>();
+        CompletableFuture<RpcResponse> result = HedgedInvoker.invoke(() -> slowPrimary, () -> {
+            backupCalls.incrementAndGet();
+            return CompletableFuture.completedFuture(response("backup"));
+        }, warmHistogram(), config(), exhausted);
+        Thread.sleep(100);
+        assertFalse(result.isDone());
+        slowPrimary.complete(response("primary"));
+        assertEquals("primary", result.get(2, TimeUnit.SECONDS).getMessage());
+        assertEquals(0, backupCalls.get());
+    }
+
+    @Test
+    @DisplayName("对冲预算不足时以首个请求的结果为准，首个请求失败时随之失败")
+    void testNoBudgetFollowsPrimary() {
+        RetryBudget exhausted = new RetryBudget(0.01, 1);
+        assertTrue(exhausted.tryAcquire());
+        CompletableFuture<RpcResponse> primary = new CompletableFuture<>();
+        CompletableFuture<RpcResponse> result = HedgedInvoker.invoke(() -> primary,
+                () -> CompletableFuture.completedFuture(response("backup")),
+                warmHistogram(), config(), exhausted);
+        assertThrows(Exception.class, () -> result.get(100, TimeUnit.MILLISECONDS), "应继续等待首个请求");
+        primary.completeExceptionally(new RpcException("primary failed"));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(2, TimeUnit.SECONDS));
+        assertEquals("primary failed", e.getCause().getMessage());
+    }
+
+    @Test
+    @DisplayName("对冲请求发出后，两份都失败才失败")
+    void testBothFail() {
+        CompletableFuture<RpcResponse> primary = new CompletableFuture<>();
+        CompletableFuture<RpcResponse> result = HedgedInvoker.invoke(() -> primary,
+                () -> CompletableFuture.failedFuture(new RpcException("backup failed")),
+                warmHistogram(), config(), new RetryBudget(0.1, 10));
+        assertThrows(Exception.class, () -> result.get(100, TimeUnit.MILLISECONDS), "只有对冲请求失败时应继续等待首个请求");
+        primary.completeExceptionally(new RpcException("primary failed"));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(2, TimeUnit.SECONDS));
+        assertEquals("primary failed", e.getCause().getMessage());
+    }
+}
@@ -0,0 +1,87 @@
+package com.ming.rpc.fault.retry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.ming.rpc.config.RetryConfig;
+import com.ming.rpc.exception.RpcTimeoutException;
+
+/**
+ * 重试预算测试
+ */
+public class RetryBudgetTest {
+
+    @Test
+    @DisplayName("令牌耗尽后压制重试，成功调用按比例补充令牌")
+    void testTokenBucket() {
+        RetryBudget budget = new RetryBudget(0.1, 2);
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+        assertEquals(1, budget.getSuppressedCount());
+
+        for (int i = 0; i < 10; i++) {
+            budget.onSuccess();
+        }
+        assertTrue(budget.tryAcquire(), "10 次成功应补充 1 次重试");
+        assertFalse(budget.tryAcquire());
+        assertEquals(2, budget.getSuppressedCount());
+
+        //令牌不超过上限
+        for (int i = 0; i < 1000; i++) {
+            budget.onSuccess();
+        }
+        assertEquals(2, budget.getAvailableRetries());
+    }
+
+    @Test
+    @DisplayName("并发申请不会超发令牌")
+    void testConcurrentAcquire() throws Exception {
+        RetryBudget budget = new RetryBudget(0.1, 100);
+        AtomicInteger granted = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 100; i++) {
+                    if (budget.tryAcquire()) {
+                        granted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(100, granted.get());
+        assertEquals(700, budget.getSuppressedCount());
+    }
+
+    @Test
+    @DisplayName("重试策略在预算不足时停止重试")
+    void testStrategyRespectsBudget() {
+        RetryConfig retryConfig = new RetryConfig();
+        retryConfig.setMaxAttempts(5);
+        retryConfig.setBaseDelayMillis(1);
+        retryConfig.setMaxDelayMillis(5);
+        RetryStrategy retryStrategy = new ExponentialBackoffRetryStrategy(retryConfig);
+        RetryBudget budget = new RetryBudget(0.1, 1);
+        AtomicInteger callCount = new AtomicInteger();
+
+        CompletableFuture<?> future = retryStrategy.doRetryAsync(() -> {
+            callCount.incrementAndGet();
+            return CompletableFuture.failedFuture(new RpcTimeoutException("timeout"));
+        }, budget);
+        assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertEquals(2, callCount.get(), "预算只够重试 1 次");
+        assertEquals(1, budget.getSuppressedCount());
+    }
+}
@@ -1,11 +1,19 @@
 package com.ming.rpc.fault.retry;
 
 import com.github.rholder.retry.RetryException;
+import com.ming.rpc.config.RetryConfig;
+import com.ming.rpc.exception.RpcException;
+import com.ming.rpc.exception.RpcTimeoutException;
 import com.ming.rpc.model.RpcResponse;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import java.net.ConnectException;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -96,6 +104,84 @@ public class RetryStrategyTest {
         assertEquals(3, callCount.get());
     }
     
+    @Test
+    @DisplayName("FixedIntervalRetryStrategy: 异步重试后成功测试")
+    void testFixedIntervalRetryAsyncAndSucceed() throws Exception {
+        RetryStrategy retryStrategy = new FixedIntervalRetryStrategy();
+        final AtomicInteger callCount = new AtomicInteger(0);
+        Supplier<CompletableFuture<RpcResponse>> supplier = () -> {
+            if (callCount.incrementAndGet() < 2) {
+                return CompletableFuture.failedFuture(new RuntimeException("transient failure"));
+            }
+            return CompletableFuture.completedFuture(RpcResponse.builder().message("success").build());
+        };
+
+        CompletableFuture<RpcResponse> future = retryStrategy.doRetryAsync(supplier);
+        // 重试等待期间调用线程不会被占用
+        assertFalse(future.isDone());
+        assertEquals("success", future.get(10, TimeUnit.SECONDS).getMessage());
+        assertEquals(2, callCount.get());
+    }
+
+    private static RetryConfig fastRetryConfig() {
+        RetryConfig retryConfig = new RetryConfig();
+        retryConfig.setMaxAttempts(3);
+        retryConfig.setBaseDelayMillis(20);
+        retryConfig.setMaxDelayMillis(50);
+        return retryConfig;
+    }
+
+    @Test
+    @DisplayName("ExponentialBackoffRetryStrategy: 可重试异常异步重试后成功")
+    void testExponentialBackoffRetryAsync() throws Exception {
+        RetryStrategy retryStrategy = new ExponentialBackoffRetryStrategy(fastRetryConfig());
+        final AtomicInteger callCount = new AtomicInteger(0);
+        Supplier<CompletableFuture<RpcResponse>> supplier = () -> {
+            if (callCount.incrementAndGet() < 3) {
+                return CompletableFuture.failedFuture(new RpcException("connect to server failed", new ConnectException("Connection refused")));
+            }
+            return CompletableFuture.completedFuture(RpcResponse.builder().message("success").build());
+        };
+
+        assertEquals("success", retryStrategy.doRetryAsync(supplier).get(5, TimeUnit.SECONDS).getMessage());
+        assertEquals(3, callCount.get());
+    }
+
+    @Test
+    @DisplayName("ExponentialBackoffRetryStrategy: 业务异常不重试，可重试异常达到次数上限后失败")
+    void testExponentialBackoffStops() throws Exception {
+        RetryStrategy retryStrategy = new ExponentialBackoffRetryStrategy(fastRetryConfig());
+        final AtomicInteger callCount = new AtomicInteger(0);
+        CompletableFuture<RpcResponse> future = retryStrategy.doRetryAsync(() -> {
+            callCount.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalArgumentException("bad argument"));
+        });
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        assertEquals(1, callCount.get());
+
+        callCount.set(0);
+        Exception timeout = assertThrows(RpcTimeoutException.class, () -> retryStrategy.doRetry(() -> {
+            callCount.incrementAndGet();
+            throw new RpcTimeoutException("timeout");
+        }));
+        assertEquals("timeout", timeout.getMessage());
+        assertEquals(3, callCount.get());
+    }
+
+    @Test
+    @DisplayName("ExponentialBackoffRetryStrategy: 退避时间在指数上限内随机且不超过最大值")
+    void testBackoffBounds() {
+        RetryConfig retryConfig = new RetryConfig();
+        retryConfig.setBaseDelayMillis(100);
+        retryConfig.setMaxDelayMillis(1000);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(ExponentialBackoffRetryStrategy.backoffMillis(retryConfig, 1) < 100);
+            assertTrue(ExponentialBackoffRetryStrategy.backoffMillis(retryConfig, 3) < 400);
+            assertTrue(ExponentialBackoffRetryStrategy.backoffMillis(retryConfig, 60) < 1000);
+        }
+    }
+
     @Test
     @DisplayName("RetryStrategyFactory: 工厂加载测试")
     void testFactory() {
@@ -104,5 +190,8 @@ public class RetryStrategyTest {
 
         RetryStrategy fixedInterval = RetryStrategyFactory.getInstance(RetryStrategyKeys.FIXED_INTERVAL);
         assertTrue(fixedInterval instanceof FixedIntervalRetryStrategy, "工厂应该为 'fixedInterval' 键返回 FixedIntervalRetryStrategy 实例");
+
+        RetryStrategy exponentialBackoff = RetryStrategyFactory.getInstance("exponentialBackoff");
+        assertTrue(exponentialBackoff instanceof ExponentialBackoffRetryStrategy);
     }
 } 
\ No newline at end of file
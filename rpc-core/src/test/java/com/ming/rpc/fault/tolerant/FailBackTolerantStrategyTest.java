@@ -10,6 +10,9 @@ import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 服务降级策略测试
@@ -31,6 +34,36 @@ class FailBackTolerantStrategyTest {
         }
     }
 
+    // 记录实例化次数的服务接口与降级实现
+    interface CountingService {
+        int count();
+    }
+
+    static class CountingServiceMock implements CountingService {
+        static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        CountingServiceMock() {
+            INSTANCES.incrementAndGet();
+        }
+
+        @Override
+        public int count() {
+            return INSTANCES.get();
+        }
+    }
+
+    // 异步接口及其降级实现
+    interface AsyncGreetingService {
+        CompletableFuture<String> sayHello(String name);
+    }
+
+    static class AsyncGreetingServiceMock implements AsyncGreetingService {
+        @Override
+        public CompletableFuture<String> sayHello(String name) {
+            return CompletableFuture.supplyAsync(() -> "Async mocked greeting for " + name);
+        }
+    }
+
     // 未提供降级实现的服务接口
     interface UnmockedService {
         void doNothing();
@@ -42,6 +75,8 @@ class FailBackTolerantStrategyTest {
         RpcApplication.init();
         RpcConfig rpcConfig = RpcApplication.getRpcConfig();
         rpcConfig.getMockServiceRegistry().put(GreetingService.class.getName(), GreetingServiceMock.class);
+        rpcConfig.getMockServiceRegistry().put(CountingService.class.getName(), CountingServiceMock.class);
+        rpcConfig.getMockServiceRegistry().put(AsyncGreetingService.class.getName(), AsyncGreetingServiceMock.class);
     }
 
     @Test
@@ -65,6 +100,25 @@ class FailBackTolerantStrategyTest {
         Assertions.assertEquals("Fallback success", response.getMessage());
     }
 
+    @Test
+    void testDoTolerant_MockInstanceReused() {
+        // 安排
+        Map<String, Object> context = new HashMap<>();
+        RpcRequest rpcRequest = new RpcRequest();
+        rpcRequest.setServiceName(CountingService.class.getName());
+        rpcRequest.setMethodName("count");
+        context.put("rpcRequest", rpcRequest);
+
+        // 行动：多次降级
+        for (int i = 0; i < 3; i++) {
+            RpcResponse response = failBackStrategy.doTolerant(context, new RuntimeException("Test exception"));
+            Assertions.assertEquals(1, response.getData());
+        }
+
+        // 断言：降级实现只实例化一次
+        Assertions.assertEquals(1, CountingServiceMock.INSTANCES.get());
+    }
+
     @Test
     void testDoTolerant_NoMockFound() {
         // 安排
@@ -81,4 +135,24 @@ class FailBackTolerantStrategyTest {
         Assertions.assertNotNull(response);
         Assertions.assertNull(response.getData()); // 表现为静默失败
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testDoTolerantAsync_UnwrapsAsyncMock() throws Exception {
+        // 安排
+        Map<String, Object> context = new HashMap<>();
+        RpcRequest rpcRequest = new RpcRequest();
+        rpcRequest.setServiceName(AsyncGreetingService.class.getName());
+        rpcRequest.setMethodName("sayHello");
+        rpcRequest.setParameterTypes(new Class[]{String.class});
+        rpcRequest.setArgs(new Object[]{"World"});
+        context.put("rpcRequest", rpcRequest);
+
+        // 行动
+        RpcResponse response = failBackStrategy.doTolerantAsync(context, new RuntimeException("Test exception"))
+                .get(5, TimeUnit.SECONDS);
+
+        // 断言：响应数据是降级 Future 的结果，而不是 Future 本身
+        Assertions.assertEquals("Async mocked greeting for World", response.getData());
+        Assertions.assertEquals(RpcResponse.MessageType.SUCCESS, response.getMessageType());
+    }
+}
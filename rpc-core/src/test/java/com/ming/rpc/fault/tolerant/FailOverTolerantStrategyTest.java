@@ -1,5 +1,6 @@
 package com.ming.rpc.fault.tolerant;
 
+import com.ming.rpc.exception.RpcBulkheadException;
 import com.ming.rpc.loadbalancer.LoadBalancer;
 import com.ming.rpc.model.RpcRequest;
 import com.ming.rpc.model.RpcResponse;
@@ -9,10 +10,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -97,4 +102,78 @@ class FailOverTolerantStrategyTest {
         Mockito.verify(loadBalancer, Mockito.never()).select(any(), any());
         Mockito.verify(retryer, Mockito.never()).doRetry(any(), any());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testDoTolerant_SkipsEveryFailedNode() {
+        // 安排：node1 首次失败，node2 故障转移时也失败，最终由 node3 成功
+        ServiceMetaInfo node1 = node("host1");
+        ServiceMetaInfo node2 = node("host2");
+        ServiceMetaInfo node3 = node("host3");
+        context.put("serviceNodeList", Arrays.asList(node1, node2, node3));
+        context.put("selectedNode", node1);
+        List<List<ServiceMetaInfo>> offered = new ArrayList<>();
+        when(loadBalancer.select(any(), any())).thenAnswer(invocation -> {
+            List<ServiceMetaInfo> candidates = invocation.getArgument(1);
+            offered.add(new ArrayList<>(candidates));
+            return candidates.get(0);
+        });
+        RpcResponse successResponse = new RpcResponse();
+        successResponse.setMessage("Success");
+        when(retryer.doRetry(rpcRequest, node2)).thenThrow(new RuntimeException("node2 down"));
+        when(retryer.doRetry(rpcRequest, node3)).thenReturn(successResponse);
+
+        // 行动
+        RpcResponse response = failOverStrategy.doTolerant(context, new RuntimeException("Initial failure"));
+
+        // 断言：失败的节点不会被再次选中
+        Assertions.assertEquals("Success", response.getMessage());
+        Assertions.assertEquals(List.of(List.of(node2, node3), List.of(node3)), offered);
+        Assertions.assertEquals(2, ((AtomicInteger) context.get("retriedCount")).get());
+    }
+
+    @Test
+    void testDoTolerantAsync_FailsOverWithoutBlocking() throws Exception {
+        ServiceMetaInfo node1 = node("host1");
+        ServiceMetaInfo node2 = node("host2");
+        ServiceMetaInfo node3 = node("host3");
+        context.put("serviceNodeList", Arrays.asList(node1, node2, node3));
+        context.put("selectedNode", node1);
+        when(loadBalancer.select(any(), any())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(1)).get(0));
+        Map<ServiceMetaInfo, AtomicInteger> calls = new ConcurrentHashMap<>();
+        FailOverTolerantStrategy.AsyncRetryer asyncRetryer = (request, node) -> {
+            calls.computeIfAbsent(node, key -> new AtomicInteger()).incrementAndGet();
+            return CompletableFuture.failedFuture(new RuntimeException(node.getServiceHost() + " down"));
+        };
+        context.put("asyncRetryer", asyncRetryer);
+
+        // 所有节点都失败时返回失败的 Future，每个剩余节点只尝试一次
+        CompletableFuture<RpcResponse> future = failOverStrategy.doTolerantAsync(context, new RuntimeException("Initial failure"));
+        Exception e = Assertions.assertThrows(Exception.class, () -> future.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals("host3 down", e.getCause().getCause().getMessage());
+        Assertions.assertNull(calls.get(node1));
+        Assertions.assertEquals(1, calls.get(node2).get());
+        Assertions.assertEquals(1, calls.get(node3).get());
+        Mockito.verify(retryer, Mockito.never()).doRetry(any(), any());
+    }
+
+    @Test
+    void testDoTolerant_NoFailoverOnBulkheadRejection() {
+        ServiceMetaInfo node1 = node("host1");
+        ServiceMetaInfo node2 = node("host2");
+        context.put("serviceNodeList", Arrays.asList(node1, node2));
+        context.put("selectedNode", node1);
+
+        // 舱壁拒绝与节点无关，直接失败
+        RpcBulkheadException rejection = new RpcBulkheadException("full");
+        Assertions.assertSame(rejection, Assertions.assertThrows(RpcBulkheadException.class,
+                () -> failOverStrategy.doTolerant(context, rejection)));
+        Mockito.verify(loadBalancer, Mockito.never()).select(any(), any());
+        Mockito.verify(retryer, Mockito.never()).doRetry(any(), any());
+    }
+
+    private static ServiceMetaInfo node(String host) {
+        ServiceMetaInfo node = new ServiceMetaInfo();
+        node.setServiceHost(host);
+        return node;
+    }
+}
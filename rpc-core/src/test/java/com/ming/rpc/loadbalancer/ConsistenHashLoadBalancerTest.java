@@ -1,13 +1,17 @@
 package com.ming.rpc.loadbalancer;
 
 import com.ming.rpc.model.ServiceMetaInfo;
-import org.junit.Assert;
-import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 一致性哈希负载均衡器测试
@@ -41,23 +45,23 @@ public class ConsistenHashLoadBalancerTest {
         // 连续调用 5 次
         ServiceMetaInfo selectedService = loadBalancer.select(requestParams, serviceMetaInfoList);
         System.out.println("Selected: " + selectedService);
-        Assert.assertNotNull(selectedService);
+        Assertions.assertNotNull(selectedService);
 
         selectedService = loadBalancer.select(requestParams, serviceMetaInfoList);
         System.out.println("Selected: " + selectedService);
-        Assert.assertNotNull(selectedService);
+        Assertions.assertNotNull(selectedService);
 
         selectedService = loadBalancer.select(requestParams, serviceMetaInfoList);
         System.out.println("Selected: " + selectedService);
-        Assert.assertNotNull(selectedService);
+        Assertions.assertNotNull(selectedService);
         
         selectedService = loadBalancer.select(requestParams, serviceMetaInfoList);
         System.out.println("Selected: " + selectedService);
-        Assert.assertNotNull(selectedService);
+        Assertions.assertNotNull(selectedService);
 
         selectedService = loadBalancer.select(requestParams, serviceMetaInfoList);
         System.out.println("Selected: " + selectedService);
-        Assert.assertNotNull(selectedService);
+        Assertions.assertNotNull(selectedService);
     }
 
     @Test
@@ -75,7 +79,90 @@ public class ConsistenHashLoadBalancerTest {
         List<ServiceMetaInfo> serviceMetaInfoList = Arrays.asList(serviceMetaInfo);
         ServiceMetaInfo selectedService = loadBalancer.select(requestParams, serviceMetaInfoList);
         System.out.println("Single Node Selected: " + selectedService);
-        Assert.assertNotNull(selectedService);
-        Assert.assertEquals(serviceMetaInfo, selectedService);
+        Assertions.assertNotNull(selectedService);
+        Assertions.assertEquals(serviceMetaInfo, selectedService);
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void selectSpreadsAndKeepsAffinity() {
+        LoadBalancer loadBalancer = new ConsistenHashLoadBalancer();
+        List<ServiceMetaInfo> serviceMetaInfoList = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
+            serviceMetaInfo.setServiceName("ringService");
+            serviceMetaInfo.setServiceVersion("1.0");
+            serviceMetaInfo.setServiceHost("10.0.0." + i);
+            serviceMetaInfo.setServicePort(8080);
+            serviceMetaInfoList.add(serviceMetaInfo);
+        }
+
+        Map<String, ServiceMetaInfo> selected = new HashMap<>();
+        Set<ServiceMetaInfo> hit = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            Map<String, Object> requestParams = new HashMap<>();
+            requestParams.put("methodName", "method" + i);
+            ServiceMetaInfo serviceMetaInfo = loadBalancer.select(requestParams, serviceMetaInfoList);
+            selected.put("method" + i, serviceMetaInfo);
+            hit.add(serviceMetaInfo);
+            // 相同请求重复选择结果不变
+            Assertions.assertSame(serviceMetaInfo, loadBalancer.select(requestParams, serviceMetaInfoList));
+        }
+        Assertions.assertEquals(3, hit.size(), "请求应分散到所有节点");
+
+        // 下线一个节点后，原本落在其他节点上的请求不受影响
+        ServiceMetaInfo removed = serviceMetaInfoList.remove(2);
+        List<ServiceMetaInfo> remaining = new ArrayList<>(serviceMetaInfoList);
+        for (Map.Entry<String, ServiceMetaInfo> entry : selected.entrySet()) {
+            Map<String, Object> requestParams = new HashMap<>();
+            requestParams.put("methodName", entry.getKey());
+            ServiceMetaInfo serviceMetaInfo = loadBalancer.select(requestParams, remaining);
+            Assertions.assertNotEquals(removed, serviceMetaInfo);
+            if (!entry.getValue().equals(removed)) {
+                Assertions.assertEquals(entry.getValue(), serviceMetaInfo);
+            }
+        }
+    }
+
+    @Test
+    public void selectFromSubsetReusesRing() throws Exception {
+        ConsistenHashLoadBalancer loadBalancer = new ConsistenHashLoadBalancer();
+        List<ServiceMetaInfo> serviceMetaInfoList = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
+            serviceMetaInfo.setServiceName("subsetService");
+            serviceMetaInfo.setServiceVersion("1.0");
+            serviceMetaInfo.setServiceHost("10.0.1." + i);
+            serviceMetaInfo.setServicePort(8080);
+            serviceMetaInfoList.add(serviceMetaInfo);
+        }
+        Field ringsField = ConsistenHashLoadBalancer.class.getDeclaredField("rings");
+        ringsField.setAccessible(true);
+        Map<?, ?> rings = (Map<?, ?>) ringsField.get(loadBalancer);
+
+        Map<String, Object> requestParams = new HashMap<>();
+        requestParams.put("methodName", "warmup");
+        loadBalancer.select(requestParams, serviceMetaInfoList);
+        Object ring = rings.get(serviceMetaInfoList.get(0).getServiceKey());
+
+        // 排除一个节点（如故障转移、对冲）后的选择结果与用子集新建的环一致，且不重建缓存的环
+        List<ServiceMetaInfo> subset = new ArrayList<>(serviceMetaInfoList);
+        subset.remove(1);
+        for (int i = 0; i < 200; i++) {
+            requestParams.put("methodName", "method" + i);
+            Assertions.assertEquals(new ConsistenHashLoadBalancer().select(requestParams, subset),
+                    loadBalancer.select(requestParams, subset));
+            loadBalancer.select(requestParams, serviceMetaInfoList);
+        }
+        Assertions.assertSame(ring, rings.get(serviceMetaInfoList.get(0).getServiceKey()));
+
+        // 出现新节点时重建
+        ServiceMetaInfo added = new ServiceMetaInfo();
+        added.setServiceName("subsetService");
+        added.setServiceVersion("1.0");
+        added.setServiceHost("10.0.1.9");
+        added.setServicePort(8080);
+        serviceMetaInfoList.add(added);
+        loadBalancer.select(requestParams, serviceMetaInfoList);
+        Assertions.assertNotSame(ring, rings.get(serviceMetaInfoList.get(0).getServiceKey()));
+    }
+}
@@ -0,0 +1,83 @@
+package com.ming.rpc.loadbalancer;
+
+import com.ming.rpc.model.ServiceMetaInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 最低延迟负载均衡器测试
+ */
+public class LeastLatencyLoadBalancerTest {
+
+    private static ServiceMetaInfo node(String host) {
+        ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
+        serviceMetaInfo.setServiceName("leastLatencyService");
+        serviceMetaInfo.setServiceHost(host);
+        serviceMetaInfo.setServicePort(8080);
+        return serviceMetaInfo;
+    }
+
+    private static void record(ServiceMetaInfo serviceMetaInfo, long latencyMillis) {
+        NodeStats nodeStats = NodeStatsRegistry.get(serviceMetaInfo);
+        nodeStats.start();
+        nodeStats.finish(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(latencyMillis), true);
+    }
+
+    @Test
+    @DisplayName("两个节点时总是选择延迟较低的节点")
+    void testPrefersFasterNode() {
+        ServiceMetaInfo slow = node("10.1.0.1");
+        ServiceMetaInfo fast = node("10.1.0.2");
+        record(slow, 200);
+        record(fast, 5);
+
+        LoadBalancer loadBalancer = new LeastLatencyLoadBalancer();
+        List<ServiceMetaInfo> serviceMetaInfoList = Arrays.asList(slow, fast);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(fast, loadBalancer.select(null, serviceMetaInfoList));
+        }
+    }
+
+    @Test
+    @DisplayName("慢节点只在与更慢的节点比较时被选中，整体流量明显减少")
+    void testSlowNodeGetsLessTraffic() {
+        ServiceMetaInfo slow = node("10.2.0.1");
+        ServiceMetaInfo fast1 = node("10.2.0.2");
+        ServiceMetaInfo fast2 = node("10.2.0.3");
+        record(slow, 300);
+        record(fast1, 5);
+        record(fast2, 6);
+
+        LoadBalancer loadBalancer = new LeastLatencyLoadBalancer();
+        List<ServiceMetaInfo> serviceMetaInfoList = Arrays.asList(slow, fast1, fast2);
+        int slowCount = 0;
+        for (int i = 0; i < 300; i++) {
+            if (loadBalancer.select(null, serviceMetaInfoList) == slow) {
+                slowCount++;
+            }
+        }
+        assertEquals(0, slowCount);
+    }
+
+    @Test
+    @DisplayName("EWMA 平滑延迟，失败按惩罚延迟计入，未完成请求数正确增减")
+    void testNodeStats() {
+        NodeStats nodeStats = new NodeStats();
+        long start = nodeStats.start();
+        assertEquals(1, nodeStats.getInFlight());
+        nodeStats.finish(start - TimeUnit.MILLISECONDS.toNanos(10), true);
+        assertEquals(0, nodeStats.getInFlight());
+        double first = nodeStats.getEwmaNanos();
+        assertTrue(first >= TimeUnit.MILLISECONDS.toNanos(10));
+
+        // 立即失败的请求至少按两倍平均延迟计入，平均值不会下降
+        nodeStats.finish(nodeStats.start(), false);
+        assertTrue(nodeStats.getEwmaNanos() >= first);
+    }
+}
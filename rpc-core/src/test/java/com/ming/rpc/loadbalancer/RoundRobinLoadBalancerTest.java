@@ -1,16 +1,19 @@
 package com.ming.rpc.loadbalancer;
 
 import com.ming.rpc.model.ServiceMetaInfo;
-import org.junit.Before;
-import org.junit.Test;
-import static org.junit.Assert.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
 
+import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 轮询负载均衡器测试
@@ -23,7 +26,7 @@ public class RoundRobinLoadBalancerTest {
     private ServiceMetaInfo service2;
     private ServiceMetaInfo service3;
 
-    @Before
+    @BeforeEach
     public void setUp() {
         service1 = new ServiceMetaInfo();
         service1.setServiceName("service1");
@@ -46,13 +49,13 @@ public class RoundRobinLoadBalancerTest {
         List<ServiceMetaInfo> serviceList = Arrays.asList(service1, service2);
 
         ServiceMetaInfo result1 = loadBalancer.select(null, serviceList);
-        assertEquals("第一次调用应返回第一个服务", service1, result1);
+        assertEquals(service1, result1, "第一次调用应返回第一个服务");
 
         ServiceMetaInfo result2 = loadBalancer.select(null, serviceList);
-        assertEquals("第二次调用应返回第二个服务", service2, result2);
+        assertEquals(service2, result2, "第二次调用应返回第二个服务");
 
         ServiceMetaInfo result3 = loadBalancer.select(null, serviceList);
-        assertEquals("第三次调用应返回第一个服务", service1, result3);
+        assertEquals(service1, result3, "第三次调用应返回第一个服务");
     }
 
     @Test
@@ -60,18 +63,18 @@ public class RoundRobinLoadBalancerTest {
         List<ServiceMetaInfo> serviceList = Collections.singletonList(service1);
 
         ServiceMetaInfo result1 = loadBalancer.select(null, serviceList);
-        assertEquals("应返回唯一可用的服务", service1, result1);
+        assertEquals(service1, result1, "应返回唯一可用的服务");
 
         ServiceMetaInfo result2 = loadBalancer.select(null, serviceList);
-        assertEquals("仍然应返回唯一可用的服务", service1, result2);
+        assertEquals(service1, result2, "仍然应返回唯一可用的服务");
     }
 
     @Test
     public void select_withEmptyOrNullList_shouldReturnNull() {
         List<ServiceMetaInfo> emptyList = Collections.emptyList();
-        assertNull("对于空列表应返回null", loadBalancer.select(null, emptyList));
+        assertNull(loadBalancer.select(null, emptyList), "对于空列表应返回null");
 
-        assertNull("对于null列表应返回null", loadBalancer.select(null, null));
+        assertNull(loadBalancer.select(null, null), "对于null列表应返回null");
     }
 
     @Test
@@ -82,7 +85,7 @@ public class RoundRobinLoadBalancerTest {
         int totalCalls = numThreads * numCallsPerThread;
 
         ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
-        List<ServiceMetaInfo> results = Collections.synchronizedList(new java.util.ArrayList<>());
+        List<ServiceMetaInfo> results = Collections.synchronizedList(new ArrayList<>());
 
         for (int i = 0; i < numThreads; i++) {
             executorService.submit(() -> {
@@ -93,14 +96,26 @@ public class RoundRobinLoadBalancerTest {
         }
 
         executorService.shutdown();
-        assertTrue("线程应及时完成", executorService.awaitTermination(1, TimeUnit.MINUTES));
+        assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES), "线程应及时完成");
 
-        assertEquals("所有调用都应返回结果", totalCalls, results.size());
+        assertEquals(totalCalls, results.size(), "所有调用都应返回结果");
 
         // 验证所有返回的服务是否来自原始列表
         for(ServiceMetaInfo result : results) {
             assertNotNull(result);
-            assertTrue("每个结果必须是初始服务之一", serviceList.contains(result));
+            assertTrue(serviceList.contains(result), "每个结果必须是初始服务之一");
         }
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void select_afterCounterOverflow_shouldStayInRange() throws Exception {
+        Field field = RoundRobinLoadBalancer.class.getDeclaredField("currentIndex");
+        field.setAccessible(true);
+        ((AtomicInteger) field.get(loadBalancer)).set(Integer.MAX_VALUE);
+
+        List<ServiceMetaInfo> serviceList = Arrays.asList(service1, service2, service3);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(serviceList.contains(loadBalancer.select(null, serviceList)), "计数溢出后仍应返回有效服务");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.ming.rpc.loadbalancer;
+
+import com.ming.rpc.model.ServiceMetaInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 平滑加权轮询负载均衡器测试
+ */
+public class WeightedRoundRobinLoadBalancerTest {
+
+    private static ServiceMetaInfo node(String host, int weight) {
+        ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
+        serviceMetaInfo.setServiceName("weightedService");
+        serviceMetaInfo.setServiceHost(host);
+        serviceMetaInfo.setServicePort(8080);
+        serviceMetaInfo.setWeight(weight);
+        return serviceMetaInfo;
+    }
+
+    @Test
+    @DisplayName("选择序列平滑分布，与 Nginx 平滑加权轮询一致")
+    void testSmoothSequence() {
+        ServiceMetaInfo a = node("a", 5);
+        ServiceMetaInfo b = node("b", 1);
+        ServiceMetaInfo c = node("c", 1);
+        List<ServiceMetaInfo> serviceMetaInfoList = Arrays.asList(a, b, c);
+
+        LoadBalancer loadBalancer = new WeightedRoundRobinLoadBalancer();
+        List<ServiceMetaInfo> selected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            selected.add(loadBalancer.select(null, serviceMetaInfoList));
+        }
+        assertEquals(Arrays.asList(a, a, b, a, c, a, a), selected);
+    }
+
+    @Test
+    @DisplayName("流量按权重比例分配，权重为 0 的节点不接收流量")
+    void testProportionalToWeight() {
+        ServiceMetaInfo small = node("8core", 800);
+        ServiceMetaInfo large = node("32core", 3200);
+        ServiceMetaInfo drained = node("drained", 0);
+        List<ServiceMetaInfo> serviceMetaInfoList = Arrays.asList(small, large, drained);
+
+        LoadBalancer loadBalancer = new WeightedRoundRobinLoadBalancer();
+        Map<ServiceMetaInfo, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            counts.merge(loadBalancer.select(null, serviceMetaInfoList), 1, Integer::sum);
+        }
+        assertEquals(100, counts.get(small));
+        assertEquals(400, counts.get(large));
+        assertNull(counts.get(drained));
+    }
+
+    @Test
+    @DisplayName("权重变化后重建选择序列")
+    void testRebuildOnWeightChange() {
+        LoadBalancer loadBalancer = new WeightedRoundRobinLoadBalancer();
+        ServiceMetaInfo a = node("a", 1);
+        ServiceMetaInfo b = node("b", 1);
+        loadBalancer.select(null, Arrays.asList(a, b));
+
+        List<ServiceMetaInfo> changed = Arrays.asList(node("a", 1), node("b", 0));
+        for (int i = 0; i < 4; i++) {
+            assertEquals("a", loadBalancer.select(null, changed).getServiceHost());
+        }
+    }
+
+    @Test
+    @DisplayName("预热中的节点按启动时长线性获得流量")
+    void testWarmupRampsWeight() {
+        long now = System.currentTimeMillis();
+        ServiceMetaInfo warm = node("warm", 100);
+        ServiceMetaInfo halfWarm = node("halfWarm", 100);
+        halfWarm.setStartTime(now - 30_000);
+        halfWarm.setWarmup(60_000);
+        ServiceMetaInfo cold = node("cold", 100);
+        cold.setStartTime(now);
+        cold.setWarmup(60_000);
+
+        assertEquals(100, WarmupWeights.effectiveWeight(warm, now));
+        assertEquals(50, WarmupWeights.effectiveWeight(halfWarm, now), 1);
+        assertEquals(1, WarmupWeights.effectiveWeight(cold, now));
+        assertEquals(100, WarmupWeights.effectiveWeight(cold, now + 60_000));
+
+        LoadBalancer loadBalancer = new WeightedRoundRobinLoadBalancer();
+        List<ServiceMetaInfo> serviceMetaInfoList = Arrays.asList(warm, halfWarm, cold);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 151; i++) {
+            counts.merge(loadBalancer.select(null, serviceMetaInfoList).getServiceHost(), 1, Integer::sum);
+        }
+        assertEquals(100, counts.get("warm"));
+        assertEquals(50, counts.get("halfWarm"), 1);
+        assertEquals(1, counts.get("cold"), 1);
+    }
+
+    @Test
+    @DisplayName("完整列表与子集交替选择时，子集不重置序列，完整列表仍按权重比例分配")
+    void testSubsetDoesNotResetSchedule() {
+        ServiceMetaInfo a = node("a", 50);
+        ServiceMetaInfo b = node("b", 30);
+        ServiceMetaInfo c = node("c", 20);
+        List<ServiceMetaInfo> serviceMetaInfoList = Arrays.asList(a, b, c);
+
+        LoadBalancer loadBalancer = new WeightedRoundRobinLoadBalancer();
+        Map<ServiceMetaInfo, Integer> counts = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            ServiceMetaInfo selected = loadBalancer.select(null, serviceMetaInfoList);
+            counts.merge(selected, 1, Integer::sum);
+            //约四分之一的调用再从其余节点中选一个（如对冲、故障转移）
+            if (random.nextInt(4) == 0) {
+                List<ServiceMetaInfo> others = new ArrayList<>(serviceMetaInfoList);
+                others.remove(selected);
+                assertNotEquals(selected, loadBalancer.select(null, others));
+            }
+        }
+        assertEquals(5000, counts.get(a), 250);
+        assertEquals(3000, counts.get(b), 250);
+        assertEquals(2000, counts.get(c), 250);
+    }
+}
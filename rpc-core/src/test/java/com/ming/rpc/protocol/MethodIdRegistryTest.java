@@ -0,0 +1,75 @@
+package com.ming.rpc.protocol;
+
+import com.ming.rpc.config.KryoConfig;
+import com.ming.rpc.model.RpcRequest;
+import com.ming.rpc.serializer.EnvelopeSerializer;
+import com.ming.rpc.serializer.KryoSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 方法 id 注册表测试
+ */
+public class MethodIdRegistryTest {
+
+    private static RpcRequest buildRequest(String methodName, Class<?>... parameterTypes) {
+        RpcRequest rpcRequest = new RpcRequest();
+        rpcRequest.setServiceName("com.ming.example.OrderService");
+        rpcRequest.setMethodName(methodName);
+        rpcRequest.setParameterTypes(parameterTypes);
+        return rpcRequest;
+    }
+
+    @Test
+    @DisplayName("方法 id 由签名决定，签名不同 id 不同")
+    void testMethodIdStable() {
+        int id = MethodIdRegistry.register(buildRequest("query", String.class, int.class));
+        assertNotEquals(0, id);
+        assertEquals(id, MethodIdRegistry.register(buildRequest("query", String.class, int.class)));
+        assertEquals(id, MethodIdRegistry.methodId("com.ming.example.OrderService", null, "query", new Class[]{String.class, int.class}));
+        assertNotEquals(id, MethodIdRegistry.register(buildRequest("query", String.class, long.class)));
+    }
+
+    @Test
+    @DisplayName("精简请求不修改原请求，并能按 id 还原签名")
+    void testCompactAndResolve() {
+        RpcRequest rpcRequest = buildRequest("save", List.class);
+        rpcRequest.setArgs(new Object[]{List.of("a")});
+        rpcRequest.setMethodId(MethodIdRegistry.register(rpcRequest));
+
+        RpcRequest compact = MethodIdRegistry.compact(rpcRequest);
+        assertTrue(MethodIdRegistry.isCompact(compact));
+        assertNull(compact.getParameterTypes());
+        assertEquals("save", rpcRequest.getMethodName());
+
+        assertTrue(MethodIdRegistry.resolve(compact));
+        assertEquals("com.ming.example.OrderService", compact.getServiceName());
+        assertEquals("save", compact.getMethodName());
+        assertArrayEquals(new Class[]{List.class}, compact.getParameterTypes());
+
+        RpcRequest unknown = new RpcRequest();
+        unknown.setMethodId(-42);
+        assertFalse(MethodIdRegistry.resolve(unknown));
+    }
+
+    @Test
+    @DisplayName("信封序列化下精简请求的载荷不到完整请求的一半")
+    void testCompactPayloadSmaller() throws Exception {
+        RpcRequest rpcRequest = buildRequest("findById", long.class);
+        rpcRequest.setArgs(new Object[]{42L});
+        rpcRequest.setMethodId(MethodIdRegistry.register(rpcRequest));
+        EnvelopeSerializer serializer = new EnvelopeSerializer(new KryoSerializer(new KryoConfig()));
+
+        byte[] full = serializer.serialize(rpcRequest);
+        byte[] compact = serializer.serialize(MethodIdRegistry.compact(rpcRequest));
+        assertTrue(compact.length * 2 < full.length, compact.length + " vs " + full.length);
+
+        RpcRequest decoded = serializer.deserialize(compact, RpcRequest.class);
+        assertEquals("findById", decoded.getMethodName());
+        assertEquals(42L, decoded.getArgs()[0]);
+    }
+}
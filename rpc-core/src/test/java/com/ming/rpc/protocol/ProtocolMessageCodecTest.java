@@ -0,0 +1,177 @@
+package com.ming.rpc.protocol;
+
+import com.ming.rpc.RpcApplication;
+import com.ming.rpc.model.RpcRequest;
+import com.ming.rpc.model.RpcResponse;
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.buffer.Buffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 协议消息编解码测试
+ */
+public class ProtocolMessageCodecTest {
+
+    private static ProtocolMessage.Header buildHeader(ProtocolMessageSerializerEnum serializerEnum, ProtocolMessageTypeEnum type) {
+        ProtocolMessage.Header header = new ProtocolMessage.Header();
+        header.setMagic(ProtocolConstant.PROTOCOL_MAGIC);
+        header.setVersion(ProtocolConstant.PROTOCOL_VERSION);
+        header.setSerializer((byte) serializerEnum.getKey());
+        header.setType((byte) type.getKey());
+        header.setStatus((byte) ProtocolMessageStatusEnum.OK.getValue());
+        header.setRequestId(42L);
+        return header;
+    }
+
+    @Test
+    @DisplayName("请求消息编码后从缓冲区切片解码")
+    void testRequestRoundTrip() throws Exception {
+        for (ProtocolMessageSerializerEnum serializerEnum : ProtocolMessageSerializerEnum.values()) {
+            assertRequestRoundTrip(serializerEnum);
+        }
+    }
+
+    @Test
+    @DisplayName("粘在一起的消息按帧切片后各自解码")
+    void testResponseDecodedFromSlice() throws Exception {
+        for (ProtocolMessageSerializerEnum serializerEnum : ProtocolMessageSerializerEnum.values()) {
+            assertResponseDecodedFromSlice(serializerEnum);
+        }
+    }
+
+    @Test
+    @DisplayName("编码到池化直接内存，释放后归还")
+    void testEncodePooled() throws Exception {
+        RpcResponse rpcResponse = new RpcResponse();
+        rpcResponse.setData(123);
+        rpcResponse.setMessage("ok");
+        ProtocolMessage.Header header = buildHeader(ProtocolMessageSerializerEnum.JDK, ProtocolMessageTypeEnum.RESPONSE);
+
+        ByteBuf byteBuf = ProtocolMessageEncoder.encodePooled(new ProtocolMessage<>(header, rpcResponse));
+        assertTrue(byteBuf.isDirect());
+        assertEquals(header.getBodyLength(), byteBuf.readableBytes() - ProtocolConstant.MESSAGE_HEADER_LENGTH);
+
+        RpcResponse body = (RpcResponse) ProtocolMessageDecoder.decode(Buffer.buffer(byteBuf)).getBody();
+        assertEquals(123, body.getData());
+        assertTrue(byteBuf.release());
+    }
+
+    @Test
+    @DisplayName("超过阈值的消息体按消息头中的算法压缩，解码时自动解压")
+    void testCompressedBody() throws Exception {
+        RpcResponse rpcResponse = new RpcResponse();
+        rpcResponse.setData("row,".repeat(RpcApplication.getRpcConfig().getCompressThreshold()));
+        rpcResponse.setMessage("ok");
+        for (ProtocolMessageCompressorEnum compressorEnum : ProtocolMessageCompressorEnum.values()) {
+            ProtocolMessage.Header header = buildHeader(ProtocolMessageSerializerEnum.KRYO, ProtocolMessageTypeEnum.RESPONSE);
+            header.setCompressor((byte) compressorEnum.getKey());
+            ByteBuf byteBuf = ProtocolMessageEncoder.encodePooled(new ProtocolMessage<>(header, rpcResponse));
+            try {
+                boolean expectCompressed = compressorEnum != ProtocolMessageCompressorEnum.NONE;
+                assertEquals(expectCompressed, header.isCompressed(), compressorEnum.getValue());
+                ProtocolMessage<?> decoded = ProtocolMessageDecoder.decode(Buffer.buffer(byteBuf));
+                assertEquals(expectCompressed, decoded.getHeader().isCompressed());
+                assertEquals(compressorEnum.getKey(), decoded.getHeader().getCompressor());
+                assertEquals(ProtocolMessageSerializerEnum.KRYO.getKey(), decoded.getHeader().getSerializer());
+                assertEquals(rpcResponse.getData(), ((RpcResponse) decoded.getBody()).getData());
+            } finally {
+                byteBuf.release();
+            }
+        }
+
+        //小消息不压缩
+        ProtocolMessage.Header header = buildHeader(ProtocolMessageSerializerEnum.KRYO, ProtocolMessageTypeEnum.RESPONSE);
+        header.setCompressor((byte) ProtocolMessageCompressorEnum.LZ4.getKey());
+        rpcResponse.setData("small");
+        ProtocolMessageEncoder.encode(new ProtocolMessage<>(header, rpcResponse));
+        assertFalse(header.isCompressed());
+    }
+
+    @Test
+    @DisplayName("剩余超时时间紧跟消息头传递，不参与压缩")
+    void testTimeoutExtension() throws Exception {
+        RpcRequest rpcRequest = new RpcRequest();
+        rpcRequest.setServiceName("codecService");
+        rpcRequest.setMethodName("echo");
+        rpcRequest.setArgs(new Object[]{"x".repeat(RpcApplication.getRpcConfig().getCompressThreshold())});
+        for (ProtocolMessageCompressorEnum compressorEnum : new ProtocolMessageCompressorEnum[]{
+                ProtocolMessageCompressorEnum.NONE, ProtocolMessageCompressorEnum.GZIP}) {
+            ProtocolMessage.Header header = buildHeader(ProtocolMessageSerializerEnum.KRYO, ProtocolMessageTypeEnum.REQUEST);
+            header.setCompressor((byte) compressorEnum.getKey());
+            header.setTimeout(1500);
+            Buffer buffer = ProtocolMessageEncoder.encode(new ProtocolMessage<>(header, rpcRequest));
+            assertEquals(buffer.length() - ProtocolConstant.MESSAGE_HEADER_LENGTH, buffer.getInt(ProtocolConstant.BODY_LENGTH_OFFSET));
+            assertEquals(1500, buffer.getInt(ProtocolConstant.MESSAGE_HEADER_LENGTH));
+
+            ProtocolMessage<?> decoded = ProtocolMessageDecoder.decode(buffer);
+            assertEquals(ProtocolMessageTypeEnum.REQUEST.getKey(), decoded.getHeader().getType());
+            assertEquals(1500, decoded.getHeader().getTimeout());
+            assertEquals(rpcRequest.getArgs()[0], ((RpcRequest) decoded.getBody()).getArgs()[0]);
+        }
+    }
+
+    @Test
+    @DisplayName("超时标记位决定扩展字段，标记位置位但超时时间无效时拒绝解码")
+    void testInvalidTimeoutRejected() throws Exception {
+        RpcRequest rpcRequest = new RpcRequest();
+        rpcRequest.setServiceName("codecService");
+        rpcRequest.setMethodName("echo");
+        ProtocolMessage.Header header = buildHeader(ProtocolMessageSerializerEnum.KRYO, ProtocolMessageTypeEnum.REQUEST);
+        header.setTimeout(1500);
+        Buffer buffer = ProtocolMessageEncoder.encode(new ProtocolMessage<>(header, rpcRequest));
+        buffer.setInt(ProtocolConstant.MESSAGE_HEADER_LENGTH, 0);
+        assertThrows(IOException.class, () -> ProtocolMessageDecoder.decode(buffer));
+        buffer.setInt(ProtocolConstant.MESSAGE_HEADER_LENGTH, -1);
+        assertThrows(IOException.class, () -> ProtocolMessageDecoder.decode(buffer));
+
+        //消息体放不下扩展字段
+        Buffer heartbeat = ProtocolMessageEncoder.encode(new ProtocolMessage<>(
+                buildHeader(ProtocolMessageSerializerEnum.KRYO, ProtocolMessageTypeEnum.HEART_BEAT), null));
+        heartbeat.setByte(3, (byte) (heartbeat.getByte(3) | ProtocolConstant.TIMEOUT_FLAG));
+        assertThrows(IOException.class, () -> ProtocolMessageDecoder.decode(heartbeat));
+
+        ProtocolMessage.Header negative = buildHeader(ProtocolMessageSerializerEnum.KRYO, ProtocolMessageTypeEnum.REQUEST);
+        negative.setTimeout(-1);
+        assertThrows(IllegalArgumentException.class, () -> ProtocolMessageEncoder.encode(new ProtocolMessage<>(negative, rpcRequest)));
+    }
+
+    private void assertRequestRoundTrip(ProtocolMessageSerializerEnum serializerEnum) throws Exception {
+        RpcRequest rpcRequest = new RpcRequest();
+        rpcRequest.setServiceName("codecService");
+        rpcRequest.setMethodName("echo");
+        rpcRequest.setParameterTypes(new Class[]{String.class});
+        rpcRequest.setArgs(new Object[]{"hello"});
+
+        Buffer buffer = ProtocolMessageEncoder.encode(new ProtocolMessage<>(buildHeader(serializerEnum, ProtocolMessageTypeEnum.REQUEST), rpcRequest));
+        assertEquals(buffer.length() - ProtocolConstant.MESSAGE_HEADER_LENGTH, buffer.getInt(ProtocolConstant.BODY_LENGTH_OFFSET), "消息体长度应回填到消息头");
+
+        ProtocolMessage<?> decoded = ProtocolMessageDecoder.decode(buffer);
+        assertEquals(42L, decoded.getHeader().getRequestId());
+        RpcRequest body = (RpcRequest) decoded.getBody();
+        assertEquals("codecService", body.getServiceName());
+        assertEquals("echo", body.getMethodName());
+        assertEquals("hello", body.getArgs()[0]);
+    }
+
+    private void assertResponseDecodedFromSlice(ProtocolMessageSerializerEnum serializerEnum) throws Exception {
+        RpcResponse rpcResponse = new RpcResponse();
+        rpcResponse.setData("world");
+        rpcResponse.setDataType(String.class);
+        rpcResponse.setMessage("ok");
+        Buffer frame = ProtocolMessageEncoder.encode(new ProtocolMessage<>(buildHeader(serializerEnum, ProtocolMessageTypeEnum.RESPONSE), rpcResponse));
+
+        //前面放一个无关的前缀，验证解码只读取切片范围内的数据
+        Buffer joined = Buffer.buffer().appendBytes(new byte[7]).appendBuffer(frame).appendBytes(new byte[5]);
+        Buffer slice = joined.slice(7, 7 + frame.length());
+
+        ProtocolMessage<?> decoded = ProtocolMessageDecoder.decode(slice);
+        RpcResponse body = (RpcResponse) decoded.getBody();
+        assertEquals("world", body.getData());
+        assertEquals("ok", body.getMessage());
+    }
+}
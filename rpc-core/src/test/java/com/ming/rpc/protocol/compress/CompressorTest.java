@@ -0,0 +1,90 @@
+package com.ming.rpc.protocol.compress;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 压缩器测试
+ */
+public class CompressorTest {
+
+    private static byte[] roundTrip(Compressor compressor, byte[] data, int[] compressedLength) throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream outputStream = compressor.compress(compressed)) {
+            outputStream.write(data);
+        }
+        compressedLength[0] = compressed.size();
+        try (InputStream inputStream = compressor.decompress(new ByteArrayInputStream(compressed.toByteArray()))) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    @Test
+    @DisplayName("各压缩器通过 SPI 加载，往返后数据一致且可压缩数据明显变小")
+    void testRoundTrip() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            text.append("{\"id\":").append(i).append(",\"name\":\"order-").append(i % 17).append("\",\"status\":\"PAID\"},");
+        }
+        byte[] data = text.toString().getBytes(StandardCharsets.UTF_8);
+        for (String key : new String[]{CompressorKeys.GZIP, CompressorKeys.DEFLATE, CompressorKeys.LZ4}) {
+            int[] compressedLength = new int[1];
+            assertArrayEquals(data, roundTrip(CompressorFactory.getInstance(key), data, compressedLength), key);
+            assertTrue(compressedLength[0] * 3 < data.length, key + "：" + compressedLength[0] + " vs " + data.length);
+        }
+    }
+
+    @Test
+    @DisplayName("LZ4 处理短数据、随机数据和长重复串")
+    void testLz4EdgeCases() throws Exception {
+        Lz4Compressor compressor = new Lz4Compressor();
+        byte[] random = new byte[70000];
+        new Random(7).nextBytes(random);
+        byte[] repeated = new byte[100000];
+        byte[][] samples = {new byte[0], "abc".getBytes(StandardCharsets.UTF_8), "abcdefghijklmnopq".getBytes(StandardCharsets.UTF_8), random, repeated};
+        for (byte[] sample : samples) {
+            assertArrayEquals(sample, roundTrip(compressor, sample, new int[1]), "长度 " + sample.length);
+        }
+    }
+
+    @Test
+    @DisplayName("LZ4 声明的原始长度超过上限或压缩比上限时，分配内存前直接拒绝")
+    void testLz4RejectsForgedLength() {
+        Lz4Compressor compressor = new Lz4Compressor();
+        //声明原始长度 Integer.MAX_VALUE，压缩块只有几个字节
+        byte[] forged = {0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x10, 'a', 0, 0};
+        assertThrows(IOException.class, () -> compressor.decompress(new ByteArrayInputStream(forged)));
+        assertThrows(IOException.class, () -> compressor.decompress(new ByteArrayInputStream(forged), 1024));
+    }
+
+    @Test
+    @DisplayName("解压后超过上限时失败，未超过时正常还原")
+    void testDecompressLimit() throws Exception {
+        byte[] zeros = new byte[1024 * 1024];
+        for (String key : new String[]{CompressorKeys.GZIP, CompressorKeys.DEFLATE, CompressorKeys.LZ4}) {
+            Compressor compressor = CompressorFactory.getInstance(key);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream outputStream = compressor.compress(compressed)) {
+                outputStream.write(zeros);
+            }
+            assertThrows(IOException.class, () -> {
+                try (InputStream inputStream = compressor.decompress(new ByteArrayInputStream(compressed.toByteArray()), zeros.length - 1)) {
+                    inputStream.readAllBytes();
+                }
+            }, key);
+            try (InputStream inputStream = compressor.decompress(new ByteArrayInputStream(compressed.toByteArray()), zeros.length)) {
+                assertArrayEquals(zeros, inputStream.readAllBytes(), key);
+            }
+        }
+    }
+}
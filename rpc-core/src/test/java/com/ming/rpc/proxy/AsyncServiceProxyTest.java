@@ -0,0 +1,108 @@
+package com.ming.rpc.proxy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.ming.rpc.RpcApplication;
+import com.ming.rpc.config.RpcConfig;
+import com.ming.rpc.constant.RpcConstant;
+import com.ming.rpc.model.ServiceMetaInfo;
+import com.ming.rpc.registry.LocalRegistry;
+import com.ming.rpc.registry.Registry;
+import com.ming.rpc.registry.RegistryFactory;
+import com.ming.rpc.server.tcp.TcpServerHandler;
+
+import io.vertx.core.Vertx;
+
+/**
+ * 异步接口端到端测试：经过代理、网络和提供者，结果为 null 或提供者失败时调用方的 Future 行为正确
+ */
+public class AsyncServiceProxyTest {
+
+    private static final int TEST_PORT = 8896;
+
+    private static final String TEST_HOST = "127.0.0.1";
+
+    private Vertx vertx;
+
+    private Registry registry;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        //JSON 序列化器需要按 dataType 还原响应数据
+        RpcConfig rpcConfig = new RpcConfig();
+        rpcConfig.setSerializer("json");
+        rpcConfig.getRegistryConfig().setRegistry("mock");
+        //通过反射设置配置，避免初始化注册中心
+        Field configField = RpcApplication.class.getDeclaredField("rpcConfig");
+        configField.setAccessible(true);
+        configField.set(null, rpcConfig);
+
+        ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
+        serviceMetaInfo.setServiceName(AsyncService.class.getName());
+        serviceMetaInfo.setServiceVersion(RpcConstant.DEFAULT_SERVICE_VERSION);
+        serviceMetaInfo.setServiceHost(TEST_HOST);
+        serviceMetaInfo.setServicePort(TEST_PORT);
+        registry = RegistryFactory.getInstance("mock");
+        registry.register(serviceMetaInfo);
+        LocalRegistry.register(AsyncService.class.getName(), AsyncServiceImpl.class);
+
+        vertx = Vertx.vertx();
+        vertx.createNetServer().connectHandler(new TcpServerHandler())
+                .listen(TEST_PORT).toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        registry.destroy();
+        LocalRegistry.remove(AsyncService.class.getName());
+        RpcApplication.destroy();
+    }
+
+    @Test
+    @DisplayName("异步方法结果为 null 时，调用方的 Future 以 null 正常完成")
+    public void testNullResult() throws Exception {
+        AsyncService asyncService = ServiceProxyFactory.getProxy(AsyncService.class);
+        assertEquals("hello", asyncService.echo("hello").get(5, TimeUnit.SECONDS));
+        assertNull(asyncService.echo(null).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("提供者的 Future 失败时，调用方的 Future 异常完成")
+    public void testFailedResult() {
+        AsyncService asyncService = ServiceProxyFactory.getProxy(AsyncService.class);
+        CompletableFuture<String> future = asyncService.fail("boom");
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertEquals("boom", e.getCause().getMessage());
+    }
+
+    public interface AsyncService {
+        CompletableFuture<String> echo(String value);
+
+        CompletableFuture<String> fail(String message);
+    }
+
+    public static class AsyncServiceImpl implements AsyncService {
+        @Override
+        public CompletableFuture<String> echo(String value) {
+            return CompletableFuture.supplyAsync(() -> value);
+        }
+
+        @Override
+        public CompletableFuture<String> fail(String message) {
+            return CompletableFuture.supplyAsync(() -> {
+                throw new IllegalStateException(message);
+            });
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ming.rpc.proxy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.ming.rpc.annotation.HashKey;
+import com.ming.rpc.annotation.RpcTimeout;
+import com.ming.rpc.exception.RpcException;
+import com.ming.rpc.utils.MurmurHashUtil;
+
+/**
+ * 方法元数据（路由键解析）测试
+ */
+public class MethodMetadataTest {
+
+    public record Tenant(String id) {
+    }
+
+    public static class QueryRequest {
+        private final Tenant tenant;
+        private final String keyword;
+
+        public QueryRequest(Tenant tenant, String keyword) {
+            this.tenant = tenant;
+            this.keyword = keyword;
+        }
+
+        public Tenant getTenant() {
+            return tenant;
+        }
+    }
+
+    private interface ShardedService {
+        String getUser(@HashKey Long userId, String field);
+
+        String query(String traceId, @HashKey("tenant.id") QueryRequest request);
+
+        @HashKey(value = "keyword", argIndex = 1)
+        String search(String traceId, QueryRequest request);
+
+        CompletableFuture<String> plain(String value);
+
+        String invalid(@HashKey("missing") QueryRequest request);
+    }
+
+    @RpcTimeout(2000)
+    private interface TimedService {
+        String inherited();
+
+        @RpcTimeout(0)
+        String unlimited();
+    }
+
+    private static MethodMetadata metadata(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return MethodMetadata.of(ShardedService.class.getMethod(name, parameterTypes));
+    }
+
+    @Test
+    @DisplayName("按注解参数计算路由哈希，数值类型与其二进制表示哈希一致")
+    void testParameterHashKey() throws Exception {
+        MethodMetadata metadata = metadata("getUser", Long.class, String.class);
+        int hash = metadata.routeHash(new Object[]{42L, "name"});
+        assertEquals(hash, metadata.routeHash(new Object[]{42L, "email"}), "只有路由键参与哈希");
+        assertNotEquals(hash, metadata.routeHash(new Object[]{43L, "name"}));
+
+        byte[] bytes = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(42L).array();
+        assertEquals(MurmurHashUtil.hash32(bytes), hash);
+        // 路由键为 null 时退回按方法名路由
+        assertEquals(MurmurHashUtil.hash32("getUser"), metadata.routeHash(new Object[]{null, "name"}));
+    }
+
+    @Test
+    @DisplayName("按属性路径取值，支持 getter、记录组件和字段")
+    void testFieldPathHashKey() throws Exception {
+        MethodMetadata query = metadata("query", String.class, QueryRequest.class);
+        int hash = query.routeHash(new Object[]{"t1", new QueryRequest(new Tenant("tenant-a"), "x")});
+        assertEquals(MurmurHashUtil.hash32("tenant-a"), hash);
+        assertEquals(hash, query.routeHash(new Object[]{"t2", new QueryRequest(new Tenant("tenant-a"), "y")}));
+        assertEquals(MurmurHashUtil.hash32("query"), query.routeHash(new Object[]{"t3", new QueryRequest(null, "y")}));
+
+        MethodMetadata search = metadata("search", String.class, QueryRequest.class);
+        assertEquals(MurmurHashUtil.hash32("kw"), search.routeHash(new Object[]{"t1", new QueryRequest(null, "kw")}));
+    }
+
+    @Test
+    @DisplayName("未标注时按方法名路由，异步方法识别并缓存元数据")
+    void testDefaultsAndCache() throws Exception {
+        MethodMetadata metadata = metadata("plain", String.class);
+        assertTrue(metadata.isAsync());
+        assertEquals(MurmurHashUtil.hash32("plain"), metadata.routeHash(new Object[]{"a"}));
+        assertSame(metadata, metadata("plain", String.class));
+    }
+
+    @Test
+    @DisplayName("无效的属性路径在解析时报错")
+    void testInvalidPath() {
+        assertThrows(RpcException.class, () -> metadata("invalid", QueryRequest.class));
+    }
+
+    @Test
+    @DisplayName("方法上的 @RpcTimeout 优先于接口，未标注时使用默认超时")
+    void testResolveTimeout() throws Exception {
+        assertEquals(2000, MethodMetadata.of(TimedService.class.getMethod("inherited")).resolveTimeout(3000));
+        assertEquals(0, MethodMetadata.of(TimedService.class.getMethod("unlimited")).resolveTimeout(3000));
+        assertEquals(3000, metadata("plain", String.class).resolveTimeout(3000));
+    }
+}
@@ -0,0 +1,88 @@
+package com.ming.rpc.proxy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.ming.rpc.RpcApplication;
+import com.ming.rpc.config.RpcConfig;
+import com.ming.rpc.fault.breaker.CircuitBreaker;
+import com.ming.rpc.fault.breaker.CircuitBreakerRegistry;
+import com.ming.rpc.loadbalancer.NodeStats;
+import com.ming.rpc.loadbalancer.NodeStatsRegistry;
+import com.ming.rpc.model.ServiceMetaInfo;
+
+/**
+ * 服务节点变化跟踪测试：节点下线后清理熔断器和调用统计
+ */
+public class ServiceNodeTrackerTest {
+
+    private static final String SERVICE_NAME = "trackerService";
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        //通过反射设置配置，避免初始化注册中心
+        Field configField = RpcApplication.class.getDeclaredField("rpcConfig");
+        configField.setAccessible(true);
+        configField.set(null, new RpcConfig());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ServiceNodeTracker.clear();
+        RpcApplication.destroy();
+    }
+
+    @Test
+    @DisplayName("节点从服务发现结果中消失后，熔断器和调用统计被清理")
+    public void testDepartedNodeRemoved() {
+        ServiceMetaInfo nodeA = node(9001);
+        ServiceMetaInfo nodeB = node(9002);
+        String serviceKey = nodeA.getServiceKey();
+        ServiceNodeTracker.onDiscovered(serviceKey, List.of(nodeA, nodeB));
+        CircuitBreaker breakerA = CircuitBreakerRegistry.get(nodeA);
+        CircuitBreaker breakerB = CircuitBreakerRegistry.get(nodeB);
+        NodeStats statsA = NodeStatsRegistry.get(nodeA);
+        NodeStats statsB = NodeStatsRegistry.get(nodeB);
+
+        ServiceNodeTracker.onDiscovered(serviceKey, List.of(nodeA));
+
+        assertSame(breakerA, CircuitBreakerRegistry.get(nodeA));
+        assertSame(statsA, NodeStatsRegistry.get(nodeA));
+        assertNotSame(breakerB, CircuitBreakerRegistry.get(nodeB));
+        assertNotSame(statsB, NodeStatsRegistry.get(nodeB));
+    }
+
+    @Test
+    @DisplayName("服务发现结果内容不变时保留节点状态")
+    public void testUnchangedNodesKept() {
+        ServiceMetaInfo nodeA = node(9003);
+        String serviceKey = nodeA.getServiceKey();
+        ServiceNodeTracker.onDiscovered(serviceKey, List.of(nodeA));
+        CircuitBreaker breakerA = CircuitBreakerRegistry.get(nodeA);
+        NodeStats statsA = NodeStatsRegistry.get(nodeA);
+
+        //不走缓存的注册中心每次返回新列表
+        ServiceNodeTracker.onDiscovered(serviceKey, new ArrayList<>(List.of(node(9003))));
+
+        assertSame(breakerA, CircuitBreakerRegistry.get(nodeA));
+        assertSame(statsA, NodeStatsRegistry.get(nodeA));
+        CircuitBreakerRegistry.remove(nodeA.getServiceNodeKey());
+        NodeStatsRegistry.remove(nodeA.getServiceNodeKey());
+    }
+
+    private static ServiceMetaInfo node(int port) {
+        ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
+        serviceMetaInfo.setServiceName(SERVICE_NAME);
+        serviceMetaInfo.setServiceHost("127.0.0.1");
+        serviceMetaInfo.setServicePort(port);
+        return serviceMetaInfo;
+    }
+}
@@ -2,14 +2,14 @@ package com.ming.rpc.registry;
 
 import com.ming.rpc.config.RegistryConfig;
 import com.ming.rpc.model.ServiceMetaInfo;
-import org.junit.After;
-import org.junit.Before;
-import org.junit.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 
 import java.util.List;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 public class SqliteRegistryTest {
 
@@ -17,7 +17,7 @@ public class SqliteRegistryTest {
 
     private final ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
 
-    @Before
+    @BeforeEach
     public void setUp() {
         RegistryConfig registryConfig = new RegistryConfig();
         registryConfig.setAddress("jdbc:sqlite::memory:");
@@ -30,9 +30,12 @@ public class SqliteRegistryTest {
         serviceMetaInfo.setServiceHost("localhost");
         serviceMetaInfo.setServicePort(1234);
         serviceMetaInfo.setServiceGroup("testGroup");
+        serviceMetaInfo.setWeight(300);
+        serviceMetaInfo.setStartTime(1700000000000L);
+        serviceMetaInfo.setWarmup(30000);
     }
 
-    @After
+    @AfterEach
     public void tearDown() {
         sqliteRegistry.destroy();
     }
@@ -43,6 +46,9 @@ public class SqliteRegistryTest {
         List<ServiceMetaInfo> result = sqliteRegistry.serviceDiscovery(serviceMetaInfo.getServiceKey());
         assertFalse(result.isEmpty());
         assertEquals(serviceMetaInfo.getServiceHost(), result.get(0).getServiceHost());
+        assertEquals(300, result.get(0).getWeight());
+        assertEquals(1700000000000L, result.get(0).getStartTime());
+        assertEquals(30000, result.get(0).getWarmup());
     }
 
     @Test
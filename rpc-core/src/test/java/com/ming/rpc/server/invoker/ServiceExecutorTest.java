@@ -0,0 +1,129 @@
+package com.ming.rpc.server.invoker;
+
+import com.ming.rpc.RpcApplication;
+import com.ming.rpc.config.ExecutorConfig;
+import com.ming.rpc.config.RpcConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 服务执行器测试
+ */
+public class ServiceExecutorTest {
+
+    private ServiceExecutor createExecutor(ExecutionModeEnum mode) {
+        ExecutorConfig executorConfig = new ExecutorConfig();
+        executorConfig.setMode(mode);
+        executorConfig.setWorkerThreads(1);
+        executorConfig.setWorkerQueueCapacity(1);
+        executorConfig.setMaxVirtualThreadRequests(1);
+        return new ServiceExecutor(executorConfig);
+    }
+
+    @Test
+    @DisplayName("事件循环模式在当前线程执行")
+    void testEventLoopRunsInline() {
+        ServiceExecutor executor = createExecutor(ExecutionModeEnum.EVENT_LOOP);
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        executor.execute(null, () -> thread.set(Thread.currentThread()));
+        assertSame(Thread.currentThread(), thread.get());
+    }
+
+    @Test
+    @DisplayName("工作线程池排队已满时拒绝")
+    void testWorkerPoolRejectsWhenQueueFull() throws InterruptedException {
+        ServiceExecutor executor = createExecutor(ExecutionModeEnum.EVENT_LOOP);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(ExecutionModeEnum.WORKER, () -> {
+                started.countDown();
+                await(release);
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // 唯一的工作线程被占用，第二个任务进入队列，第三个被拒绝
+            executor.execute(ExecutionModeEnum.WORKER, () -> { });
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(ExecutionModeEnum.WORKER, () -> { }));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("虚拟线程模式超过并发上限时拒绝，任务结束后归还许可")
+    void testVirtualThreadLimit() throws InterruptedException {
+        ServiceExecutor executor = createExecutor(ExecutionModeEnum.VIRTUAL_THREAD);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        try {
+            executor.execute(null, () -> {
+                thread.set(Thread.currentThread());
+                await(release);
+                finished.countDown();
+            });
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(null, () -> { }));
+
+            release.countDown();
+            assertTrue(finished.await(5, TimeUnit.SECONDS));
+            assertTrue(thread.get().isVirtual());
+            // 许可在 finally 中归还，稍等片刻后可以再次提交
+            CountDownLatch again = new CountDownLatch(1);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (true) {
+                try {
+                    executor.execute(null, again::countDown);
+                    break;
+                } catch (RejectedExecutionException e) {
+                    assertTrue(System.currentTimeMillis() < deadline);
+                    Thread.sleep(10);
+                }
+            }
+            assertTrue(again.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("关闭默认执行器后线程池停止，再次获取时重新创建")
+    void testShutdownDefault() throws Exception {
+        RpcConfig rpcConfig = new RpcConfig();
+        rpcConfig.getExecutorConfig().setMode(ExecutionModeEnum.WORKER);
+        //通过反射设置配置，避免初始化注册中心
+        Field configField = RpcApplication.class.getDeclaredField("rpcConfig");
+        configField.setAccessible(true);
+        configField.set(null, rpcConfig);
+        try {
+            ServiceExecutor executor = ServiceExecutor.getDefault();
+            assertSame(executor, ServiceExecutor.getDefault());
+            CountDownLatch done = new CountDownLatch(1);
+            executor.execute(null, done::countDown);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+
+            ServiceExecutor.shutdownDefault();
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(null, () -> {
+            }));
+            assertNotSame(executor, ServiceExecutor.getDefault());
+        } finally {
+            RpcApplication.destroy();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.ming.rpc.server.invoker;
+
+import com.ming.rpc.annotation.RpcExecution;
+import com.ming.rpc.model.RpcRequest;
+import com.ming.rpc.registry.LocalRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 服务调用器注册表测试
+ */
+public class ServiceInvokerRegistryTest {
+
+    private static final String SERVICE_NAME = "invokerTestService";
+
+    public interface CounterService {
+        int increment(int delta);
+
+        void fail(String message);
+    }
+
+    @RpcExecution(ExecutionModeEnum.WORKER)
+    public static class CounterServiceImpl implements CounterService {
+        private int count;
+
+        @Override
+        public int increment(int delta) {
+            count += delta;
+            return count;
+        }
+
+        @Override
+        @RpcExecution(ExecutionModeEnum.VIRTUAL_THREAD)
+        public void fail(String message) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        LocalRegistry.remove(SERVICE_NAME);
+    }
+
+    private RpcRequest buildRequest(String methodName, Class<?> parameterType, Object arg) {
+        RpcRequest rpcRequest = new RpcRequest();
+        rpcRequest.setServiceName(SERVICE_NAME);
+        rpcRequest.setMethodName(methodName);
+        rpcRequest.setParameterTypes(new Class[]{parameterType});
+        rpcRequest.setArgs(new Object[]{arg});
+        return rpcRequest;
+    }
+
+    @Test
+    @DisplayName("调用器缓存且服务实例为单例")
+    void testInvokerCachedAndInstanceReused() throws Exception {
+        LocalRegistry.register(SERVICE_NAME, CounterServiceImpl.class);
+
+        ServiceInvoker first = ServiceInvokerRegistry.getInvoker(buildRequest("increment", int.class, 1));
+        ServiceInvoker second = ServiceInvokerRegistry.getInvoker(buildRequest("increment", int.class, 2));
+        assertSame(first, second, "相同签名应复用调用器");
+
+        assertEquals(1, first.invoke(new Object[]{1}));
+        assertEquals(3, second.invoke(new Object[]{2}), "服务实例应为单例，状态可累积");
+    }
+
+    @Test
+    @DisplayName("服务方法抛出的原始异常直接透出")
+    void testOriginalExceptionPropagated() {
+        LocalRegistry.register(SERVICE_NAME, CounterServiceImpl.class);
+        ServiceInvoker invoker = ServiceInvokerRegistry.getInvoker(buildRequest("fail", String.class, "boom"));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> invoker.invoke(new Object[]{"boom"}));
+        assertEquals("boom", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("重新注册服务后调用器失效")
+    void testInvalidatedOnReRegister() {
+        LocalRegistry.register(SERVICE_NAME, CounterServiceImpl.class);
+        ServiceInvoker before = ServiceInvokerRegistry.getInvoker(buildRequest("increment", int.class, 1));
+
+        LocalRegistry.register(SERVICE_NAME, CounterServiceImpl.class);
+        ServiceInvoker after = ServiceInvokerRegistry.getInvoker(buildRequest("increment", int.class, 1));
+        assertNotSame(before, after);
+    }
+
+    @Test
+    @DisplayName("方法上的执行模式注解优先于类上的注解")
+    void testExecutionModeResolved() {
+        LocalRegistry.register(SERVICE_NAME, CounterServiceImpl.class);
+
+        assertEquals(ExecutionModeEnum.WORKER, ServiceInvokerRegistry.getInvoker(buildRequest("increment", int.class, 1)).getExecutionMode());
+        assertEquals(ExecutionModeEnum.VIRTUAL_THREAD, ServiceInvokerRegistry.getInvoker(buildRequest("fail", String.class, "x")).getExecutionMode());
+    }
+}
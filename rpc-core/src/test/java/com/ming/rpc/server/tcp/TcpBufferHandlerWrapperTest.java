@@ -6,6 +6,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -82,4 +84,75 @@ public class TcpBufferHandlerWrapperTest {
             fail("测试异常：" + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * 构造一个消息头 + 指定长度消息体的帧，消息体每个字节填充为 fill
+     */
+    private static Buffer frame(int bodyLength, byte fill) {
+        Buffer buffer = Buffer.buffer();
+        buffer.appendBytes(new byte[ProtocolConstant.BODY_LENGTH_OFFSET]);
+        buffer.appendInt(bodyLength);
+        for (int i = 0; i < bodyLength; i++) {
+            buffer.appendByte(fill);
+        }
+        return buffer;
+    }
+
+    @Test
+    @DisplayName("一次读取包含多个帧以及跨读取的半包")
+    public void testStickyAndSplitFrames() {
+        List<Buffer> frames = new ArrayList<>();
+        TcpBufferHandlerWrapper wrapper = new TcpBufferHandlerWrapper(frames::add);
+
+        Buffer stream = Buffer.buffer()
+                .appendBuffer(frame(3, (byte) 1))
+                .appendBuffer(frame(0, (byte) 2))
+                .appendBuffer(frame(20, (byte) 3))
+                .appendBuffer(frame(5, (byte) 4));
+        // 第一次读取包含前两个完整帧和第三帧的一部分消息头，之后逐段送达
+        int[] cuts = {ProtocolConstant.MESSAGE_HEADER_LENGTH * 3 + 3 + 5, 70, 71, stream.length()};
+        int from = 0;
+        for (int cut : cuts) {
+            wrapper.handle(stream.slice(from, cut).copy());
+            from = cut;
+        }
+
+        assertEquals(4, frames.size());
+        int[] bodyLengths = {3, 0, 20, 5};
+        for (int i = 0; i < frames.size(); i++) {
+            Buffer f = frames.get(i);
+            assertEquals(ProtocolConstant.MESSAGE_HEADER_LENGTH + bodyLengths[i], f.length());
+            assertEquals(bodyLengths[i], f.getInt(ProtocolConstant.BODY_LENGTH_OFFSET));
+            if (bodyLengths[i] > 0) {
+                assertEquals(i + 1, f.getByte(f.length() - 1));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("大帧分成许多小块到达时完整拼出，后续帧不受影响")
+    public void testLargeFrameInSmallChunks() {
+        List<Buffer> frames = new ArrayList<>();
+        TcpBufferHandlerWrapper wrapper = new TcpBufferHandlerWrapper(frames::add);
+
+        int bodyLength = 512 * 1024;
+        Buffer stream = Buffer.buffer()
+                .appendBuffer(frame(bodyLength, (byte) 7))
+                .appendBuffer(frame(4, (byte) 8));
+        int chunk = 8 * 1024 + 3;
+        for (int from = 0; from < stream.length(); from += chunk) {
+            wrapper.handle(stream.slice(from, Math.min(from + chunk, stream.length())).copy());
+        }
+
+        assertEquals(2, frames.size());
+        Buffer large = frames.get(0);
+        assertEquals(ProtocolConstant.MESSAGE_HEADER_LENGTH + bodyLength, large.length());
+        for (int i = ProtocolConstant.MESSAGE_HEADER_LENGTH; i < large.length(); i++) {
+            if (large.getByte(i) != 7) {
+                fail("第 " + i + " 个字节错误");
+            }
+        }
+        assertEquals(ProtocolConstant.MESSAGE_HEADER_LENGTH + 4, frames.get(1).length());
+        assertEquals(8, frames.get(1).getByte(frames.get(1).length() - 1));
+    }
+}
@@ -7,6 +7,7 @@ import com.ming.rpc.constant.RpcConstant;
 import com.ming.rpc.model.RpcRequest;
 import com.ming.rpc.model.RpcResponse;
 import com.ming.rpc.model.ServiceMetaInfo;
+import com.ming.rpc.protocol.MethodIdRegistry;
 import com.ming.rpc.registry.LocalRegistry;
 import com.ming.rpc.serializer.JdkSerializer;
 import com.ming.rpc.serializer.Serializer;
@@ -23,7 +24,9 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -216,11 +219,86 @@ public class TcpCommunicationTest {
         }
     }
 
+    /**
+     * 测试多个并发请求复用长连接，响应按请求 id 正确匹配
+     */
+    @Test
+    @DisplayName("测试TCP长连接多路复用")
+    public void testConcurrentRequestsShareConnection() throws Exception {
+        ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
+        serviceMetaInfo.setServiceHost(TEST_HOST);
+        serviceMetaInfo.setServicePort(TEST_PORT);
+        serviceMetaInfo.setServiceName("testService");
+
+        List<CompletableFuture<RpcResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            RpcRequest rpcRequest = new RpcRequest();
+            rpcRequest.setServiceName("testService");
+            rpcRequest.setMethodName("testMethod");
+            rpcRequest.setParameterTypes(new Class[]{String.class});
+            rpcRequest.setArgs(new Object[]{"req-" + i});
+            futures.add(VertexTcpClient.doRequestAsync(rpcRequest, serviceMetaInfo));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            RpcResponse rpcResponse = futures.get(i).get(5, TimeUnit.SECONDS);
+            assertEquals("req-" + i + " response", rpcResponse.getData(), "响应与请求不匹配");
+        }
+    }
+
+    /**
+     * 测试服务端异步方法：返回 CompletableFuture 的服务在结果完成后才响应
+     */
+    @Test
+    @DisplayName("测试异步服务调用")
+    public void testAsyncServiceMethod() throws Exception {
+        ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
+        serviceMetaInfo.setServiceHost(TEST_HOST);
+        serviceMetaInfo.setServicePort(TEST_PORT);
+        serviceMetaInfo.setServiceName("testService");
+
+        RpcRequest rpcRequest = new RpcRequest();
+        rpcRequest.setServiceName("testService");
+        rpcRequest.setMethodName("asyncMethod");
+        rpcRequest.setParameterTypes(new Class[]{String.class});
+        rpcRequest.setArgs(new Object[]{"test"});
+
+        RpcResponse rpcResponse = VertexTcpClient.doRequestAsync(rpcRequest, serviceMetaInfo).get(5, TimeUnit.SECONDS);
+        assertEquals("ok", rpcResponse.getMessage(), "响应消息错误");
+        assertEquals("test async response", rpcResponse.getData(), "响应数据错误");
+    }
+
+    /**
+     * 测试方法 id：首次调用发送完整请求并握手，之后的调用只携带方法 id，结果依然正确
+     */
+    @Test
+    @DisplayName("测试方法 id 握手后的精简请求")
+    public void testMethodIdInterning() throws Exception {
+        ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
+        serviceMetaInfo.setServiceHost(TEST_HOST);
+        serviceMetaInfo.setServicePort(TEST_PORT);
+        serviceMetaInfo.setServiceName("testService");
+
+        for (int i = 0; i < 20; i++) {
+            RpcRequest rpcRequest = new RpcRequest();
+            rpcRequest.setServiceName("testService");
+            rpcRequest.setMethodName("testMethod");
+            rpcRequest.setParameterTypes(new Class[]{String.class});
+            rpcRequest.setArgs(new Object[]{"id-" + i});
+            rpcRequest.setMethodId(MethodIdRegistry.register(rpcRequest));
+            RpcResponse rpcResponse = VertexTcpClient.doRequestAsync(rpcRequest, serviceMetaInfo).get(5, TimeUnit.SECONDS);
+            assertEquals("id-" + i + " response", rpcResponse.getData(), "响应与请求不匹配");
+            assertEquals("testService", rpcRequest.getServiceName(), "发送精简请求不应修改原请求");
+        }
+    }
+
     /**
      * 测试服务接口
      */
     public interface TestService extends Serializable {
         String testMethod(String param);
+
+        CompletableFuture<String> asyncMethod(String param);
     }
     
     /**
@@ -233,5 +311,10 @@ public class TcpCommunicationTest {
         public String testMethod(String param) {
             return param + " response";
         }
+
+        @Override
+        public CompletableFuture<String> asyncMethod(String param) {
+            return CompletableFuture.supplyAsync(() -> param + " async response");
+        }
     }
 } 
\ No newline at end of file
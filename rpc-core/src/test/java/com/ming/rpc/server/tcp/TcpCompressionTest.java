@@ -0,0 +1,137 @@
+package com.ming.rpc.server.tcp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.ming.rpc.RpcApplication;
+import com.ming.rpc.config.RpcConfig;
+import com.ming.rpc.model.RpcRequest;
+import com.ming.rpc.model.RpcResponse;
+import com.ming.rpc.protocol.ProtocolConstant;
+import com.ming.rpc.protocol.ProtocolMessage;
+import com.ming.rpc.protocol.ProtocolMessageCompressorEnum;
+import com.ming.rpc.protocol.ProtocolMessageDecoder;
+import com.ming.rpc.protocol.ProtocolMessageEncoder;
+import com.ming.rpc.protocol.ProtocolMessageSerializerEnum;
+import com.ming.rpc.protocol.ProtocolMessageTypeEnum;
+import com.ming.rpc.protocol.compress.CompressorKeys;
+import com.ming.rpc.registry.LocalRegistry;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.net.NetSocket;
+
+/**
+ * 响应压缩协商测试：提供者尊重消费者在请求头中声明的压缩算法
+ */
+public class TcpCompressionTest {
+
+    private static final int TEST_PORT = 8895;
+
+    private static final String TEST_HOST = "127.0.0.1";
+
+    private Vertx vertx;
+
+    private RpcConfig rpcConfig;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        //提供者配置了压缩算法，且阈值很低，响应一定值得压缩
+        rpcConfig = new RpcConfig();
+        rpcConfig.setSerializer("jdk");
+        rpcConfig.setCompressor(CompressorKeys.GZIP);
+        rpcConfig.setCompressThreshold(1);
+        //通过反射设置配置，避免初始化注册中心
+        Field configField = RpcApplication.class.getDeclaredField("rpcConfig");
+        configField.setAccessible(true);
+        configField.set(null, rpcConfig);
+        LocalRegistry.register("compressionService", RepeatServiceImpl.class);
+
+        vertx = Vertx.vertx();
+        vertx.createNetServer().connectHandler(new TcpServerHandler())
+                .listen(TEST_PORT).toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        //等待端口释放，下一个用例复用同一端口
+        vertx.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        LocalRegistry.remove("compressionService");
+        RpcApplication.destroy();
+    }
+
+    @Test
+    @DisplayName("消费者未声明压缩算法时，默认不压缩响应")
+    public void testUndeclaredCompressorHonored() throws Exception {
+        ProtocolMessage<?> response = call(ProtocolMessageCompressorEnum.NONE);
+        assertFalse(response.getHeader().isCompressed());
+        assertEquals("ab".repeat(1024), ((RpcResponse) response.getBody()).getData());
+    }
+
+    @Test
+    @DisplayName("显式开启后，未声明压缩算法的请求按提供者配置压缩响应")
+    public void testDefaultResponseCompressionOptIn() throws Exception {
+        rpcConfig.setDefaultResponseCompression(true);
+        ProtocolMessage<?> response = call(ProtocolMessageCompressorEnum.NONE);
+        assertTrue(response.getHeader().isCompressed());
+        assertEquals(ProtocolMessageCompressorEnum.GZIP.getKey(), response.getHeader().getCompressor());
+        assertEquals("ab".repeat(1024), ((RpcResponse) response.getBody()).getData());
+    }
+
+    @Test
+    @DisplayName("消费者声明的压缩算法优先")
+    public void testDeclaredCompressorUsed() throws Exception {
+        ProtocolMessage<?> response = call(ProtocolMessageCompressorEnum.DEFLATE);
+        assertTrue(response.getHeader().isCompressed());
+        assertEquals(ProtocolMessageCompressorEnum.DEFLATE.getKey(), response.getHeader().getCompressor());
+    }
+
+    /**
+     * 直接按协议发送请求，绕过客户端，使请求头中的压缩算法与本端配置无关
+     */
+    private ProtocolMessage<?> call(ProtocolMessageCompressorEnum compressor) throws Exception {
+        RpcRequest rpcRequest = new RpcRequest();
+        rpcRequest.setServiceName("compressionService");
+        rpcRequest.setMethodName("repeat");
+        rpcRequest.setParameterTypes(new Class[]{String.class, int.class});
+        rpcRequest.setArgs(new Object[]{"ab", 1024});
+
+        ProtocolMessage.Header header = new ProtocolMessage.Header();
+        header.setMagic(ProtocolConstant.PROTOCOL_MAGIC);
+        header.setVersion(ProtocolConstant.PROTOCOL_VERSION);
+        header.setSerializer((byte) ProtocolMessageSerializerEnum.JDK.getKey());
+        header.setCompressor((byte) compressor.getKey());
+        header.setType((byte) ProtocolMessageTypeEnum.REQUEST.getKey());
+        header.setRequestId(1L);
+
+        CompletableFuture<ProtocolMessage<?>> response = new CompletableFuture<>();
+        NetSocket socket = vertx.createNetClient().connect(TEST_PORT, TEST_HOST)
+                .toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        socket.handler(new TcpBufferHandlerWrapper(buffer -> {
+            try {
+                response.complete(ProtocolMessageDecoder.decode(buffer));
+            } catch (Exception e) {
+                response.completeExceptionally(e);
+            }
+        }));
+        socket.write(ProtocolMessageEncoder.encode(new ProtocolMessage<>(header, rpcRequest)));
+        try {
+            return response.get(5, TimeUnit.SECONDS);
+        } finally {
+            socket.close();
+        }
+    }
+
+    public static class RepeatServiceImpl {
+        public String repeat(String value, int times) {
+            return value.repeat(times);
+        }
+    }
+}
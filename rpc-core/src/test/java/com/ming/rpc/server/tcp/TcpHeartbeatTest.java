@@ -0,0 +1,165 @@
+package com.ming.rpc.server.tcp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ming.rpc.RpcApplication;
+import com.ming.rpc.config.HeartbeatConfig;
+import com.ming.rpc.config.RpcConfig;
+import com.ming.rpc.loadbalancer.NodeStatsRegistry;
+import com.ming.rpc.model.RpcRequest;
+import com.ming.rpc.model.RpcResponse;
+import com.ming.rpc.model.ServiceMetaInfo;
+import com.ming.rpc.protocol.ProtocolConstant;
+import com.ming.rpc.protocol.ProtocolMessage;
+import com.ming.rpc.protocol.ProtocolMessageSerializerEnum;
+import com.ming.rpc.protocol.ProtocolMessageTypeEnum;
+import com.ming.rpc.registry.LocalRegistry;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.net.NetServer;
+import io.vertx.core.net.NetSocket;
+
+/**
+ * 心跳与空闲检测测试
+ */
+public class TcpHeartbeatTest {
+
+    private static final int TEST_PORT = 8893;
+
+    private static final String TEST_HOST = "127.0.0.1";
+
+    private Vertx vertx;
+
+    private NetServer netServer;
+
+    private HeartbeatConfig heartbeatConfig;
+
+    @BeforeEach
+    public void setUp() throws ReflectiveOperationException {
+        heartbeatConfig = new HeartbeatConfig();
+        heartbeatConfig.setIntervalMillis(100);
+        heartbeatConfig.setTimeoutMillis(300);
+        heartbeatConfig.setEvictMillis(60000);
+        RpcConfig rpcConfig = new RpcConfig();
+        rpcConfig.setSerializer("jdk");
+        rpcConfig.setHeartbeatConfig(heartbeatConfig);
+        //通过反射设置配置，避免初始化注册中心
+        Field configField = RpcApplication.class.getDeclaredField("rpcConfig");
+        configField.setAccessible(true);
+        configField.set(null, rpcConfig);
+        vertx = Vertx.vertx();
+        LocalRegistry.register("heartbeatService", EchoServiceImpl.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (netServer != null) {
+            netServer.close();
+        }
+        vertx.close();
+        LocalRegistry.remove("heartbeatService");
+        RpcApplication.destroy();
+    }
+
+    /**
+     * 对端不再响应（连 pong 也没有）时，连接在超时后关闭，未完成的请求立即失败并回调
+     */
+    @Test
+    public void testDeadPeerDetected() throws Exception {
+        //只接收连接、从不回写的服务端
+        netServer = listen(vertx.createNetServer().connectHandler(socket -> socket.handler(buffer -> {
+        })));
+        AtomicBoolean timedOut = new AtomicBoolean(false);
+        TcpClientConnection connection = new TcpClientConnection(connect(), vertx, heartbeatConfig, () -> timedOut.set(true));
+
+        CompletableFuture<RpcResponse> future = connection.send(requestMessage("dead"));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(3, TimeUnit.SECONDS));
+        assertNotNull(e.getCause());
+        assertTrue(timedOut.get(), "心跳超时应触发回调");
+        assertFalse(connection.isActive(), "心跳超时后连接应关闭");
+    }
+
+    /**
+     * 正常的对端会应答 ping，空闲连接超过超时时间后依然可用；服务端也不会因空闲关闭它
+     */
+    @Test
+    public void testIdleConnectionKeptAlive() throws Exception {
+        netServer = listen(vertx.createNetServer().connectHandler(new TcpServerHandler()));
+        AtomicBoolean timedOut = new AtomicBoolean(false);
+        TcpClientConnection connection = new TcpClientConnection(connect(), vertx, heartbeatConfig, () -> timedOut.set(true));
+
+        Thread.sleep(1000);
+        assertTrue(connection.isActive(), "有心跳应答的空闲连接不应被关闭");
+        assertFalse(timedOut.get());
+        RpcResponse rpcResponse = connection.send(requestMessage("alive")).get(3, TimeUnit.SECONDS);
+        assertEquals("alive", rpcResponse.getData());
+    }
+
+    /**
+     * 被标记为不可用的节点不参与负载均衡，全部不可用时保留原列表
+     */
+    @Test
+    public void testFilterHealthy() {
+        ServiceMetaInfo healthy = node(9101);
+        ServiceMetaInfo dead = node(9102);
+        NodeStatsRegistry.get(dead).markUnhealthy(60000);
+        try {
+            assertEquals(List.of(healthy), NodeStatsRegistry.filterHealthy(List.of(dead, healthy)));
+            List<ServiceMetaInfo> allDead = List.of(dead);
+            assertSame(allDead, NodeStatsRegistry.filterHealthy(allDead));
+            List<ServiceMetaInfo> allHealthy = List.of(healthy);
+            assertSame(allHealthy, NodeStatsRegistry.filterHealthy(allHealthy));
+        } finally {
+            NodeStatsRegistry.remove(dead.getServiceNodeKey());
+        }
+    }
+
+    private NetServer listen(NetServer server) throws Exception {
+        return server.listen(TEST_PORT).toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    private NetSocket connect() throws Exception {
+        return vertx.createNetClient().connect(TEST_PORT, TEST_HOST)
+                .toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    private static ServiceMetaInfo node(int port) {
+        ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
+        serviceMetaInfo.setServiceName("heartbeatService");
+        serviceMetaInfo.setServiceHost(TEST_HOST);
+        serviceMetaInfo.setServicePort(port);
+        return serviceMetaInfo;
+    }
+
+    private static ProtocolMessage<RpcRequest> requestMessage(String arg) {
+        RpcRequest rpcRequest = new RpcRequest();
+        rpcRequest.setServiceName("heartbeatService");
+        rpcRequest.setMethodName("echo");
+        rpcRequest.setParameterTypes(new Class[]{String.class});
+        rpcRequest.setArgs(new Object[]{arg});
+        ProtocolMessage.Header header = new ProtocolMessage.Header();
+        header.setMagic(ProtocolConstant.PROTOCOL_MAGIC);
+        header.setVersion(ProtocolConstant.PROTOCOL_VERSION);
+        header.setSerializer((byte) ProtocolMessageSerializerEnum.JDK.getKey());
+        header.setType((byte) ProtocolMessageTypeEnum.REQUEST.getKey());
+        header.setRequestId(VertexTcpClient.nextRequestId());
+        return new ProtocolMessage<>(header, rpcRequest);
+    }
+
+    public static class EchoServiceImpl {
+        public String echo(String param) {
+            return param;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.ming.rpc.server.tcp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.ming.rpc.RpcApplication;
+import com.ming.rpc.config.ExecutorConfig;
+import com.ming.rpc.config.RpcConfig;
+import com.ming.rpc.exception.RpcTimeoutException;
+import com.ming.rpc.model.RpcRequest;
+import com.ming.rpc.model.RpcResponse;
+import com.ming.rpc.model.ServiceMetaInfo;
+import com.ming.rpc.registry.LocalRegistry;
+import com.ming.rpc.server.invoker.ExecutionModeEnum;
+import com.ming.rpc.server.invoker.ServiceExecutor;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.net.NetServer;
+
+/**
+ * 调用超时与截止时间传递测试
+ */
+public class TcpTimeoutTest {
+
+    private static final int TEST_PORT = 8894;
+
+    private static final String TEST_HOST = "127.0.0.1";
+
+    private static final AtomicInteger COUNTED = new AtomicInteger();
+
+    private Vertx vertx;
+
+    private NetServer netServer;
+
+    private ServiceExecutor serviceExecutor;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        RpcConfig rpcConfig = new RpcConfig();
+        rpcConfig.setSerializer("jdk");
+        //通过反射设置配置，避免初始化注册中心
+        Field configField = RpcApplication.class.getDeclaredField("rpcConfig");
+        configField.setAccessible(true);
+        configField.set(null, rpcConfig);
+
+        //单个工作线程，后到的请求需要排队
+        ExecutorConfig executorConfig = new ExecutorConfig();
+        executorConfig.setMode(ExecutionModeEnum.WORKER);
+        executorConfig.setWorkerThreads(1);
+        serviceExecutor = new ServiceExecutor(executorConfig);
+        LocalRegistry.register("timeoutService", SlowServiceImpl.class);
+        COUNTED.set(0);
+
+        vertx = Vertx.vertx();
+        netServer = vertx.createNetServer().connectHandler(new TcpServerHandler(serviceExecutor))
+                .listen(TEST_PORT).toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        netServer.close();
+        vertx.close();
+        serviceExecutor.shutdown();
+        LocalRegistry.remove("timeoutService");
+        RpcApplication.destroy();
+    }
+
+    @Test
+    @DisplayName("超过超时时间未响应时以超时异常失败，不会一直等待")
+    public void testClientTimeout() throws Exception {
+        long start = System.currentTimeMillis();
+        CompletableFuture<RpcResponse> future = VertexTcpClient.doRequestAsync(request("sleep", 1000L), node(), 100);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RpcTimeoutException.class, e.getCause());
+        assertTrue(System.currentTimeMillis() - start < 800, "应在超时后尽快失败");
+    }
+
+    @Test
+    @DisplayName("排队期间已超过截止时间的请求，提供者不再执行")
+    public void testExpiredRequestSkipped() throws Exception {
+        CompletableFuture<RpcResponse> slow = VertexTcpClient.doRequestAsync(request("sleep", 400L), node(), 0);
+        CompletableFuture<RpcResponse> expired = VertexTcpClient.doRequestAsync(request("count", 0L), node(), 100);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> expired.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RpcTimeoutException.class, e.getCause());
+
+        slow.get(5, TimeUnit.SECONDS);
+        //工作线程空出后，过期的请求被跳过，后续请求正常执行
+        RpcResponse rpcResponse = VertexTcpClient.doRequestAsync(request("count", 0L), node(), 1000).get(5, TimeUnit.SECONDS);
+        assertEquals(1, rpcResponse.getData());
+        assertEquals(1, COUNTED.get(), "过期请求不应执行");
+    }
+
+    @Test
+    @DisplayName("未设置超时的请求被取消后，连接上不再保留该请求")
+    public void testCancelWithoutTimeoutAbandons() throws Exception {
+        //单连接，便于检查连接上未完成的请求
+        RpcApplication.getRpcConfig().setConnectionsPerNode(1);
+        CompletableFuture<RpcResponse> future = VertexTcpClient.doRequestAsync(request("sleep", 300L), node(), 0);
+        TcpClientConnection connection = connection();
+        long deadline = System.currentTimeMillis() + 2000;
+        while (connection.getPendingCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, connection.getPendingCount());
+
+        assertTrue(future.cancel(false));
+        assertThrows(CancellationException.class, future::join);
+        //清理在发出请求的事件循环线程上登记，稍等片刻
+        deadline = System.currentTimeMillis() + 2000;
+        while (connection.getPendingCount() != 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, connection.getPendingCount(), "取消后应清理未完成的请求");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TcpClientConnection connection() throws Exception {
+        Field poolsField = VertexTcpClient.class.getDeclaredField("CONNECTION_POOLS");
+        poolsField.setAccessible(true);
+        Map<String, TcpConnectionPool> pools = (Map<String, TcpConnectionPool>) poolsField.get(null);
+        return pools.get(node().getServiceNodeKey()).acquire().get(5, TimeUnit.SECONDS);
+    }
+
+    private static ServiceMetaInfo node() {
+        ServiceMetaInfo serviceMetaInfo = new ServiceMetaInfo();
+        serviceMetaInfo.setServiceName("timeoutService");
+        serviceMetaInfo.setServiceHost(TEST_HOST);
+        serviceMetaInfo.setServicePort(TEST_PORT);
+        return serviceMetaInfo;
+    }
+
+    private static RpcRequest request(String methodName, long arg) {
+        RpcRequest rpcRequest = new RpcRequest();
+        rpcRequest.setServiceName("timeoutService");
+        rpcRequest.setMethodName(methodName);
+        rpcRequest.setParameterTypes(new Class[]{long.class});
+        rpcRequest.setArgs(new Object[]{arg});
+        return rpcRequest;
+    }
+
+    public static class SlowServiceImpl {
+        public long sleep(long millis) throws InterruptedException {
+            Thread.sleep(millis);
+            return millis;
+        }
+
+        public int count(long ignored) {
+            return COUNTED.incrementAndGet();
+        }
+    }
+}
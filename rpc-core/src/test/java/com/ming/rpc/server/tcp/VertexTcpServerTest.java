@@ -0,0 +1,67 @@
+package com.ming.rpc.server.tcp;
+
+import com.ming.rpc.config.TcpServerConfig;
+import io.vertx.core.Vertx;
+import io.vertx.core.net.NetClient;
+import io.vertx.core.net.NetSocket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 多实例 TCP 服务端测试
+ */
+public class VertexTcpServerTest {
+
+    private static final int TEST_PORT = 8893;
+
+    private VertexTcpServer server;
+
+    private Vertx clientVertx;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+        if (clientVertx != null) {
+            clientVertx.close();
+        }
+    }
+
+    @Test
+    @DisplayName("多个 Verticle 实例共享同一端口并接受连接")
+    void testMultipleInstancesShareOnePort() throws Exception {
+        TcpServerConfig tcpServerConfig = new TcpServerConfig();
+        tcpServerConfig.setInstances(3);
+        tcpServerConfig.setReceiveBufferSize(64 * 1024);
+        tcpServerConfig.setSendBufferSize(64 * 1024);
+        server = new VertexTcpServer(tcpServerConfig);
+        server.start(TEST_PORT).get(10, TimeUnit.SECONDS);
+
+        clientVertx = Vertx.vertx();
+        NetClient netClient = clientVertx.createNetClient();
+        List<CompletableFuture<NetSocket>> connections = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            CompletableFuture<NetSocket> future = new CompletableFuture<>();
+            netClient.connect(TEST_PORT, "127.0.0.1", ar -> {
+                if (ar.succeeded()) {
+                    future.complete(ar.result());
+                } else {
+                    future.completeExceptionally(ar.cause());
+                }
+            });
+            connections.add(future);
+        }
+        for (CompletableFuture<NetSocket> connection : connections) {
+            assertNotNull(connection.get(5, TimeUnit.SECONDS));
+        }
+    }
+}